@@ -2,11 +2,13 @@ package com.ai.claim.underwriter.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 @Configuration
+@EnableScheduling
 public class ExecutorConfig {
 
     @Bean(name = "blockingTaskExecutor")
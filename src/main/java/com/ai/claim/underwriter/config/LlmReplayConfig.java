@@ -0,0 +1,48 @@
+package com.ai.claim.underwriter.config;
+
+import com.ai.claim.underwriter.interceptor.LlmResponseStore;
+import com.ai.claim.underwriter.interceptor.RecordReplayAdvisor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClientCustomizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Registers the record-and-replay advisor on every ChatClient built from the shared builder.
+ * Controlled by the {@code claim.replay.*} properties; {@code mode: off} leaves clients untouched.
+ */
+@Configuration
+public class LlmReplayConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmReplayConfig.class);
+
+    @Value("${claim.replay.mode:off}")
+    private String mode;
+
+    @Value("${claim.replay.store-dir:llm-replay}")
+    private String storeDir;
+
+    @Value("${claim.replay.time-scale:0.0}")
+    private double timeScale;
+
+    @Value("${claim.replay.live-on-miss:false}")
+    private boolean liveOnMiss;
+
+    @Bean
+    public ChatClientCustomizer recordReplayCustomizer(ObjectMapper objectMapper) {
+        RecordReplayAdvisor.Mode replayMode = RecordReplayAdvisor.Mode.valueOf(mode.trim().toUpperCase());
+        if (replayMode == RecordReplayAdvisor.Mode.OFF) {
+            return builder -> { };
+        }
+
+        logger.info("LLM record/replay enabled: mode={}, store={}, timeScale={}", replayMode, storeDir, timeScale);
+        RecordReplayAdvisor advisor = new RecordReplayAdvisor(
+                new LlmResponseStore(Path.of(storeDir), objectMapper), replayMode, timeScale, liveOnMiss);
+        return builder -> builder.defaultAdvisors(advisor);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ai.claim.underwriter.config;
+
+import com.ai.claim.underwriter.repository.PolicyChunkRepository;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Repeatable Flyway migration for the quantized HNSW index on {@code policy_chunks}. The index depends on
+ * {@code claim.retrieval.quantization.mode} and the embedding dimensions, so it is built from configuration
+ * rather than a SQL file; its checksum follows the DDL, so changing either runs it again. Each run drops the
+ * quantized indexes it may have built before (including on {@code none}) and creates the configured one; a
+ * failure (e.g. pgvector older than 0.7) fails the migration so that it is retried on the next start.
+ */
+@Component
+public class PolicyChunkQuantizedIndexMigration implements JavaMigration {
+
+    private final String indexDdl;
+
+    public PolicyChunkQuantizedIndexMigration(@Value("${claim.retrieval.quantization.mode:none}") String quantization,
+                                              @Value("${spring.ai.vectorstore.pgvector.dimensions:1536}") int dimensions) {
+        this.indexDdl = PolicyChunkRepository.Quantization.parse(quantization).indexDdl(dimensions);
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return null;
+    }
+
+    @Override
+    public String getDescription() {
+        return "policy chunks quantized index";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return indexDdl == null ? 0 : indexDdl.hashCode();
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            // The previous index may be for another mode or dimension count
+            for (PolicyChunkRepository.Quantization mode : PolicyChunkRepository.Quantization.values()) {
+                if (mode.indexName() != null) {
+                    statement.execute("DROP INDEX IF EXISTS " + mode.indexName());
+                }
+            }
+            if (indexDdl != null) {
+                // Built once over the existing rows; can take a while on a large table
+                statement.execute(indexDdl);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ai.claim.underwriter.controller;
+
+import com.ai.claim.underwriter.model.ClaimDailyStats;
+import com.ai.claim.underwriter.model.DenialReasonCount;
+import com.ai.claim.underwriter.service.ClaimAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics/claims")
+public class ClaimAnalyticsController {
+
+    private final ClaimAnalyticsService claimAnalyticsService;
+
+    public ClaimAnalyticsController(ClaimAnalyticsService claimAnalyticsService) {
+        this.claimAnalyticsService = claimAnalyticsService;
+    }
+
+    /**
+     * Approval rate, decision counts and average payable amount per day for days in [from, to], grouped by
+     * hospital and/or policy ({@code groupBy}, both by default) and optionally filtered to one of each.
+     */
+    @GetMapping("/daily")
+    public List<ClaimDailyStats> dailyStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String hospital,
+            @RequestParam(required = false) String policyNumber,
+            @RequestParam(required = false) List<String> groupBy) {
+        return claimAnalyticsService.dailyStats(from, to, hospital, policyNumber, groupBy);
+    }
+
+    /**
+     * Most frequent reasons of denied and partially paid claims for days in [from, to].
+     */
+    @GetMapping("/denial-reasons")
+    public List<DenialReasonCount> denialReasons(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String hospital,
+            @RequestParam(required = false) String policyNumber,
+            @RequestParam(required = false) Integer limit) {
+        return claimAnalyticsService.denialReasons(from, to, hospital, policyNumber, limit);
+    }
+}
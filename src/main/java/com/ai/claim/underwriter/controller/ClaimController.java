@@ -2,11 +2,16 @@ package com.ai.claim.underwriter.controller;
 
 import com.ai.claim.underwriter.exception.FileProcessingException;
 import com.ai.claim.underwriter.model.ClaimProcessingResult;
+import com.ai.claim.underwriter.model.DecisionLetter;
 import com.ai.claim.underwriter.model.ExtractRequest;
+import com.ai.claim.underwriter.service.ClaimIdempotencyService;
+import com.ai.claim.underwriter.service.DecisionLetterService;
 import com.ai.claim.underwriter.service.ReActAgentService;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -24,21 +29,33 @@ public class ClaimController {
     private final List<String> allowedTypes = Arrays.asList("application/pdf", "text/plain");
 
     private final ReActAgentService reActAgentService;
+    private final DecisionLetterService decisionLetterService;
+    private final ClaimIdempotencyService claimIdempotencyService;
 
-    public ClaimController(ReActAgentService reActAgentService) {
+    public ClaimController(ReActAgentService reActAgentService, DecisionLetterService decisionLetterService,
+                           ClaimIdempotencyService claimIdempotencyService) {
         this.reActAgentService = reActAgentService;
+        this.decisionLetterService = decisionLetterService;
+        this.claimIdempotencyService = claimIdempotencyService;
     }
 
+    /**
+     * Repeats of a request (same Idempotency-Key, or same policy, patient and invoice without one) return the
+     * first request's result instead of processing the claim again.
+     */
     @PostMapping("/process-react")
-    public ClaimProcessingResult processWithReAct(@RequestBody ExtractRequest request, @RequestParam String policyNumber, @RequestParam String userName) {
-        return reActAgentService.processWithReAct(request, policyNumber, userName);
+    public ClaimProcessingResult processWithReAct(@RequestBody ExtractRequest request, @RequestParam String policyNumber, @RequestParam String userName,
+                                                  @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return claimIdempotencyService.process(idempotencyKey, policyNumber, userName, request.invoiceText(),
+                () -> reActAgentService.processWithReAct(request, policyNumber, userName));
     }
 
     @PostMapping(value = "/process-claim", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ClaimProcessingResult processClaimFile(
             @RequestPart("file") MultipartFile file, 
             @RequestParam(value = "policyNumber", required = true) String policyNumber, 
-            @RequestParam(value = "patientName", required = true) String patientName) throws IOException {
+            @RequestParam(value = "patientName", required = true) String patientName,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws IOException {
 
         String invoice;
         if (!allowedTypes.contains(file.getContentType())) {
@@ -53,10 +70,25 @@ public class ClaimController {
         }
 
         ExtractRequest request = new ExtractRequest(invoice);
-        return reActAgentService.processWithReAct(request, policyNumber, patientName);
+        return claimIdempotencyService.process(idempotencyKey, policyNumber, patientName, invoice,
+                () -> reActAgentService.processWithReAct(request, policyNumber, patientName));
 
     }
 
+    /**
+     * Customer letter of the claim's latest decision; 202 while it is still being written after the decision.
+     */
+    @GetMapping("/{claimId}/letter")
+    public ResponseEntity<DecisionLetter> getLetter(@PathVariable long claimId) {
+        DecisionLetter letter = decisionLetterService.letterFor(claimId);
+        HttpStatus status = switch (letter.status()) {
+            case DecisionLetter.PENDING -> HttpStatus.ACCEPTED;
+            case DecisionLetter.READY -> HttpStatus.OK;
+            default -> HttpStatus.NOT_FOUND;
+        };
+        return ResponseEntity.status(status).body(letter);
+    }
+
     private String extractFileData(MultipartFile file) throws IOException {
         try (InputStream is = file.getInputStream();
              PDDocument doc = PDDocument.load(is)) {
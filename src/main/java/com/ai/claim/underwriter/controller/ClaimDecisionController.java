@@ -0,0 +1,49 @@
+package com.ai.claim.underwriter.controller;
+
+import com.ai.claim.underwriter.model.ClaimDecisionPage;
+import com.ai.claim.underwriter.model.ClaimDecisionView;
+import com.ai.claim.underwriter.service.ClaimDecisionQueryService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/claims")
+public class ClaimDecisionController {
+
+    private final ClaimDecisionQueryService claimDecisionQueryService;
+
+    public ClaimDecisionController(ClaimDecisionQueryService claimDecisionQueryService) {
+        this.claimDecisionQueryService = claimDecisionQueryService;
+    }
+
+    /**
+     * Decisions newest first, filtered by creation time [from, to), decision and policy. Letters and evidence
+     * are left out unless listed in {@code include}; follow {@code nextCursor} for the next page.
+     */
+    @GetMapping("/decisions")
+    public ClaimDecisionPage searchDecisions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String decision,
+            @RequestParam(required = false) String policyNumber,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) List<String> include) {
+        return claimDecisionQueryService.search(from, to, decision, policyNumber, limit, cursor, include);
+    }
+
+    /**
+     * Latest decision of a claim; 404 when the claim has none.
+     */
+    @GetMapping("/{claimId}/decision")
+    public ResponseEntity<ClaimDecisionView> getLatestDecision(@PathVariable long claimId,
+                                                               @RequestParam(required = false) List<String> include) {
+        return claimDecisionQueryService.latest(claimId, include)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -10,8 +10,10 @@ import java.time.LocalDateTime;
 @Table(name = "claim_ai_result")
 public class ClaimAIResult {
 
+    // Pooled sequence (the SERIAL sequence, INCREMENT BY 50) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_ai_result_id_seq")
+    @SequenceGenerator(name = "claim_ai_result_id_seq", sequenceName = "claim_ai_result_id_seq", allocationSize = 50)
     private Integer id;
     
     @Column(name = "patient_name", length = 100)
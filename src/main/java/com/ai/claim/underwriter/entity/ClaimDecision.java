@@ -17,13 +17,24 @@ import java.util.List;
 @Table(name = "claim_decisions")
 public class ClaimDecision {
 
+    // Source of a decision saved while its letter was still streaming, until the final save replaces it
+    public static final String SOURCE_DRAFT = "DRAFT";
+
     // Getters and Setters
+    // Pooled sequence (the BIGSERIAL sequence, INCREMENT BY 50) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_decisions_id_seq")
+    @SequenceGenerator(name = "claim_decisions_id_seq", sequenceName = "claim_decisions_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "claim_id", nullable = false)
     private Long claimId;
+
+    @Column(name = "policy_number", length = 50)
+    private String policyNumber;
+
+    @Column(name = "hospital_name", length = 150)
+    private String hospitalName;
     
     @Column(name = "decision", length = 30, nullable = false)
     private String decision;
@@ -34,6 +45,11 @@ public class ClaimDecision {
     @Column(name = "reasons")
     @JdbcTypeCode(SqlTypes.JSON)
     private String reasons;
+
+    // Reasons of the uncovered line items only, for the denial-reason analytics
+    @Column(name = "denial_reasons")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String denialReasons;
     
     @Column(name = "letter", columnDefinition = "TEXT")
     private String letter;
@@ -41,6 +57,14 @@ public class ClaimDecision {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // LLM, or CACHE_EXACT / CACHE_SIMILAR when the classification was reused from source_claim_id;
+    // DRAFT rows are not final and are left out of every read
+    @Column(name = "adjudication_source", length = 20)
+    private String adjudicationSource;
+
+    @Column(name = "source_claim_id")
+    private Long sourceClaimId;
+
     @JsonIgnore
     @OneToMany(mappedBy = "claimDecision", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<ClaimDecisionEvidence> evidences = new ArrayList<>();
@@ -3,13 +3,16 @@ package com.ai.claim.underwriter.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "claim_decision_evidence")
 public class ClaimDecisionEvidence {
 
+    // Pooled sequence (the BIGSERIAL sequence, INCREMENT BY 50) so a decision's evidence is inserted as one batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_decision_evidence_id_seq")
+    @SequenceGenerator(name = "claim_decision_evidence_id_seq", sequenceName = "claim_decision_evidence_id_seq", allocationSize = 50)
     private Long id;
 
     // decision_id BIGINT NOT NULL REFERENCES claim_decisions(id)
@@ -17,13 +20,22 @@ public class ClaimDecisionEvidence {
     private Long decisionId;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "decision_id", nullable = false)
+    // No foreign key: claim_decisions is partitioned and its primary key includes created_at
+    @JoinColumn(name = "decision_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private ClaimDecision claimDecision;
 
-    // chunk_text TEXT NOT NULL
-    @Column(name = "chunk_text", columnDefinition = "text", nullable = false)
+    // chunk_id UUID: the policy_chunks row the evidence came from; its text is joined on read
+    @Column(name = "chunk_id")
+    private UUID chunkId;
+
+    // chunk_text TEXT: only stored for evidence without a policy_chunks row
+    @Column(name = "chunk_text", columnDefinition = "text")
     private String chunkText;
 
+    // rank INT: position in the retrieval ranking, best first
+    @Column(name = "rank")
+    private Integer rank;
+
     // score NUMERIC(10,6)
     @Column(name = "score", precision = 10, scale = 6)
     private BigDecimal score;
@@ -52,6 +64,22 @@ public class ClaimDecisionEvidence {
         this.decisionId = decisionId;
     }
 
+    public UUID getChunkId() {
+        return chunkId;
+    }
+
+    public void setChunkId(UUID chunkId) {
+        this.chunkId = chunkId;
+    }
+
+    public Integer getRank() {
+        return rank;
+    }
+
+    public void setRank(Integer rank) {
+        this.rank = rank;
+    }
+
     public String getChunkText() {
         return chunkText;
     }
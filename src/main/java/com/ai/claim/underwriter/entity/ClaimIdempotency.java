@@ -0,0 +1,42 @@
+package com.ai.claim.underwriter.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+@Entity
+@Table(name = "claim_idempotency")
+public class ClaimIdempotency {
+
+    // Idempotency-Key header, or the request fingerprint when the client sent none
+    @Id
+    @Column(name = "idempotency_key", length = 128)
+    private String idempotencyKey;
+
+    // SHA-256 of policy number, patient name and normalized invoice text
+    @Column(name = "request_fingerprint", length = 64, nullable = false)
+    private String requestFingerprint;
+
+    @Column(name = "claim_id")
+    private Long claimId;
+
+    @Column(name = "policy_number", length = 50)
+    private String policyNumber;
+
+    // The ClaimProcessingResult returned to the first request
+    @Column(name = "result", nullable = false)
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String result;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public ClaimIdempotency() {}
+
+}
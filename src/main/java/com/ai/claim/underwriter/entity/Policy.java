@@ -0,0 +1,51 @@
+package com.ai.claim.underwriter.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An ingested policy document with the benefit terms extracted from it once at ingestion.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "policies")
+public class Policy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "policy_id")
+    private Long policyId;
+
+    // The policy number the chunks and claims refer to
+    @Column(name = "policy_code", unique = true, nullable = false)
+    private String policyCode;
+
+    @Column(name = "version", nullable = false)
+    private String version;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "effective_date")
+    private LocalDate effectiveDate;
+
+    @Column(name = "content_text", columnDefinition = "TEXT", nullable = false)
+    private String contentText;
+
+    // PolicyTerms as JSON
+    @Column(name = "terms")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String terms;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public Policy() {}
+}
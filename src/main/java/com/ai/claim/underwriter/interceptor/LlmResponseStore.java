@@ -0,0 +1,61 @@
+package com.ai.claim.underwriter.interceptor;
+
+import com.ai.claim.underwriter.model.RecordedExchange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Local file store for recorded LLM exchanges.
+ * Each exchange is written to its own JSON file named after the prompt hash,
+ * so recordings from several runs can be merged by copying directories.
+ */
+public class LlmResponseStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmResponseStore.class);
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    public LlmResponseStore(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    public Optional<RecordedExchange> find(String promptHash) {
+        Path file = directory.resolve(promptHash + ".json");
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), RecordedExchange.class));
+        } catch (IOException e) {
+            logger.warn("Could not read recorded exchange {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void save(RecordedExchange exchange) {
+        try {
+            Files.createDirectories(directory);
+            // Write to a temp file first so a concurrent replay never reads a half-written exchange
+            Path temp = Files.createTempFile(directory, exchange.promptHash(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), exchange);
+            Files.move(temp, directory.resolve(exchange.promptHash() + ".json"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record LLM exchange " + exchange.promptHash(), e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
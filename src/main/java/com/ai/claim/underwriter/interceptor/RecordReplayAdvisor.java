@@ -0,0 +1,204 @@
+package com.ai.claim.underwriter.interceptor;
+
+import com.ai.claim.underwriter.exception.ClaimProcessingException;
+import com.ai.claim.underwriter.model.RecordedExchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ChatClient advisor that records every prompt/response pair into a {@link LlmResponseStore}
+ * and replays them later without calling the model.
+ * <p>
+ * Replay can honour the original model latency, compress it with a time scale
+ * (e.g. 0.1 = ten times faster) or skip it entirely (0.0), which lets a day of
+ * production traffic be pushed through the ReAct pipeline offline to measure throughput.
+ */
+public class RecordReplayAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordReplayAdvisor.class);
+
+    public enum Mode {
+        OFF, RECORD, REPLAY
+    }
+
+    private final LlmResponseStore store;
+    private final Mode mode;
+    private final double timeScale;
+    private final boolean liveOnMiss;
+
+    public RecordReplayAdvisor(LlmResponseStore store, Mode mode, double timeScale, boolean liveOnMiss) {
+        this.store = store;
+        this.mode = mode;
+        this.timeScale = Math.max(0.0, timeScale);
+        this.liveOnMiss = liveOnMiss;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        String promptHash = hashPrompt(request.prompt());
+
+        if (mode == Mode.REPLAY) {
+            Optional<RecordedExchange> recorded = store.find(promptHash);
+            if (recorded.isPresent()) {
+                pause(recorded.get().latencyMillis());
+                return toResponse(recorded.get(), request);
+            }
+            handleMiss(promptHash);
+        }
+
+        long start = System.currentTimeMillis();
+        ChatClientResponse response = chain.nextCall(request);
+        long latency = System.currentTimeMillis() - start;
+
+        if (mode == Mode.RECORD) {
+            record(promptHash, request.prompt(), textOf(response), latency);
+        }
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        String promptHash = hashPrompt(request.prompt());
+
+        if (mode == Mode.REPLAY) {
+            Optional<RecordedExchange> recorded = store.find(promptHash);
+            if (recorded.isPresent()) {
+                return Mono.delay(scaled(recorded.get().latencyMillis()))
+                        .map(tick -> toResponse(recorded.get(), request))
+                        .flux();
+            }
+            handleMiss(promptHash);
+        }
+
+        if (mode != Mode.RECORD) {
+            return chain.nextStream(request);
+        }
+
+        long start = System.currentTimeMillis();
+        StringBuilder aggregated = new StringBuilder();
+        return chain.nextStream(request)
+                .doOnNext(chunk -> {
+                    String text = textOf(chunk);
+                    if (text != null) {
+                        aggregated.append(text);
+                    }
+                })
+                .doOnComplete(() -> record(promptHash, request.prompt(), aggregated.toString(),
+                        System.currentTimeMillis() - start));
+    }
+
+    @Override
+    public String getName() {
+        return "RecordReplayAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // Run right before the model call so memory/logging advisors still see the replayed response
+        return Ordered.LOWEST_PRECEDENCE - 100;
+    }
+
+    /**
+     * Stable hash over everything that influences the completion: message types and text,
+     * plus the requested model and temperature.
+     */
+    public static String hashPrompt(Prompt prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            List<Message> instructions = prompt.getInstructions();
+            for (Message message : instructions) {
+                digest.update(message.getMessageType().name().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                String text = message.getText();
+                if (text != null) {
+                    digest.update(text.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) '\n');
+            }
+            ChatOptions options = prompt.getOptions();
+            if (options != null) {
+                digest.update(("model=" + options.getModel() + ";temperature=" + options.getTemperature())
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void record(String promptHash, Prompt prompt, String text, long latency) {
+        if (text == null) {
+            return;
+        }
+        String model = prompt.getOptions() != null ? prompt.getOptions().getModel() : null;
+        try {
+            store.save(new RecordedExchange(promptHash, model, text, latency, System.currentTimeMillis()));
+            logger.debug("Recorded LLM exchange {} ({} ms)", promptHash, latency);
+        } catch (Exception e) {
+            // Recording must never break the live pipeline
+            logger.warn("Failed to record LLM exchange {}: {}", promptHash, e.getMessage());
+        }
+    }
+
+    private void handleMiss(String promptHash) {
+        if (!liveOnMiss) {
+            throw new ClaimProcessingException("No recorded LLM response for prompt hash " + promptHash
+                    + " in " + store.getDirectory());
+        }
+        logger.info("Replay miss for prompt hash {}, falling through to live model", promptHash);
+    }
+
+    private void pause(long originalLatencyMillis) {
+        Duration delay = scaled(originalLatencyMillis);
+        if (delay.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Duration scaled(long originalLatencyMillis) {
+        return Duration.ofMillis((long) (originalLatencyMillis * timeScale));
+    }
+
+    private static ChatClientResponse toResponse(RecordedExchange exchange, ChatClientRequest request) {
+        ChatResponse chatResponse = new ChatResponse(List.of(new Generation(new AssistantMessage(exchange.response()))));
+        return ChatClientResponse.builder()
+                .chatResponse(chatResponse)
+                .context(request.context())
+                .build();
+    }
+
+    private static String textOf(ChatClientResponse response) {
+        if (response == null || response.chatResponse() == null || response.chatResponse().getResult() == null) {
+            return null;
+        }
+        return response.chatResponse().getResult().getOutput().getText();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ai.claim.underwriter.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Deterministic outcome of applying {@link PolicyTerms} to classified line items.
+ *
+ * @param totalCovered      invoice amount of the covered items, before sub-limits
+ * @param subLimitReduction covered amount above the category sub-limits
+ * @param deductibleApplied deductible actually taken, never more than what remained payable
+ */
+public record BenefitCalculation(
+        String decision,
+        List<ItemizedDecision> itemizedDecisions,
+        BigDecimal totalClaimed,
+        BigDecimal totalCovered,
+        BigDecimal subLimitReduction,
+        BigDecimal totalCopays,
+        BigDecimal deductibleApplied,
+        BigDecimal payableAmount
+) {
+}
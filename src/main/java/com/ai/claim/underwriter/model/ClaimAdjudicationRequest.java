@@ -1,9 +1,16 @@
 package com.ai.claim.underwriter.model;
 
+import java.util.List;
+
 public record ClaimAdjudicationRequest(
         String patientName,
         long claimId,
         String policyNumber,
         String invoiceSummaryText,   // invoice text OR extracted summary (easy)
-        int topK
-) {}
\ No newline at end of file
+        int topK,
+        List<ExtractedInvoice.LineItem> lineItems   // enables per-category retrieval; may be empty
+) {
+    public ClaimAdjudicationRequest(String patientName, long claimId, String policyNumber, String invoiceSummaryText, int topK) {
+        this(patientName, claimId, policyNumber, invoiceSummaryText, topK, List.of());
+    }
+}
@@ -0,0 +1,23 @@
+package com.ai.claim.underwriter.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Decision counts and payable amounts of one day, per hospital and/or policy unless those were aggregated away
+ * (then null). {@code approvalRate} is approved / claims; {@code averagePayable} is over claims with a payable amount.
+ */
+public record ClaimDailyStats(
+        LocalDate day,
+        String hospitalName,
+        String policyNumber,
+        long claims,
+        long approved,
+        long partial,
+        long denied,
+        long needsInfo,
+        double approvalRate,
+        BigDecimal payableTotal,
+        BigDecimal averagePayable
+) {
+}
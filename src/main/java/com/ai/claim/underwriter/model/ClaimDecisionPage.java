@@ -0,0 +1,13 @@
+package com.ai.claim.underwriter.model;
+
+import java.util.List;
+
+/**
+ * One page of claim decisions; pass {@code nextCursor} back as {@code cursor} for the next page
+ * (null on the last page).
+ */
+public record ClaimDecisionPage(
+        List<ClaimDecisionView> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,27 @@
+package com.ai.claim.underwriter.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read model of a stored claim decision. The letter and the evidence are only filled (and serialized) when the
+ * caller asked for them.
+ */
+public record ClaimDecisionView(
+        Long id,
+        Long claimId,
+        String policyNumber,
+        String decision,
+        BigDecimal payableAmount,
+        List<String> reasons,
+        String adjudicationSource,
+        LocalDateTime createdAt,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String letter,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<Evidence> evidence
+) {
+    public record Evidence(UUID chunkId, Integer rank, BigDecimal score, String chunkText) {}
+}
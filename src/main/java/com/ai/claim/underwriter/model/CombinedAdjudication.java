@@ -0,0 +1,8 @@
+package com.ai.claim.underwriter.model;
+
+/**
+ * Result of the single-call fast path, split into the invoice (persisted as the AI result)
+ * and the claim evidence (persisted as the decision and its evidence).
+ */
+public record CombinedAdjudication(ExtractedInvoice invoice, ClaimEvidence claimEvidence) {
+}
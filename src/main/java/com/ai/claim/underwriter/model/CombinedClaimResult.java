@@ -0,0 +1,18 @@
+package com.ai.claim.underwriter.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Structured output of the single-call fast path: the extracted invoice and the per-item coverage
+ * classification with the policy terms, produced in one model round-trip. Amounts and the decision
+ * are computed afterwards by the benefit calculator.
+ */
+public record CombinedClaimResult(
+        @JsonProperty("invoice") ExtractedInvoice invoice,
+        @JsonProperty("policyTerms") PolicyTerms policyTerms,
+        @JsonProperty("itemizedDecisions") List<ItemizedDecision> itemizedDecisions,
+        @JsonProperty("reasons") List<String> reasons,
+        @JsonProperty("letter") String letter
+) {}
@@ -0,0 +1,11 @@
+package com.ai.claim.underwriter.model;
+
+/**
+ * Status of a claim's customer letter, which may still be generated after the decision was returned.
+ */
+public record DecisionLetter(long claimId, String status, String letter) {
+
+    public static final String PENDING = "PENDING";
+    public static final String READY = "READY";
+    public static final String NOT_FOUND = "NOT_FOUND";
+}
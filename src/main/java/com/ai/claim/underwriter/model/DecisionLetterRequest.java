@@ -0,0 +1,17 @@
+package com.ai.claim.underwriter.model;
+
+import java.util.List;
+
+/**
+ * Everything the letter is written from once the decision has been computed.
+ */
+public record DecisionLetterRequest(
+        long claimId,
+        String patientName,
+        String policyNumber,
+        String invoiceSummary,
+        List<ItemizedDecision> itemizedDecisions,   // computed items (covered, careType, reason)
+        List<String> reasons,
+        PolicyTerms terms
+) {
+}
@@ -0,0 +1,10 @@
+package com.ai.claim.underwriter.model;
+
+/**
+ * A reason given for denied or partially paid claims, with the number of claims that cited it.
+ */
+public record DenialReasonCount(
+        String reason,
+        long claims
+) {
+}
@@ -0,0 +1,32 @@
+package com.ai.claim.underwriter.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Coverage decision for a single invoice service. The adjudication model supplies the classification
+ * ({@code covered}, {@code careType}, {@code reason}); {@code coPayment} and {@code payable} are computed
+ * by {@link com.ai.claim.underwriter.service.BenefitCalculator}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ItemizedDecision(
+        @JsonProperty("service") String service,
+        @JsonProperty("amount") Double amount,
+        @JsonProperty("covered") Boolean covered,
+        @JsonProperty("coPayment") Double coPayment,
+        @JsonProperty("reason") String reason,
+        @JsonProperty("careType") String careType,
+        @JsonProperty("payable") Double payable
+) {
+
+    public static final String HOSPITALIZATION = "HOSPITALIZATION";
+    public static final String OPD = "OPD";
+
+    @JsonIgnore
+    public boolean isHospitalization() {
+        return careType != null && HOSPITALIZATION.equalsIgnoreCase(careType.trim());
+    }
+}
@@ -0,0 +1,68 @@
+package com.ai.claim.underwriter.model;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Coarse invoice line item categories used to issue one policy-evidence query per group of items.
+ */
+public enum LineItemCategory {
+
+    // Checked in declaration order; keywords match the start of a word (leading dose digits ignored)
+    ROOM("room and boarding charges", List.of("room", "ward", "bed", "icu", "boarding", "nursing", "accommodation", "stay")),
+    DIAGNOSTICS("diagnostics, laboratory and imaging", List.of("lab", "test", "scan", "xray", "mri", "ct", "ultrasound", "usg", "ecg", "blood", "pathology", "radiology", "diagnostic")),
+    CONSUMABLES("consumables and non-medical items", List.of("glove", "syringe", "mask", "gown", "kit", "consumable", "dressing", "cotton", "bandage", "disposable", "toiletr")),
+    PHARMACY("pharmacy and medicines", List.of("tab", "cap", "syrup", "inj", "drug", "medicine", "pharmacy", "mg", "ml", "mcg")),
+    OTHER("other medical services", List.of());
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern LEADING_DIGITS = Pattern.compile("^[0-9.]+");
+
+    private final String label;
+    private final List<String> keywords;
+
+    LineItemCategory(String label, List<String> keywords) {
+        this.label = label;
+        this.keywords = keywords;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * First category whose keyword appears in the description, otherwise {@link #OTHER}.
+     */
+    public static LineItemCategory classify(String description) {
+        if (description == null || description.isBlank()) {
+            return OTHER;
+        }
+        String[] words = WORD_SEPARATOR.split(description.toLowerCase(Locale.ROOT).replace("-", ""));
+        for (LineItemCategory category : values()) {
+            for (String word : words) {
+                String stem = LEADING_DIGITS.matcher(word).replaceFirst("");
+                for (String keyword : category.keywords) {
+                    if (!stem.isEmpty() && stem.startsWith(keyword)) {
+                        return category;
+                    }
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    /**
+     * Line item descriptions grouped by category, in declaration order.
+     */
+    public static Map<LineItemCategory, List<String>> group(List<ExtractedInvoice.LineItem> lineItems) {
+        return lineItems.stream()
+                .filter(item -> item.desc() != null && !item.desc().isBlank())
+                .collect(Collectors.groupingBy(item -> classify(item.desc()),
+                        () -> new EnumMap<>(LineItemCategory.class),
+                        Collectors.mapping(ExtractedInvoice.LineItem::desc, Collectors.toList())));
+    }
+}
@@ -0,0 +1,25 @@
+package com.ai.claim.underwriter.model;
+
+import com.ai.claim.underwriter.entity.ClaimAIResult;
+import com.ai.claim.underwriter.entity.ClaimDecision;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One claim's results waiting to be persisted by the write-behind stage: the extraction result, the decision
+ * and its evidence rows. Serialized as one line of the write-behind journal.
+ */
+public record PendingClaimWrite(
+        long sequence,
+        ClaimAIResult aiResult,
+        ClaimDecision claimDecision,
+        List<Evidence> evidence
+) {
+    /**
+     * Reference to a retrieved policy chunk; {@code chunkText} is only set when the chunk has no {@code policy_chunks} id.
+     */
+    public record Evidence(UUID chunkId, String chunkText, BigDecimal score, Integer rank) {
+    }
+}
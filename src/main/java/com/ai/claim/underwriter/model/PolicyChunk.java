@@ -0,0 +1,14 @@
+package com.ai.claim.underwriter.model;
+
+import java.util.Map;
+
+/**
+ * One row of {@code policy_chunks} including its stored embedding.
+ */
+public record PolicyChunk(
+        String id,
+        String content,
+        Map<String, Object> metadata,
+        float[] embedding
+) {
+}
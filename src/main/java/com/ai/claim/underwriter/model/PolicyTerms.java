@@ -0,0 +1,50 @@
+package com.ai.claim.underwriter.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structured benefit parameters of a policy, as read from the policy evidence by the adjudication model.
+ * Missing values fall back to the policy defaults (10% OPD copay, no hospitalization copay, no deductible).
+ *
+ * @param subLimits      caps on the covered amount per {@link LineItemCategory} name, e.g. {@code ROOM -> 5000}
+ * @param exclusions     exclusion clauses with their section numbers; applied through the per-item classification
+ * @param waitingPeriods waiting periods with what they apply to, e.g. {@code "Pre-existing diseases: 2 years"}
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PolicyTerms(
+        @JsonProperty("opdCopayPercent") Double opdCopayPercent,
+        @JsonProperty("hospitalizationCopayPercent") Double hospitalizationCopayPercent,
+        @JsonProperty("deductible") Double deductible,
+        @JsonProperty("subLimits") Map<String, Double> subLimits,
+        @JsonProperty("exclusions") List<String> exclusions,
+        @JsonProperty("waitingPeriods") List<String> waitingPeriods
+) {
+
+    public PolicyTerms(Double opdCopayPercent, Double hospitalizationCopayPercent, Double deductible,
+                       Map<String, Double> subLimits, List<String> exclusions) {
+        this(opdCopayPercent, hospitalizationCopayPercent, deductible, subLimits, exclusions, List.of());
+    }
+
+    public static final double DEFAULT_OPD_COPAY_PERCENT = 10.0;
+    public static final double DEFAULT_HOSPITALIZATION_COPAY_PERCENT = 0.0;
+
+    public static final PolicyTerms DEFAULTS = new PolicyTerms(null, null, null, Map.of(), List.of());
+
+    public double opdCopayPercentOrDefault() {
+        return opdCopayPercent != null ? opdCopayPercent : DEFAULT_OPD_COPAY_PERCENT;
+    }
+
+    public double hospitalizationCopayPercentOrDefault() {
+        return hospitalizationCopayPercent != null ? hospitalizationCopayPercent : DEFAULT_HOSPITALIZATION_COPAY_PERCENT;
+    }
+
+    public double deductibleOrDefault() {
+        return deductible != null ? deductible : 0.0;
+    }
+}
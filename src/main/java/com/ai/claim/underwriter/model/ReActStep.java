@@ -0,0 +1,22 @@
+package com.ai.claim.underwriter.model;
+
+/**
+ * One planner response split into its ReAct sections.
+ * Any section the model did not emit is null.
+ */
+public record ReActStep(
+        String thought,
+        String toolName,     // lower-cased tool name from "ACTION: tool(...)"
+        String parameters,   // raw text between the action parentheses
+        String finalAnswer   // text after "FINAL ANSWER:"
+) {
+    public static final ReActStep EMPTY = new ReActStep(null, null, null, null);
+
+    public boolean isFinal() {
+        return finalAnswer != null;
+    }
+
+    public boolean hasAction() {
+        return toolName != null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ai.claim.underwriter.model;
+
+/**
+ * A single prompt/response pair captured by the record-and-replay advisor.
+ * Keyed by the hash of the prompt so a replayed run resolves the same response
+ * for the same conversation state.
+ */
+public record RecordedExchange(
+        String promptHash,
+        String model,
+        String response,
+        long latencyMillis,   // Wall-clock time of the original model call
+        long recordedAt       // Epoch millis when the exchange was captured
+) {
+}
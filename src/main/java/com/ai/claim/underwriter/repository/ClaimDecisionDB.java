@@ -1,17 +1,30 @@
 package com.ai.claim.underwriter.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ai.claim.underwriter.entity.ClaimDecision;
+import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ClaimDecisionDB extends JpaRepository<ClaimDecision, Long> {
+
+    String SUMMARY_SELECT = """
+            SELECT cd.id AS id, cd.claimId AS claimId, cd.policyNumber AS policyNumber, cd.decision AS decision,
+                   cd.payableAmount AS payableAmount, cd.reasons AS reasons,
+                   cd.adjudicationSource AS adjudicationSource, cd.createdAt AS createdAt
+            FROM ClaimDecision cd
+            """;
     
     /**
      * Find ClaimDecision by claim_id
@@ -21,11 +34,23 @@ public interface ClaimDecisionDB extends JpaRepository<ClaimDecision, Long> {
     Optional<ClaimDecision> findByClaimId(Long claimId);
     
     /**
-     * Find the most recent ClaimDecision by claim_id
+     * Whether a decision for the claim with this exact creation time exists
+     * @param claimId the claim ID to search for
+     * @param createdAt the decision's creation time
+     * @return true if such a decision was saved
+     */
+    boolean existsByClaimIdAndCreatedAt(Long claimId, LocalDateTime createdAt);
+
+    /**
+     * Find the most recent final ClaimDecision by claim_id (drafts excluded)
      * @param claimId the claim ID to search for
      * @return Optional containing the most recent ClaimDecision if found
      */
-    @Query("SELECT cd FROM ClaimDecision cd WHERE cd.claimId = :claimId ORDER BY cd.createdAt DESC")
+    @Query("""
+            SELECT cd FROM ClaimDecision cd
+            WHERE cd.claimId = :claimId AND cd.adjudicationSource IS DISTINCT FROM 'DRAFT'
+            ORDER BY cd.createdAt DESC
+            """)
     Optional<List<ClaimDecision>> findLatestByClaimId(@Param("claimId") Long claimId);
     
     /**
@@ -38,10 +63,136 @@ public interface ClaimDecisionDB extends JpaRepository<ClaimDecision, Long> {
     Optional<ClaimDecision> findByClaimIdWithEvidence(@Param("claimId") Long claimId);
     
     /**
-     * Find the most recent ClaimDecision with evidence by claim_id using JOIN FETCH
+     * Find the most recent final ClaimDecision with evidence by claim_id using JOIN FETCH
+     * (only the latest decision is fetched, so claims decided more than once still return a single row; drafts
+     * are excluded)
      * @param claimId the claim ID to search for
      * @return Optional containing the latest ClaimDecision with eagerly loaded evidences
      */
-    @Query("SELECT cd FROM ClaimDecision cd LEFT JOIN FETCH cd.evidences WHERE cd.claimId = :claimId ORDER BY cd.createdAt DESC")
+    @Query("""
+            SELECT cd FROM ClaimDecision cd LEFT JOIN FETCH cd.evidences
+            WHERE cd.claimId = :claimId AND cd.adjudicationSource IS DISTINCT FROM 'DRAFT'
+              AND NOT EXISTS (SELECT 1 FROM ClaimDecision later
+                              WHERE later.claimId = cd.claimId
+                                AND later.adjudicationSource IS DISTINCT FROM 'DRAFT'
+                                AND (later.createdAt > cd.createdAt
+                                     OR (later.createdAt = cd.createdAt AND later.id > cd.id)))
+            """)
     Optional<ClaimDecision> findLatestByClaimIdWithEvidence(@Param("claimId") Long claimId);
+
+    /**
+     * Keyset page of final decision summaries (no letter, no evidence), newest first. Rows strictly after the
+     * (afterCreatedAt, afterId) position are returned. The row-value comparison lets Postgres start the
+     * (created_at, id) index scan at the cursor instead of filtering every newer row, and the redundant plain
+     * created_at bound prunes the monthly partitions after the cursor, so each page costs the same at any depth
+     * @param from inclusive lower bound of created_at
+     * @param to exclusive upper bound of created_at
+     * @param decision decision to match, or null for any
+     * @param policyNumber policy to match, or null for any
+     * @param afterCreatedAt created_at of the last row of the previous page
+     * @param afterId id of the last row of the previous page
+     * @param pageable page size (page number must be 0)
+     * @return decision summaries ordered by created_at and id descending
+     */
+    @Query(SUMMARY_SELECT + """
+            WHERE cd.createdAt >= :from AND cd.createdAt < :to
+              AND (:decision IS NULL OR cd.decision = :decision)
+              AND (:policyNumber IS NULL OR cd.policyNumber = :policyNumber)
+              AND cd.adjudicationSource IS DISTINCT FROM 'DRAFT'
+              AND cd.createdAt <= :afterCreatedAt
+              AND (cd.createdAt, cd.id) < (:afterCreatedAt, :afterId)
+            ORDER BY cd.createdAt DESC, cd.id DESC
+            """)
+    List<DecisionSummary> searchSummaries(@Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("decision") String decision,
+                                          @Param("policyNumber") String policyNumber,
+                                          @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    /**
+     * Final decision summaries of a claim, newest first
+     * @param claimId the claim ID to search for
+     * @param pageable page size
+     * @return decision summaries ordered by created_at and id descending
+     */
+    @Query(SUMMARY_SELECT + """
+            WHERE cd.claimId = :claimId AND cd.adjudicationSource IS DISTINCT FROM 'DRAFT'
+            ORDER BY cd.createdAt DESC, cd.id DESC
+            """)
+    List<DecisionSummary> findSummariesByClaimId(@Param("claimId") Long claimId, Pageable pageable);
+
+    /**
+     * Letters of the given decisions
+     * @param ids ClaimDecision IDs
+     * @return id and letter of each decision found
+     */
+    @Query("SELECT cd.id AS id, cd.letter AS letter FROM ClaimDecision cd WHERE cd.id IN :ids")
+    List<DecisionLetterText> findLettersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Attach a letter written after the decision was saved, unless that decision already has one
+     * @param id the saved decision's ID
+     * @param letter the filled customer letter
+     * @return number of updated decisions (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ClaimDecision cd SET cd.letter = :letter WHERE cd.id = :id AND (cd.letter IS NULL OR cd.letter = '')")
+    int updateLetterWhereMissing(@Param("id") Long id, @Param("letter") String letter);
+
+    /**
+     * Attach a letter to the claim's latest decision when the decision's ID is not known, leaving earlier
+     * decisions of the same claim and a latest decision that already has a letter untouched
+     * @param claimId the claim ID whose latest decision gets the letter
+     * @param letter the filled customer letter
+     * @return number of updated decisions (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE ClaimDecision cd SET cd.letter = :letter
+            WHERE cd.claimId = :claimId
+              AND (cd.letter IS NULL OR cd.letter = '')
+              AND NOT EXISTS (SELECT 1 FROM ClaimDecision later
+                              WHERE later.claimId = cd.claimId
+                                AND (later.createdAt > cd.createdAt
+                                     OR (later.createdAt = cd.createdAt AND later.id > cd.id)))
+            """)
+    int updateLatestLetterWhereMissing(@Param("claimId") Long claimId, @Param("letter") String letter);
+
+    /**
+     * Delete a decision that is still a draft; a decision whose final save already happened is kept
+     * @param id the draft decision's ID
+     * @return number of deleted decisions (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ClaimDecision cd WHERE cd.id = :id AND cd.adjudicationSource = 'DRAFT'")
+    int deleteDraft(@Param("id") Long id);
+
+    interface DecisionSummary {
+        Long getId();
+
+        Long getClaimId();
+
+        String getPolicyNumber();
+
+        String getDecision();
+
+        BigDecimal getPayableAmount();
+
+        String getReasons();
+
+        String getAdjudicationSource();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    interface DecisionLetterText {
+        Long getId();
+
+        String getLetter();
+    }
 }
@@ -1,11 +1,16 @@
 package com.ai.claim.underwriter.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ai.claim.underwriter.entity.ClaimDecisionEvidence;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface ClaimDecisionEvidenceDB extends JpaRepository<ClaimDecisionEvidence, Long> {
@@ -16,4 +21,49 @@ public interface ClaimDecisionEvidenceDB extends JpaRepository<ClaimDecisionEvid
      * @return List of ClaimDecisionEvidence records
      */
     List<ClaimDecisionEvidence> findByDecisionId(Long decisionId);
+
+    /**
+     * Find the evidence of a decision in rank order, with the text of referenced policy chunks joined in
+     * (rows saved before chunk references keep their own chunk_text)
+     * @param decisionId the ClaimDecision ID
+     * @return evidence rows with their text, best first
+     */
+    @Query(value = """
+            SELECT e.id AS id, e.decision_id AS decisionId, e.chunk_id AS chunkId, e.rank AS rank, e.score AS score,
+                   COALESCE(e.chunk_text, pc.content) AS chunkText
+            FROM claim_decision_evidence e
+            LEFT JOIN policy_chunks pc ON pc.id = e.chunk_id
+            WHERE e.decision_id = :decisionId
+            ORDER BY e.rank NULLS LAST, e.id
+            """, nativeQuery = true)
+    List<EvidenceText> findEvidenceWithText(@Param("decisionId") Long decisionId);
+
+    /**
+     * Evidence of several decisions in one query, with referenced policy chunk text joined in
+     * @param decisionIds ClaimDecision IDs
+     * @return evidence rows grouped by decision, best first within each
+     */
+    @Query(value = """
+            SELECT e.id AS id, e.decision_id AS decisionId, e.chunk_id AS chunkId, e.rank AS rank, e.score AS score,
+                   COALESCE(e.chunk_text, pc.content) AS chunkText
+            FROM claim_decision_evidence e
+            LEFT JOIN policy_chunks pc ON pc.id = e.chunk_id
+            WHERE e.decision_id IN (:decisionIds)
+            ORDER BY e.decision_id, e.rank NULLS LAST, e.id
+            """, nativeQuery = true)
+    List<EvidenceText> findEvidenceWithTextByDecisionIdIn(@Param("decisionIds") Collection<Long> decisionIds);
+
+    interface EvidenceText {
+        Long getId();
+
+        Long getDecisionId();
+
+        UUID getChunkId();
+
+        Integer getRank();
+
+        BigDecimal getScore();
+
+        String getChunkText();
+    }
 }
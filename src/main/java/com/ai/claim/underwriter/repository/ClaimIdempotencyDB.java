@@ -0,0 +1,9 @@
+package com.ai.claim.underwriter.repository;
+
+import com.ai.claim.underwriter.entity.ClaimIdempotency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClaimIdempotencyDB extends JpaRepository<ClaimIdempotency, String> {
+}
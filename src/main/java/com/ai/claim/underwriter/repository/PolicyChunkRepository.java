@@ -0,0 +1,263 @@
+package com.ai.claim.underwriter.repository;
+
+import com.ai.claim.underwriter.model.PolicyChunk;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Direct SQL access to the {@code policy_chunks} table owned by the pgvector store.
+ */
+@Repository
+public class PolicyChunkRepository {
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    /*
+     * The policy's rows are selected first through the btree index on the typed (policy_number, customer_id)
+     * columns and only then ranked by distance. The MATERIALIZED CTE keeps the planner from walking the
+     * HNSW index over the whole table and filtering afterwards, which degrades as the table grows.
+     */
+    private static final String VECTOR_SEARCH_SQL = """
+            WITH candidates AS MATERIALIZED (
+                SELECT c.id, c.content, c.metadata, c.embedding
+                FROM policy_chunks c
+                WHERE c.policy_number = ?
+                  AND c.customer_id = ?
+            )
+            SELECT id::text AS id, content, metadata::text AS metadata, embedding <=> ?::vector AS distance
+            FROM candidates
+            ORDER BY distance
+            LIMIT ?
+            """;
+
+    /*
+     * Quantized candidates first (the ORDER BY matches the quantized HNSW index), then a full-precision re-rank.
+     * The planner either walks that index, with the iterative scan set in searchVector so the policy filter
+     * cannot empty the candidate list, or ranks the btree-selected rows by quantized distance; both are correct.
+     */
+    private static final String QUANTIZED_VECTOR_SEARCH_SQL = """
+            WITH candidates AS MATERIALIZED (
+                SELECT c.id, c.content, c.metadata, c.embedding
+                FROM policy_chunks c
+                WHERE c.policy_number = ?
+                  AND c.customer_id = ?
+                ORDER BY %s
+                LIMIT ?
+            )
+            SELECT id::text AS id, content, metadata::text AS metadata, embedding <=> ?::vector AS distance
+            FROM candidates
+            ORDER BY distance
+            LIMIT ?
+            """;
+
+    // pgvector's upper bound for hnsw.ef_search
+    private static final int MAX_EF_SEARCH = 1000;
+
+    /**
+     * How embeddings are indexed for the candidate search. The {@code embedding} column itself always stays
+     * full precision for the re-rank; HALF and BINARY add an HNSW expression index over a quantized copy.
+     */
+    public enum Quantization {
+        NONE, HALF, BINARY;
+
+        public static Quantization parse(String value) {
+            return value == null || value.isBlank() ? NONE : valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+
+        /**
+         * Candidate ordering; the expression must match {@link #indexDdl} exactly for the index to be used.
+         */
+        String candidateOrder(int dimensions) {
+            return switch (this) {
+                case HALF -> "c.embedding::halfvec(" + dimensions + ") <=> ?::halfvec(" + dimensions + ")";
+                case BINARY -> "binary_quantize(c.embedding)::bit(" + dimensions + ") <~> binary_quantize(?::vector)";
+                case NONE -> throw new IllegalStateException("No quantized ordering without quantization");
+            };
+        }
+
+        /**
+         * Name of the quantized HNSW index, or null for NONE.
+         */
+        public String indexName() {
+            return switch (this) {
+                case HALF -> "policy_chunks_embedding_half_idx";
+                case BINARY -> "policy_chunks_embedding_binary_idx";
+                case NONE -> null;
+            };
+        }
+
+        /**
+         * DDL of the quantized HNSW index, or null for NONE (the vector store's own index is used).
+         */
+        public String indexDdl(int dimensions) {
+            return switch (this) {
+                case HALF -> "CREATE INDEX IF NOT EXISTS " + indexName() + " ON policy_chunks"
+                        + " USING hnsw ((embedding::halfvec(" + dimensions + ")) halfvec_cosine_ops)";
+                case BINARY -> "CREATE INDEX IF NOT EXISTS " + indexName() + " ON policy_chunks"
+                        + " USING hnsw ((binary_quantize(embedding)::bit(" + dimensions + ")) bit_hamming_ops)";
+                case NONE -> null;
+            };
+        }
+    }
+
+    // Uses the GIN expression index policy_chunks_content_fts_idx; the expression must match it exactly
+    private static final String LEXICAL_SEARCH_SQL = """
+            SELECT c.id::text AS id, c.content, c.metadata::text AS metadata,
+                   ts_rank_cd(to_tsvector('english', c.content), q) AS rank
+            FROM policy_chunks c, to_tsquery('english', ?) q
+            WHERE c.policy_number = ?
+              AND c.customer_id = ?
+              AND to_tsvector('english', c.content) @@ q
+            ORDER BY rank DESC
+            LIMIT ?
+            """;
+
+    private static final String FIND_BY_POLICY_SQL = """
+            SELECT c.id::text AS id, c.content, c.metadata::text AS metadata, c.embedding::text AS embedding
+            FROM policy_chunks c
+            WHERE c.policy_number = ?
+              AND c.customer_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate searchTransaction;
+    private final Quantization quantization;
+    private final int rerankCandidates;
+    private final String quantizedSearchSql;
+    private final RowMapper<Document> vectorHitMapper = (rs, rowNum) -> Document.builder()
+            .id(rs.getString("id"))
+            .text(rs.getString("content"))
+            .metadata(parseMetadata(rs.getString("metadata")))
+            .score(1.0 - rs.getDouble("distance"))
+            .build();
+
+    public PolicyChunkRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${claim.retrieval.quantization.mode:none}") String quantization,
+                                 @Value("${spring.ai.vectorstore.pgvector.dimensions:1536}") int dimensions,
+                                 @Value("${claim.retrieval.quantization.rerank-candidates:40}") int rerankCandidates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.searchTransaction = new TransactionTemplate(transactionManager);
+        this.searchTransaction.setReadOnly(true);
+        this.quantization = Quantization.parse(quantization);
+        this.rerankCandidates = rerankCandidates;
+        this.quantizedSearchSql = this.quantization == Quantization.NONE
+                ? null : QUANTIZED_VECTOR_SEARCH_SQL.formatted(this.quantization.candidateOrder(dimensions));
+    }
+
+    /**
+     * Cosine top-K over the chunks of one policy/customer, nearest first.
+     * The score is the cosine similarity ({@code 1 - distance}), as with the pgvector store.
+     * With quantization, the top {@code rerank-candidates} by quantized distance are re-ranked at full precision.
+     */
+    public List<Document> searchVector(String policyNumber, String customerId, float[] embedding, int limit) {
+        String vector = toVectorLiteral(embedding);
+        if (quantization == Quantization.NONE) {
+            return jdbcTemplate.query(VECTOR_SEARCH_SQL, vectorHitMapper, policyNumber, customerId, vector, limit);
+        }
+        int candidates = Math.min(Math.max(rerankCandidates, limit), MAX_EF_SEARCH);
+        // SET LOCAL only lasts until the end of this transaction, so pooled connections keep their defaults
+        return searchTransaction.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL hnsw.ef_search = " + candidates);
+            // Keep scanning the graph until enough rows pass the policy filter (pgvector 0.8+)
+            jdbcTemplate.execute("SET LOCAL hnsw.iterative_scan = relaxed_order");
+            return jdbcTemplate.query(quantizedSearchSql, vectorHitMapper,
+                    policyNumber, customerId, vector, candidates, vector, limit);
+        });
+    }
+
+    /**
+     * Full-text search over the chunks of one policy/customer, best {@code ts_rank_cd} first.
+     *
+     * @param tsQuery a {@code to_tsquery} expression, e.g. {@code "amoxicillin | cataract"}
+     */
+    public List<Document> searchLexical(String policyNumber, String customerId, String tsQuery, int limit) {
+        return jdbcTemplate.query(LEXICAL_SEARCH_SQL, (rs, rowNum) -> Document.builder()
+                        .id(rs.getString("id"))
+                        .text(rs.getString("content"))
+                        .metadata(parseMetadata(rs.getString("metadata")))
+                        .score(rs.getDouble("rank"))
+                        .build(),
+                tsQuery, policyNumber, customerId, limit);
+    }
+
+    /**
+     * All chunks of one policy/customer with their embeddings, used to build the in-memory policy index.
+     */
+    public List<PolicyChunk> findByPolicy(String policyNumber, String customerId) {
+        return jdbcTemplate.query(FIND_BY_POLICY_SQL, (rs, rowNum) -> new PolicyChunk(
+                        rs.getString("id"),
+                        rs.getString("content"),
+                        parseMetadata(rs.getString("metadata")),
+                        parseVector(rs.getString("embedding"))),
+                policyNumber, customerId);
+    }
+
+    /**
+     * Formats an embedding in pgvector's text form, bound as a string and cast with {@code ?::vector}.
+     */
+    static String toVectorLiteral(float[] vector) {
+        StringBuilder text = new StringBuilder(vector.length * 12 + 2).append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(vector[i]);
+        }
+        return text.append(']').toString();
+    }
+
+    /**
+     * Parses pgvector's text form {@code [0.1,-0.2,...]} without going through a boxed list.
+     */
+    static float[] parseVector(String text) {
+        if (text == null || text.length() < 2) {
+            return new float[0];
+        }
+        int end = text.length() - 1;
+        if (end == 1) {
+            return new float[0];
+        }
+        int count = 1;
+        for (int i = 1; i < end; i++) {
+            if (text.charAt(i) == ',') {
+                count++;
+            }
+        }
+        float[] vector = new float[count];
+        int start = 1;
+        for (int i = 0; i < count; i++) {
+            int comma = text.indexOf(',', start);
+            int stop = comma < 0 || comma > end ? end : comma;
+            vector[i] = Float.parseFloat(text.substring(start, stop).trim());
+            start = stop + 1;
+        }
+        return vector;
+    }
+
+    private Map<String, Object> parseMetadata(String json) {
+        if (json == null || json.isBlank()) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (Exception e) {
+            return new HashMap<>();
+        }
+    }
+}
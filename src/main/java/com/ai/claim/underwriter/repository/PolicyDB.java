@@ -0,0 +1,18 @@
+package com.ai.claim.underwriter.repository;
+
+import com.ai.claim.underwriter.entity.Policy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PolicyDB extends JpaRepository<Policy, Long> {
+
+    /**
+     * Find the policy by its policy number (policy_code)
+     * @param policyCode the policy number
+     * @return Optional containing the Policy if found
+     */
+    Optional<Policy> findByPolicyCode(String policyCode);
+}
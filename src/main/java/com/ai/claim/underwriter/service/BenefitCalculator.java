@@ -0,0 +1,212 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.model.BenefitCalculation;
+import com.ai.claim.underwriter.model.ItemizedDecision;
+import com.ai.claim.underwriter.model.LineItemCategory;
+import com.ai.claim.underwriter.model.PolicyTerms;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rules engine for the claim arithmetic.
+ * <p>
+ * The adjudication model only classifies each line item (covered or excluded, hospitalization or OPD) and
+ * reads the policy parameters; copayments, category sub-limits, the deductible, the payable amount and the
+ * decision are computed here, exactly and in the order the policy prescribes:
+ * sub-limits per category, then copay per item, then the deductible on the total.
+ */
+@Component
+public class BenefitCalculator {
+
+    public static final String APPROVED = "APPROVED";
+    public static final String PARTIAL = "PARTIAL";
+    public static final String DENIED = "DENIED";
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    public BenefitCalculation calculate(List<ItemizedDecision> items, PolicyTerms terms) {
+        PolicyTerms policyTerms = terms != null ? terms : PolicyTerms.DEFAULTS;
+        Map<LineItemCategory, BigDecimal> remainingLimits = subLimits(policyTerms);
+
+        BigDecimal opdRate = percent(policyTerms.opdCopayPercentOrDefault());
+        BigDecimal hospitalizationRate = percent(policyTerms.hospitalizationCopayPercentOrDefault());
+
+        List<ItemizedDecision> computed = new ArrayList<>(items.size());
+        BigDecimal totalClaimed = BigDecimal.ZERO;
+        BigDecimal totalCovered = BigDecimal.ZERO;
+        BigDecimal subLimitReduction = BigDecimal.ZERO;
+        BigDecimal totalCopays = BigDecimal.ZERO;
+        int coveredCount = 0;
+
+        for (ItemizedDecision item : items) {
+            BigDecimal amount = money(item.amount());
+            totalClaimed = totalClaimed.add(amount);
+
+            if (!Boolean.TRUE.equals(item.covered())) {
+                computed.add(new ItemizedDecision(item.service(), amount.doubleValue(), false, null,
+                        item.reason(), item.careType(), 0.0));
+                continue;
+            }
+            coveredCount++;
+            totalCovered = totalCovered.add(amount);
+
+            // Sub-limits are consumed in invoice order across the items of a category
+            BigDecimal eligible = amount;
+            LineItemCategory category = LineItemCategory.classify(item.service());
+            BigDecimal remaining = remainingLimits.get(category);
+            if (remaining != null) {
+                eligible = amount.min(remaining);
+                remainingLimits.put(category, remaining.subtract(eligible));
+                subLimitReduction = subLimitReduction.add(amount.subtract(eligible));
+            }
+
+            String careType = item.isHospitalization() ? ItemizedDecision.HOSPITALIZATION : ItemizedDecision.OPD;
+            BigDecimal rate = item.isHospitalization() ? hospitalizationRate : opdRate;
+            BigDecimal coPayment = eligible.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+            totalCopays = totalCopays.add(coPayment);
+
+            computed.add(new ItemizedDecision(item.service(), amount.doubleValue(), true, coPayment.doubleValue(),
+                    item.reason(), careType, eligible.subtract(coPayment).doubleValue()));
+        }
+
+        BigDecimal net = totalCovered.subtract(subLimitReduction).subtract(totalCopays).max(BigDecimal.ZERO);
+        BigDecimal deductibleApplied = money(policyTerms.deductibleOrDefault()).min(net);
+        BigDecimal payableAmount = net.subtract(deductibleApplied);
+
+        String decision;
+        if (coveredCount == 0) {
+            decision = DENIED;
+        } else if (coveredCount < items.size() || totalCopays.signum() > 0
+                || deductibleApplied.signum() > 0 || subLimitReduction.signum() > 0) {
+            decision = PARTIAL;
+        } else {
+            decision = APPROVED;
+        }
+
+        return new BenefitCalculation(decision, computed, totalClaimed, totalCovered, subLimitReduction,
+                totalCopays, deductibleApplied, payableAmount);
+    }
+
+    /**
+     * Reasons derived from the calculation (sub-limits, deductible), appended to the model's coverage reasons.
+     */
+    public List<String> calculationReasons(BenefitCalculation calculation) {
+        List<String> reasons = new ArrayList<>();
+        if (calculation.subLimitReduction().signum() > 0) {
+            reasons.add("Category sub-limits reduced the covered amount by " + formatAmount(calculation.subLimitReduction()));
+        }
+        if (calculation.deductibleApplied().signum() > 0) {
+            reasons.add("Annual deductible of " + formatAmount(calculation.deductibleApplied()) + " applied");
+        }
+        return reasons;
+    }
+
+    /**
+     * Replaces the {@code {{PLACEHOLDER}}} markers of the model's letter with the computed figures and sections.
+     */
+    public String fillLetter(String letter, BenefitCalculation calculation) {
+        if (letter == null || letter.isEmpty()) {
+            return letter;
+        }
+        return letter
+                .replace("{{DECISION}}", calculation.decision())
+                .replace("{{CLAIM_AMOUNT}}", formatAmount(calculation.totalClaimed()))
+                .replace("{{PAYABLE_AMOUNT}}", formatAmount(calculation.payableAmount()))
+                .replace("{{ITEMIZED_BREAKDOWN}}", itemizedBreakdown(calculation))
+                .replace("{{PAYMENT_CALCULATION}}", paymentCalculation(calculation))
+                .replace("{{NEXT_STEPS}}", nextSteps(calculation));
+    }
+
+    static String formatAmount(BigDecimal amount) {
+        BigDecimal value = amount.setScale(2, RoundingMode.HALF_UP);
+        return value.stripTrailingZeros().scale() <= 0
+                ? String.format(Locale.ENGLISH, "₹%,d", value.longValue())
+                : String.format(Locale.ENGLISH, "₹%,.2f", value);
+    }
+
+    private String itemizedBreakdown(BenefitCalculation calculation) {
+        StringBuilder covered = new StringBuilder();
+        StringBuilder excluded = new StringBuilder();
+        for (ItemizedDecision item : calculation.itemizedDecisions()) {
+            String amount = formatAmount(money(item.amount()));
+            if (Boolean.TRUE.equals(item.covered())) {
+                covered.append("- ").append(item.service()).append(": ").append(amount)
+                        .append(" (Copayment: ").append(formatAmount(money(item.coPayment())))
+                        .append(", Net Covered: ").append(formatAmount(money(item.payable()))).append(")\n");
+            } else {
+                excluded.append("- ").append(item.service()).append(": ").append(amount).append('\n')
+                        .append("  Reason: ").append(item.reason() != null ? item.reason() : "Not covered under the policy")
+                        .append('\n');
+            }
+        }
+        StringBuilder breakdown = new StringBuilder();
+        if (!covered.isEmpty()) {
+            breakdown.append("Covered Services:\n").append(covered);
+        }
+        if (!excluded.isEmpty()) {
+            breakdown.append(breakdown.isEmpty() ? "" : "\n").append("Excluded Services:\n").append(excluded);
+        }
+        return breakdown.toString().stripTrailing();
+    }
+
+    private String paymentCalculation(BenefitCalculation calculation) {
+        StringBuilder text = new StringBuilder()
+                .append("────────────────────────────────────\n")
+                .append(String.format("%-30s %s\n", "Total Covered Services:", formatAmount(calculation.totalCovered())));
+        if (calculation.subLimitReduction().signum() > 0) {
+            text.append(String.format("%-30s -%s\n", "Less: Sub-limits", formatAmount(calculation.subLimitReduction())));
+        }
+        return text
+                .append(String.format("%-30s -%s\n", "Less: Copayments", formatAmount(calculation.totalCopays())))
+                .append(String.format("%-30s -%s\n", "Less: Annual Deductible", formatAmount(calculation.deductibleApplied())))
+                .append("────────────────────────────────────\n")
+                .append(String.format("%-30s %s\n", "NET PAYABLE AMOUNT:", formatAmount(calculation.payableAmount())))
+                .append("════════════════════════════════════")
+                .toString();
+    }
+
+    private String nextSteps(BenefitCalculation calculation) {
+        if (DENIED.equals(calculation.decision())) {
+            return "APPEAL PROCESS:\n"
+                    + "If you wish to appeal this decision, please contact our claims department at claims@arogyasecure.com "
+                    + "within 30 days with supporting medical documentation.";
+        }
+        return "NEXT STEPS:\n"
+                + "- The approved amount of " + formatAmount(calculation.payableAmount()) + " will be processed within 5-7 business days\n"
+                + "- Payment will be made via NEFT to your registered bank account\n"
+                + "- You will receive a payment confirmation via email and SMS";
+    }
+
+    private static Map<LineItemCategory, BigDecimal> subLimits(PolicyTerms terms) {
+        Map<LineItemCategory, BigDecimal> limits = new EnumMap<>(LineItemCategory.class);
+        if (terms.subLimits() == null) {
+            return limits;
+        }
+        terms.subLimits().forEach((name, limit) -> {
+            if (name == null || limit == null || limit < 0) {
+                return;
+            }
+            try {
+                limits.put(LineItemCategory.valueOf(name.trim().toUpperCase(Locale.ROOT)), money(limit));
+            } catch (IllegalArgumentException e) {
+                // sub-limit for a category we do not classify; ignored rather than guessed
+            }
+        });
+        return limits;
+    }
+
+    private static BigDecimal percent(double value) {
+        return BigDecimal.valueOf(Math.max(0, Math.min(100, value))).divide(HUNDRED, 6, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal money(Double value) {
+        return value != null ? BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO.setScale(2);
+    }
+}
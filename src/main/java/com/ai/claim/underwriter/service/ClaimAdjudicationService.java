@@ -3,37 +3,57 @@ package com.ai.claim.underwriter.service;
 import com.ai.claim.underwriter.entity.ClaimDecision;
 import com.ai.claim.underwriter.exception.ClaimProcessingException;
 import com.ai.claim.underwriter.exception.PolicyNotFoundException;
+import com.ai.claim.underwriter.model.BenefitCalculation;
 import com.ai.claim.underwriter.model.ClaimAdjudicationRequest;
 import com.ai.claim.underwriter.model.ClaimAdjudicationResponse;
 import com.ai.claim.underwriter.model.ClaimEvidence;
+import com.ai.claim.underwriter.model.CombinedAdjudication;
+import com.ai.claim.underwriter.model.CombinedClaimResult;
+import com.ai.claim.underwriter.model.DecisionLetterRequest;
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.ai.claim.underwriter.model.ItemizedDecision;
+import com.ai.claim.underwriter.model.PolicyTerms;
 import com.ai.claim.underwriter.repository.ClaimDecisionDB;
 import com.ai.claim.underwriter.repository.ClaimDecisionEvidenceDB;
+import com.ai.claim.underwriter.utils.StreamingAdjudicationParser;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.document.Document;
-import org.springframework.ai.vectorstore.SearchRequest;
-import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.ai.claim.underwriter.utils.AbstractConstant.*;
 
@@ -43,116 +63,626 @@ public class ClaimAdjudicationService {
     private static final Logger logger = LoggerFactory.getLogger(ClaimAdjudicationService.class);
     private final ChatClient chatClient;
     private final ObjectMapper objectMapper;
-    private final VectorStore vectorStore;
+    private static final int EVIDENCE_CACHE_SIZE = 256;
+    private static final int SPECULATIVE_QUERY_MAX_CHARS = 4000;
+    private static final TypeReference<List<ItemizedDecision>> ITEMIZED_DECISION_LIST = new TypeReference<>() {
+    };
+
+    private final PolicyEvidenceRetriever policyEvidenceRetriever;
+    private final BenefitCalculator benefitCalculator;
+    private final PolicyTermsService policyTermsService;
+    private final DecisionCache decisionCache;
+    private final DecisionLetterService decisionLetterService;
+    private final ModelRouter modelRouter;
     private final ClaimDecisionDB claimDecisionDB;
     private final ClaimDecisionEvidenceDB claimDecisionEvidenceDB;
-    private final Map<String, SearchRequest> ragCache;
-    private final Map<String, List<String>> evidenceChunkCache = new HashMap<>();
-    private final Map<String, List<Document>> documentCache = new HashMap<>();
-    private final Executor vectorTaskExecutor;
+    // Retrieved chunks keyed by policy|customer|query, so a new invoice on the same policy is not served stale evidence
+    private final Map<String, List<Document>> evidenceCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<Document>> eldest) {
+                    return size() > EVIDENCE_CACHE_SIZE;
+                }
+            });
+
+    // Retrieval and terms loading started when the claim arrived, keyed by claim id
+    private final Map<Long, Speculation> speculations = new ConcurrentHashMap<>();
+
+    record Speculation(String policyNumber, String customerId,
+                       CompletableFuture<List<Document>> evidence, CompletableFuture<Optional<PolicyTerms>> terms) {
+
+        boolean isFor(String policyNumber, String patientName) {
+            return this.policyNumber.equals(policyNumber) && patientName != null
+                    && this.customerId.equals(patientName.toUpperCase());
+        }
+
+        void cancel() {
+            evidence.cancel(true);
+            terms.cancel(true);
+        }
+    }
+
+    @Autowired
+    @Qualifier("blockingTaskExecutor")
+    private Executor blockingTaskExecutor;
+
+    @Value("${claim.speculative-retrieval.enabled:false}")
+    private boolean speculativeRetrievalEnabled = false;
+
+    @Value("${claim.speculative-retrieval.timeout-seconds:20}")
+    private int speculativeTimeoutSeconds = 20;
 
     @Value("classpath:/templates/claimAdjudicationSystemPromptTemplate.st")
     Resource claimAdjudicationSystemPromptTemplate;
 
-    public ClaimAdjudicationService(ChatClient.Builder chatClientBuilder, ObjectMapper objectMapper, VectorStore vectorStore, ClaimDecisionDB claimDecisionDB, ClaimDecisionEvidenceDB claimDecisionEvidenceDB, @Qualifier("vectorTaskExecutor") Executor vectorTaskExecutor) {
+    @Value("classpath:/templates/combinedAdjudicationPromptTemplate.st")
+    Resource combinedAdjudicationPromptTemplate;
+
+    @Value("${claim.adjudication.streaming.enabled:false}")
+    private boolean streamingEnabled = false;
+
+    @Value("${claim.adjudication.streaming.max-attempts:2}")
+    private int streamingMaxAttempts = 2;
+
+    @Value("${claim.adjudication.streaming.early-save:true}")
+    private boolean streamingEarlySave = true;
+
+    public ClaimAdjudicationService(ChatClient.Builder chatClientBuilder, ObjectMapper objectMapper, PolicyEvidenceRetriever policyEvidenceRetriever, BenefitCalculator benefitCalculator, PolicyTermsService policyTermsService, DecisionCache decisionCache, DecisionLetterService decisionLetterService, ModelRouter modelRouter, ClaimDecisionDB claimDecisionDB, ClaimDecisionEvidenceDB claimDecisionEvidenceDB) {
         this.chatClient = chatClientBuilder.build();
         this.objectMapper = objectMapper;
-        this.vectorStore = vectorStore;
+        this.policyEvidenceRetriever = policyEvidenceRetriever;
+        this.benefitCalculator = benefitCalculator;
+        this.policyTermsService = policyTermsService;
+        this.decisionCache = decisionCache;
+        this.decisionLetterService = decisionLetterService;
+        this.modelRouter = modelRouter;
         this.claimDecisionDB = claimDecisionDB;
         this.claimDecisionEvidenceDB = claimDecisionEvidenceDB;
-        this.ragCache = new HashMap<>();
-        this.vectorTaskExecutor = vectorTaskExecutor;
     }
 
     public ClaimEvidence adjudicate(ClaimAdjudicationRequest claimAdjudicationRequest) {
         long startTime = System.currentTimeMillis();
 
         String policyNumber = claimAdjudicationRequest.policyNumber();
+        String customerId = claimAdjudicationRequest.patientName().toUpperCase();
+        boolean cacheable = decisionCache.isEnabled() && !customerId.isEmpty();
+        if (cacheable) {
+            ClaimEvidence cachedEvidence = adjudicateFromCache(claimAdjudicationRequest, customerId);
+            if (cachedEvidence != null) {
+                logger.info("Total time taken for adjudication: {} ms", (System.currentTimeMillis() - startTime));
+                return cachedEvidence;
+            }
+        }
 
+        Speculation speculation = joinSpeculation(claimAdjudicationRequest.claimId(), policyNumber,
+                claimAdjudicationRequest.patientName());
+        List<Document> matches = speculativeEvidence(speculation);
+        if (matches.isEmpty()) {
+            matches = retrievePolicyEvidence(policyNumber, claimAdjudicationRequest.patientName(),
+                    claimAdjudicationRequest.invoiceSummaryText(), claimAdjudicationRequest.lineItems());
+        }
+        PolicyTerms storedTerms = storedTerms(speculation, policyNumber);
+
+        String user = """
+                INVOICE SUMMARY:
+                %s
+                
+                POLICY EVIDENCE CHUNKS (use these as the only source of truth):
+                %s
+                """.formatted(claimAdjudicationRequest.invoiceSummaryText(), formatEvidence(matches))
+                + formatTerms(storedTerms);
+        boolean letterDecoupled = decisionLetterService.isEnabled();
+        if (letterDecoupled) {
+            user += "\nLETTER: skip STEP 5 and omit the letter field; the letter is written separately.\n";
+        }
+
+        long chatClientStart = System.currentTimeMillis();
+        ClaimDecision claimDecision = new ClaimDecision();
+        claimDecision.setPolicyNumber(policyNumber);
+        JsonNode classification = null;
+        String response;
+        int expectedItems = claimAdjudicationRequest.lineItems() != null ? claimAdjudicationRequest.lineItems().size() : 0;
+        if (streamingEnabled) {
+            StringBuilder raw = new StringBuilder();
+            String prompt = user;
+            try {
+                classification = modelRouter.route(ModelRouter.Stage.ADJUDICATION,
+                        model -> streamClassification(prompt, raw, claimDecision, claimAdjudicationRequest.claimId(), storedTerms, model),
+                        streamed -> isCompleteClassification(streamed, expectedItems));
+            } catch (RuntimeException e) {
+                discardDraft(claimDecision);
+                throw e;
+            }
+            response = raw.toString();
+        } else {
+            String prompt = user;
+            response = modelRouter.route(ModelRouter.Stage.ADJUDICATION, model -> chatClient.prompt()
+                            .system(claimAdjudicationSystemPromptTemplate)
+                            .user(prompt)
+                            .options(ModelRouter.options(model))
+                            .call()
+                            .content(),
+                    content -> isCompleteClassification(parseClassification(content), expectedItems));
+        }
+
+        long chatClientEnd = System.currentTimeMillis();
+        logger.info("Time taken for chat client response: {} ms", (chatClientEnd - chatClientStart));
+
+        JsonNode node;
         try {
-            if (!claimAdjudicationRequest.patientName().isEmpty()) {
-                String filerStr = "policyNumber == '" + policyNumber + "' && customerId == '" + claimAdjudicationRequest.patientName().toUpperCase() + "'";
+            if (classification == null) {
+                // Strip markdown code fences if present
+                String cleanedResponse = stripMarkdownCodeFences(response);
+                classification = objectMapper.readTree(cleanedResponse);
+            }
+            node = applyBenefits(classification, storedTerms);
+            if (cacheable && !NEEDS_INFO.equals(node.path(DECISION).asText(NEEDS_INFO))) {
+                decisionCache.store(policyNumber, customerId, claimAdjudicationRequest.lineItems(), classification,
+                        matches, claimAdjudicationRequest.claimId());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to parse AI response as JSON: {}", e.getMessage());
+            logger.debug("Raw response: {}", response);
+            ObjectNode objectNode = objectMapper.createObjectNode();
+            objectNode.put(DECISION, NEEDS_INFO);
+            objectNode.putNull(PAYABLE_AMOUNT);
+            objectNode.putArray(REASONS).add(MODEL_OUTPUT_WAS_NOT_VALID_JSON);
+            objectNode.put(LETTER, response);
+            node = objectNode;
+        }
 
-                if (ragCache.isEmpty() || !ragCache.containsKey(policyNumber)) {
-                    long similaritySearchStart = System.currentTimeMillis();
+        ClaimEvidence claimEvidence = toClaimEvidence(claimDecision, claimAdjudicationRequest.claimId(), node, matches);
+        claimEvidence.claimDecision().setAdjudicationSource(DecisionCache.SOURCE_LLM);
+        if (letterDecoupled && classification != null) {
+            requestLetter(claimAdjudicationRequest, claimDecision, node, termsOf(classification, storedTerms));
+        }
 
-                    var request = SearchRequest.builder()
-                            .query(claimAdjudicationRequest.invoiceSummaryText())
-                            .filterExpression(filerStr)
-                            .topK(5) // Increased to retrieve sufficient policy context for accurate adjudication
-                            .build();
+        long endTime = System.currentTimeMillis();
+        logger.info("Total time taken for adjudication: {} ms", (endTime - startTime));
 
-                    ragCache.put(policyNumber, request);
-                    List<Document> matches = runBlockingSimilaritySearch(ragCache.get(policyNumber), 15);
+        return claimEvidence;
+    }
 
-                    if (matches.isEmpty()) {
-                        throw new PolicyNotFoundException("Policy not found for Policy Number: " + policyNumber + " and Patient Name: " + claimAdjudicationRequest.patientName());
+    /**
+     * Streams the adjudication output through {@link StreamingAdjudicationParser}. Malformed output closes the
+     * stream (cancelling the model call) as soon as it is detected and the call is retried. Once the itemized
+     * decisions are complete, the computed decision is saved as a draft row on {@code claimDecision} while the
+     * reasons and letter are still streaming; the final save updates that row and makes it final. A draft left by
+     * a model the router escalated from is deleted before the next model streams.
+     * Null when every attempt was malformed; {@code raw} then holds the text of the last attempt.
+     */
+    private JsonNode streamClassification(String user, StringBuilder raw, ClaimDecision claimDecision, long claimId,
+                                          PolicyTerms storedTerms, String model) {
+        discardDraft(claimDecision);
+        for (int attempt = 1; attempt <= streamingMaxAttempts; attempt++) {
+            raw.setLength(0);
+            StreamingAdjudicationParser parser = new StreamingAdjudicationParser(objectMapper);
+            try (Stream<String> chunks = chatClient.prompt()
+                    .system(claimAdjudicationSystemPromptTemplate)
+                    .user(user)
+                    .options(ModelRouter.options(model))
+                    .stream()
+                    .content()
+                    .toStream()) {
+                chunks.forEach(chunk -> {
+                    raw.append(chunk);
+                    if (parser.feed(chunk).contains(ITEMIZED_DECISIONS) && streamingEarlySave) {
+                        saveDraft(claimDecision, claimId, parser.fields(), storedTerms);
                     }
+                });
+                return parser.finish();
+            } catch (ClaimProcessingException e) {
+                logger.warn("Streamed adjudication output rejected (attempt {}/{}): {}",
+                        attempt, streamingMaxAttempts, e.getMessage());
+            }
+        }
+        return null;
+    }
 
-                    long similaritySearchEnd = System.currentTimeMillis();
-                    logger.info("Time taken for similarity search: {} ms", (similaritySearchEnd - similaritySearchStart));
+    /**
+     * Escalation check for the adjudication stage: every invoice line item classified as covered or not.
+     */
+    static boolean isCompleteClassification(JsonNode classification, int expectedItems) {
+        if (classification == null) {
+            return false;
+        }
+        JsonNode items = classification.path(ITEMIZED_DECISIONS);
+        if (!items.isArray() || items.isEmpty() || items.size() < expectedItems) {
+            return false;
+        }
+        for (JsonNode item : items) {
+            if (!item.path("covered").isBoolean() || item.path("service").asText("").isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-                    List<String> evidenceChunks = matches.stream()
-                            .map(Document::getText)
-                            .toList();
+    private JsonNode parseClassification(String response) {
+        try {
+            return objectMapper.readTree(stripMarkdownCodeFences(response));
+        } catch (Exception e) {
+            return null;
+        }
+    }
 
-                    if (matches.isEmpty()) {
-                        throw new ClaimProcessingException("Error while fetching the Policy Data: " + policyNumber + " and Patient Name: " + claimAdjudicationRequest.patientName());
-                    }
+    private void saveDraft(ClaimDecision claimDecision, long claimId, JsonNode partialClassification,
+                           PolicyTerms storedTerms) {
+        if (partialClassification.path(ITEMIZED_DECISIONS).isEmpty()) {
+            return;
+        }
+        try {
+            fillDecision(claimDecision, claimId, applyBenefits(partialClassification, storedTerms));
+            claimDecision.setAdjudicationSource(ClaimDecision.SOURCE_DRAFT);
+            // persist() assigns the id to this instance, so the final save of the same entity is an update
+            claimDecisionDB.save(claimDecision);
+            logger.info("Saved draft decision {} for claim {} before the letter finished streaming",
+                    claimDecision.getDecision(), claimId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not save draft decision for claim {}: {}", claimId, e.getMessage());
+        }
+    }
 
-                    documentCache.put(policyNumber, matches);
-                    evidenceChunkCache.put(policyNumber, evidenceChunks);
-                }
+    /**
+     * Deletes the draft row saved while the decision was streaming, for an adjudication that will not be saved
+     * (escalated, failed, or abandoned by the agent). A decision whose final save already happened is kept.
+     */
+    public void discardDraft(ClaimDecision claimDecision) {
+        if (claimDecision == null || claimDecision.getId() == null) {
+            return;
+        }
+        try {
+            if (claimDecisionDB.deleteDraft(claimDecision.getId()) > 0) {
+                // A later save of this entity inserts a new row instead of updating the deleted one
+                claimDecision.setId(null);
             }
-        } catch (Exception ex) {
-            throw ex;
+        } catch (RuntimeException e) {
+            logger.warn("Could not delete draft decision {} for claim {}: {}",
+                    claimDecision.getId(), claimDecision.getClaimId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Decision for a repeat of a cached claim under the same policy: the cached line-item classification is
+     * applied to this claim's amounts by {@link BenefitCalculator}, without retrieval or a model call.
+     * Null on a cache miss.
+     */
+    private ClaimEvidence adjudicateFromCache(ClaimAdjudicationRequest request, String customerId) {
+        DecisionCache.Hit hit = decisionCache.lookup(request.policyNumber(), customerId, request.lineItems()).orElse(null);
+        if (hit == null) {
+            return null;
+        }
+        PolicyTerms storedTerms = policyTermsService.termsFor(request.policyNumber()).orElse(null);
+        JsonNode node = applyBenefits(hit.classification(), storedTerms);
+        ((ArrayNode) node.path(REASONS)).add(DECISION_REUSED_FROM_CACHE + hit.sourceClaimId());
+
+        ClaimEvidence claimEvidence = toClaimEvidence(request.claimId(), node, hit.matches());
+        claimEvidence.claimDecision().setPolicyNumber(request.policyNumber());
+        claimEvidence.claimDecision().setAdjudicationSource(hit.source());
+        claimEvidence.claimDecision().setSourceClaimId(hit.sourceClaimId());
+        if (decisionLetterService.isEnabled()) {
+            // Entries cached while letters were decoupled carry no letter template
+            requestLetter(request, claimEvidence.claimDecision(), node, termsOf(hit.classification(), storedTerms));
+        }
+        logger.info("Claim {} adjudicated from cached decision of claim {} ({})",
+                request.claimId(), hit.sourceClaimId(), hit.source());
+        return claimEvidence;
+    }
+
+    /**
+     * Hands a decided claim without a letter to {@link DecisionLetterService}; the decision is returned now and
+     * the letter is attached to it when written.
+     */
+    private void requestLetter(ClaimAdjudicationRequest request, ClaimDecision claimDecision, JsonNode node, PolicyTerms terms) {
+        JsonNode items = node.path(ITEMIZED_DECISIONS);
+        if (!items.isArray() || items.isEmpty() || !node.path(LETTER).asText("").isBlank()) {
+            return;
+        }
+        List<String> reasons = new ArrayList<>();
+        node.path(REASONS).forEach(reason -> reasons.add(reason.asText()));
+        decisionLetterService.generateAsync(claimDecision, new DecisionLetterRequest(
+                request.claimId(),
+                request.patientName(),
+                request.policyNumber(),
+                request.invoiceSummaryText(),
+                objectMapper.convertValue(items, ITEMIZED_DECISION_LIST),
+                reasons,
+                terms));
+    }
+
+    /**
+     * Single-call fast path for small invoices: extraction and adjudication are produced
+     * by one model round-trip using a combined structured-output schema, instead of the
+     * metadata call, line-item calls, planner loop and adjudication call.
+     */
+    public CombinedAdjudication adjudicateCombined(String invoiceText, String policyNumber, String patientName) {
+        long startTime = System.currentTimeMillis();
+
+        Speculation speculation = joinSpeculation(claimIdFor(invoiceText, null), policyNumber, patientName);
+        List<Document> matches = speculativeEvidence(speculation);
+        if (matches.isEmpty()) {
+            matches = retrievePolicyEvidence(policyNumber, patientName, invoiceText, List.of());
+        }
+        PolicyTerms storedTerms = storedTerms(speculation, policyNumber);
+
+        String system;
+        try {
+            system = combinedAdjudicationPromptTemplate.getContentAsString(StandardCharsets.UTF_8)
+                    + "\n\n" + claimAdjudicationSystemPromptTemplate.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ClaimProcessingException("Unable to load adjudication prompt templates", e);
         }
 
         String user = """
-                INVOICE SUMMARY:
+                INVOICE TEXT:
                 %s
                 
                 POLICY EVIDENCE CHUNKS (use these as the only source of truth):
                 %s
-                """.formatted(claimAdjudicationRequest.invoiceSummaryText(), evidenceChunkCache.get(policyNumber).stream().map(c -> "- " + c).collect(Collectors.joining("\n")));
+                """.formatted(invoiceText, formatEvidence(matches))
+                + formatTerms(storedTerms);
 
-        long chatClientStart = System.currentTimeMillis();
-        String response = chatClient.prompt()
-                .system(claimAdjudicationSystemPromptTemplate)
+        CombinedClaimResult result = chatClient.prompt()
+                .system(system)
                 .user(user)
                 .options(ChatOptions.builder()
                         .temperature(0.0)
                         .build())
                 .call()
-                .content();
-                
-        long chatClientEnd = System.currentTimeMillis();
-        logger.info("Time taken for chat client response: {} ms", (chatClientEnd - chatClientStart));
+                .entity(CombinedClaimResult.class);
 
-        JsonNode node;
+        if (result == null || result.invoice() == null) {
+            throw new ClaimProcessingException("Combined adjudication returned no invoice for policy: " + policyNumber);
+        }
+
+        JsonNode node = applyBenefits(objectMapper.valueToTree(result), storedTerms);
+        long claimId = claimIdFor(invoiceText, result.invoice());
+        ClaimEvidence claimEvidence = toClaimEvidence(claimId, node, matches);
+        claimEvidence.claimDecision().setPolicyNumber(policyNumber);
+        claimEvidence.claimDecision().setAdjudicationSource(DecisionCache.SOURCE_LLM);
+
+        logger.info("Total time taken for single-call adjudication: {} ms", (System.currentTimeMillis() - startTime));
+        return new CombinedAdjudication(result.invoice(), claimEvidence);
+    }
+
+    /**
+     * Starts policy evidence retrieval and policy-terms loading for a claim that has just arrived, so they run
+     * while the invoice is being extracted; {@link #adjudicate} and {@link #adjudicateCombined} join them instead
+     * of searching after extraction. The search uses the raw invoice text as its query, the way the single-call
+     * path already does. Speculations are keyed by the claim id derived from that text, so concurrent invoices
+     * of the same patient and policy each join their own. With per-category retrieval enabled the evidence
+     * depends on the extracted line items, so only the terms are loaded ahead. Returns the speculation for
+     * {@link #discardSpeculation}, or null when disabled or the patient name is unknown.
+     */
+    public Speculation speculate(String policyNumber, String patientName, String invoiceText) {
+        if (!speculativeRetrievalEnabled || policyNumber == null || patientName == null || patientName.isBlank()
+                || invoiceText == null || invoiceText.isBlank()) {
+            return null;
+        }
+        String customerId = patientName.toUpperCase();
+        String query = invoiceText.length() > SPECULATIVE_QUERY_MAX_CHARS
+                ? invoiceText.substring(0, SPECULATIVE_QUERY_MAX_CHARS) : invoiceText;
+        CompletableFuture<List<Document>> evidence = policyEvidenceRetriever.isPerCategoryEnabled()
+                ? CompletableFuture.completedFuture(List.of())
+                : CompletableFuture.supplyAsync(
+                        () -> cachedEvidence(policyNumber, customerId, query, List.of()), blockingTaskExecutor);
+        CompletableFuture<Optional<PolicyTerms>> terms = CompletableFuture.supplyAsync(
+                () -> policyTermsService.termsFor(policyNumber), blockingTaskExecutor);
+        Speculation speculation = new Speculation(policyNumber, customerId, evidence, terms);
+        Speculation displaced = speculations.put(claimIdFor(invoiceText, null), speculation);
+        if (displaced != null) {
+            displaced.cancel();
+        }
+        return speculation;
+    }
+
+    /**
+     * Drops a speculation that adjudication never joined (cache hit, extraction failure, missing patient name).
+     * Only the given speculation is removed, never one a later submission of the same claim has started since.
+     */
+    public void discardSpeculation(String invoiceText, Speculation speculation) {
+        if (speculation != null && speculations.remove(claimIdFor(invoiceText, null), speculation)) {
+            speculation.cancel();
+        }
+    }
+
+    /**
+     * Takes the claim's speculation, if any; one started for a different policy or patient than the
+     * extraction found is cancelled and ignored.
+     */
+    private Speculation joinSpeculation(long claimId, String policyNumber, String patientName) {
+        Speculation speculation = speculations.remove(claimId);
+        if (speculation != null && !speculation.isFor(policyNumber, patientName)) {
+            speculation.cancel();
+            return null;
+        }
+        return speculation;
+    }
+
+    /**
+     * Evidence found by the speculative search; empty when there was none, or it failed or timed out, in which
+     * case the caller retrieves as usual.
+     */
+    private List<Document> speculativeEvidence(Speculation speculation) {
+        if (speculation == null) {
+            return List.of();
+        }
         try {
-            // Strip markdown code fences if present
-            String cleanedResponse = stripMarkdownCodeFences(response);
-            node = objectMapper.readTree(cleanedResponse);
+            List<Document> matches = speculation.evidence().get(speculativeTimeoutSeconds, TimeUnit.SECONDS);
+            return matches != null ? matches : List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
         } catch (Exception e) {
-            logger.error("Failed to parse AI response as JSON: {}", e.getMessage());
-            logger.debug("Raw response: {}", response);
-            ObjectNode objectNode = objectMapper.createObjectNode();
-            objectNode.put(DECISION, NEEDS_INFO);
-            objectNode.putNull(PAYABLE_AMOUNT);
-            objectNode.putArray(REASONS).add(MODEL_OUTPUT_WAS_NOT_VALID_JSON);
-            objectNode.put(LETTER, response);
-            node = objectNode;
+            speculation.evidence().cancel(true);
+            logger.info("Speculative policy retrieval unavailable, retrieving after extraction: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Terms stored at ingestion, joined from the speculation when there is one and loaded now otherwise.
+     */
+    private PolicyTerms storedTerms(Speculation speculation, String policyNumber) {
+        if (speculation != null) {
+            try {
+                return speculation.terms().get(speculativeTimeoutSeconds, TimeUnit.SECONDS).orElse(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                speculation.terms().cancel(true);
+            }
         }
+        return policyTermsService.termsFor(policyNumber).orElse(null);
+    }
 
+    /**
+     * Claim id from the first 63 bits of SHA-256 over the submitted invoice text, with whitespace collapsed as in
+     * the idempotency fingerprint. The text already carries the hospital, invoice number and line items, and unlike
+     * the model's extraction it is the same on every retry. Without text, the extracted hospital, invoice number and
+     * content (date, total, line items) are hashed instead, normalized for case and spacing.
+     */
+    public static long claimIdFor(String invoiceText, ExtractedInvoice invoice) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (invoiceText != null && !invoiceText.isBlank()) {
+                digest.update(ClaimIdempotencyService.normalize(invoiceText).getBytes(StandardCharsets.UTF_8));
+                return ByteBuffer.wrap(digest.digest()).getLong() & Long.MAX_VALUE;
+            }
+            digest.update(normalizeKeyPart(invoice.hospitalName()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(normalizeKeyPart(invoice.invoiceNumber()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(contentHash(invoice));
+            return ByteBuffer.wrap(digest.digest()).getLong() & Long.MAX_VALUE;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] contentHash(ExtractedInvoice invoice) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        StringBuilder content = new StringBuilder()
+                .append(normalizeKeyPart(invoice.dateOfService())).append('\n')
+                .append(amountKey(invoice.totalAmount())).append('\n');
+        if (invoice.lineItems() != null) {
+            for (ExtractedInvoice.LineItem item : invoice.lineItems()) {
+                content.append(normalizeKeyPart(item.desc())).append('|').append(amountKey(item.amount())).append('\n');
+            }
+        }
+        return digest.digest(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String normalizeKeyPart(String value) {
+        return value == null ? "" : value.strip().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    private static String amountKey(Double amount) {
+        return amount == null ? "" : BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    /**
+     * Fetch the policy chunks for the policy/customer pair (hybrid vector + full-text retrieval, cached per query).
+     */
+    private List<Document> retrievePolicyEvidence(String policyNumber, String patientName, String query,
+                                                  List<ExtractedInvoice.LineItem> lineItems) {
+        if (patientName.isEmpty()) {
+            return List.of();
+        }
+        List<Document> matches = cachedEvidence(policyNumber, patientName.toUpperCase(), query, lineItems);
+        if (matches.isEmpty()) {
+            throw new PolicyNotFoundException("Policy not found for Policy Number: " + policyNumber + " and Patient Name: " + patientName);
+        }
+        return matches;
+    }
+
+    /**
+     * Retrieval through the evidence cache, shared by the regular and the speculative search; empty results are
+     * not cached.
+     */
+    private List<Document> cachedEvidence(String policyNumber, String customerId, String query,
+                                          List<ExtractedInvoice.LineItem> lineItems) {
+        String cacheKey = policyNumber + "|" + customerId + "|" + query;
+        List<Document> cached = evidenceCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        long retrievalStart = System.currentTimeMillis();
+        List<Document> matches = policyEvidenceRetriever.retrieve(policyNumber, customerId, query, lineItems);
+        logger.info("Time taken for policy evidence retrieval: {} ms", (System.currentTimeMillis() - retrievalStart));
+        if (!matches.isEmpty()) {
+            evidenceCache.put(cacheKey, matches);
+        }
+        return matches;
+    }
+
+    /**
+     * Turns the model's classification (policy terms + covered/excluded items) into the decision document:
+     * decision, payable amount and per-item copayments come from {@link BenefitCalculator}, and the letter's
+     * placeholders are filled with the computed figures. Terms stored at ingestion take precedence over the
+     * ones the model read from the evidence. Output without classified items is returned unchanged.
+     */
+    JsonNode applyBenefits(JsonNode classification, PolicyTerms storedTerms) {
+        JsonNode items = classification.path(ITEMIZED_DECISIONS);
+        if (!items.isArray() || items.isEmpty()) {
+            return classification;
+        }
+        List<ItemizedDecision> classified = objectMapper.convertValue(items, ITEMIZED_DECISION_LIST);
+        BenefitCalculation calculation = benefitCalculator.calculate(classified, termsOf(classification, storedTerms));
+
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put(DECISION, calculation.decision());
+        result.put(PAYABLE_AMOUNT, calculation.payableAmount());
+        result.set(ITEMIZED_DECISIONS, objectMapper.valueToTree(calculation.itemizedDecisions()));
+        ArrayNode reasons = result.putArray(REASONS);
+        classification.path(REASONS).forEach(reasons::add);
+        benefitCalculator.calculationReasons(calculation).forEach(reasons::add);
+        result.put(LETTER, benefitCalculator.fillLetter(classification.path(LETTER).asText(""), calculation));
+        return result;
+    }
+
+    private PolicyTerms termsOf(JsonNode classification, PolicyTerms storedTerms) {
+        JsonNode termsNode = classification.path(POLICY_TERMS);
+        return storedTerms != null ? storedTerms
+                : termsNode.isObject() ? objectMapper.convertValue(termsNode, PolicyTerms.class) : PolicyTerms.DEFAULTS;
+    }
+
+    private String formatTerms(PolicyTerms terms) {
+        if (terms == null) {
+            return "";
+        }
+        try {
+            return "\nPOLICY TERMS (extracted from the policy document; do not output policyTerms):\n"
+                    + objectMapper.writeValueAsString(terms) + "\n";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private String formatEvidence(List<Document> matches) {
+        return matches.stream().map(d -> "- " + d.getText()).collect(Collectors.joining("\n"));
+    }
+
+    private ClaimEvidence toClaimEvidence(long claimId, JsonNode node, List<Document> matches) {
+        return toClaimEvidence(new ClaimDecision(), claimId, node, matches);
+    }
+
+    private ClaimEvidence toClaimEvidence(ClaimDecision claimDecision, long claimId, JsonNode node, List<Document> matches) {
+        fillDecision(claimDecision, claimId, node);
+        String itemizedDecisionsJson = node.path(ITEMIZED_DECISIONS).isArray() ? node.path(ITEMIZED_DECISIONS).toString() : "[]";
+
+        List<String> evidenceChunks = matches.stream().map(Document::getText).toList();
+        return new ClaimEvidence(matches, claimDecision, evidenceChunks, itemizedDecisionsJson);
+    }
+
+    private void fillDecision(ClaimDecision claimDecision, long claimId, JsonNode node) {
         String decision = node.path(DECISION).asText(NEEDS_INFO);
         Double payable = node.path(PAYABLE_AMOUNT).isNumber() ? node.path(PAYABLE_AMOUNT).asDouble() : null;
         String reasonsJson = node.path(REASONS).isArray() ? node.path(REASONS).toString() : "[]";
-        String itemizedDecisionsJson = node.path("itemizedDecisions").isArray() ? node.path("itemizedDecisions").toString() : "[]";
         String letter = node.path(LETTER).asText("");
 
-        ClaimDecision claimDecision = new ClaimDecision();
-        claimDecision.setClaimId(claimAdjudicationRequest.claimId());
+        claimDecision.setClaimId(claimId);
         claimDecision.setDecision(decision);
         if (payable != null) {
             claimDecision.setPayableAmount(BigDecimal.valueOf(payable).setScale(2, RoundingMode.HALF_UP));
@@ -160,31 +690,28 @@ public class ClaimAdjudicationService {
             claimDecision.setPayableAmount(null);
         }
         claimDecision.setReasons(reasonsJson);
+        claimDecision.setDenialReasons(denialReasons(node.path(ITEMIZED_DECISIONS)).toString());
         claimDecision.setLetter(letter);
-        claimDecision.setCreatedAt(LocalDateTime.now());
-
-        long endTime = System.currentTimeMillis();
-        logger.info("Total time taken for adjudication: {} ms", (endTime - startTime));
-
-        return new ClaimEvidence(documentCache.get(policyNumber), claimDecision, evidenceChunkCache.get(policyNumber), itemizedDecisionsJson);
+        if (claimDecision.getCreatedAt() == null) {
+            claimDecision.setCreatedAt(LocalDateTime.now());
+        }
     }
 
     /**
-     * Run the vector store similarity search on the shared blocking executor with a timeout.
-     * If the search times out, returns an empty list (caller may use cached results as fallback).
+     * Distinct reasons of the line items that were not covered. Covered items and the amount lines of
+     * {@code reasons} (copays, deductible, limits) are not denial reasons.
      */
-    private List<Document> runBlockingSimilaritySearch(SearchRequest request, int timeoutSeconds) {
-        CompletableFuture<List<Document>> future = CompletableFuture.supplyAsync(() -> vectorStore.similaritySearch(request), vectorTaskExecutor);
-        try {
-            return future.get(timeoutSeconds, TimeUnit.SECONDS);
-        } catch (TimeoutException te) {
-            future.cancel(true);
-            logger.info("Vector similaritySearch timed out after {}s", timeoutSeconds);
-            return List.of();
-        } catch (Exception e) {
-            logger.info("Vector similaritySearch failed: {}", e.getMessage());
-            return List.of();
+    private ArrayNode denialReasons(JsonNode itemizedDecisions) {
+        ArrayNode denialReasons = objectMapper.createArrayNode();
+        List<String> seen = new ArrayList<>();
+        for (JsonNode item : itemizedDecisions) {
+            String reason = item.path("reason").asText("").strip();
+            if (!item.path("covered").asBoolean(true) && !reason.isEmpty() && !seen.contains(reason)) {
+                seen.add(reason);
+                denialReasons.add(reason);
+            }
         }
+        return denialReasons;
     }
 
     public ClaimAdjudicationResponse getClaimDecisionData(ClaimEvidence claimEvidence) {
@@ -0,0 +1,276 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.exception.InvalidClaimException;
+import com.ai.claim.underwriter.model.ClaimDailyStats;
+import com.ai.claim.underwriter.model.DenialReasonCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Daily claim analytics by hospital and policy, read from the {@code claim_daily_stats} and
+ * {@code claim_daily_denial_reasons} rollups instead of scanning {@code claim_decisions}.
+ * <p>
+ * The rollups are maintained incrementally: every {@code claim.analytics.refresh-interval-ms}, the days from
+ * {@code recompute-days} before today onwards are recomputed from their decisions in one transaction, which
+ * also picks up decisions committed late by the write-behind writer and drafts finalized after the letter.
+ * Older days are never read again. At startup, empty rollups are backfilled from all decisions.
+ */
+@Service
+public class ClaimAnalyticsService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimAnalyticsService.class);
+
+    public static final String GROUP_HOSPITAL = "hospital";
+    public static final String GROUP_POLICY = "policy";
+
+    static final LocalDate BACKFILL_FROM = LocalDate.of(1970, 1, 1);
+    // Serializes refreshes across instances; the others skip their run
+    static final long REFRESH_LOCK_KEY = 0x636c61696d5f6461L;
+    private static final Set<String> GROUPS = Set.of(GROUP_HOSPITAL, GROUP_POLICY);
+
+    // Latest decision of each claim per day, from the given day on
+    private static final String LATEST_DECISIONS = """
+            WITH latest AS (
+                SELECT DISTINCT ON (claim_id, created_at::date)
+                       claim_id, created_at::date AS day,
+                       COALESCE(hospital_name, '') AS hospital_name, COALESCE(policy_number, '') AS policy_number,
+                       upper(decision) AS decision, payable_amount, denial_reasons
+                FROM claim_decisions
+                WHERE created_at >= ? AND adjudication_source IS DISTINCT FROM 'DRAFT'
+                ORDER BY claim_id, created_at::date, created_at DESC, id DESC
+            )
+            """;
+
+    static final String INSERT_DAILY_STATS = LATEST_DECISIONS + """
+            INSERT INTO claim_daily_stats (day, hospital_name, policy_number, claims, approved, partial, denied,
+                                           needs_info, payable_total, payable_claims)
+            SELECT day, hospital_name, policy_number, count(*),
+                   count(*) FILTER (WHERE decision = 'APPROVED'),
+                   count(*) FILTER (WHERE decision = 'PARTIAL'),
+                   count(*) FILTER (WHERE decision = 'DENIED'),
+                   count(*) FILTER (WHERE decision = 'NEEDS_INFO'),
+                   COALESCE(sum(payable_amount), 0), count(payable_amount)
+            FROM latest
+            GROUP BY day, hospital_name, policy_number
+            """;
+
+    static final String INSERT_DENIAL_REASONS = LATEST_DECISIONS + """
+            INSERT INTO claim_daily_denial_reasons (day, hospital_name, policy_number, reason, claims)
+            SELECT l.day, l.hospital_name, l.policy_number, left(btrim(r.reason), 500), count(DISTINCT l.claim_id)
+            FROM latest l
+            CROSS JOIN LATERAL jsonb_array_elements_text(
+                    CASE WHEN jsonb_typeof(l.denial_reasons) = 'array' THEN l.denial_reasons ELSE '[]'::jsonb END
+            ) AS r(reason)
+            WHERE l.decision IN ('DENIED', 'PARTIAL') AND btrim(r.reason) <> ''
+            GROUP BY l.day, l.hospital_name, l.policy_number, left(btrim(r.reason), 500)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${claim.analytics.enabled:true}")
+    private boolean enabled = true;
+
+    // Days before today recomputed on every refresh
+    @Value("${claim.analytics.recompute-days:2}")
+    private int recomputeDays = 2;
+
+    @Value("${claim.analytics.max-range-days:366}")
+    private int maxRangeDays = 366;
+
+    @Value("${claim.analytics.default-reason-limit:20}")
+    private int defaultReasonLimit = 20;
+
+    @Value("${claim.analytics.max-reason-limit:100}")
+    private int maxReasonLimit = 100;
+
+    public ClaimAnalyticsService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            boolean empty = !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM claim_daily_stats)", Boolean.class));
+            refresh(empty ? BACKFILL_FROM : LocalDate.now().minusDays(recomputeDays));
+        } catch (DataAccessException e) {
+            logger.error("Claim analytics backfill failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${claim.analytics.refresh-interval-ms:300000}",
+            initialDelayString = "${claim.analytics.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh(LocalDate.now().minusDays(recomputeDays));
+        } catch (DataAccessException e) {
+            logger.error("Claim analytics refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the rollup rows of {@code since} and later days with aggregates of their decisions.
+     *
+     * @return false when another instance was refreshing
+     */
+    boolean refresh(LocalDate since) {
+        long start = System.currentTimeMillis();
+        Date sinceDate = Date.valueOf(since);
+        Boolean refreshed = transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REFRESH_LOCK_KEY))) {
+                return false;
+            }
+            jdbcTemplate.update("DELETE FROM claim_daily_stats WHERE day >= ?", sinceDate);
+            jdbcTemplate.update("DELETE FROM claim_daily_denial_reasons WHERE day >= ?", sinceDate);
+            jdbcTemplate.update(INSERT_DAILY_STATS, sinceDate);
+            jdbcTemplate.update(INSERT_DENIAL_REASONS, sinceDate);
+            return true;
+        });
+        if (Boolean.TRUE.equals(refreshed)) {
+            logger.info("Claim analytics refreshed from {} in {} ms", since, System.currentTimeMillis() - start);
+            return true;
+        }
+        logger.debug("Claim analytics refresh skipped, another instance holds the lock");
+        return false;
+    }
+
+    /**
+     * Daily statistics for days in [from, to], optionally for one hospital and/or policy, grouped by day plus
+     * the dimensions in {@code groupBy} (hospital and policy when empty). Oldest day first.
+     *
+     * @throws InvalidClaimException for a reversed or too long date range or an unknown group
+     */
+    public List<ClaimDailyStats> dailyStats(LocalDate from, LocalDate to, String hospitalName, String policyNumber,
+                                            Collection<String> groupBy) {
+        checkRange(from, to);
+        Set<String> groups = parseGroupBy(groupBy);
+        String hospitalColumn = groups.contains(GROUP_HOSPITAL) ? "hospital_name" : "''";
+        String policyColumn = groups.contains(GROUP_POLICY) ? "policy_number" : "''";
+
+        List<Object> args = new ArrayList<>();
+        String sql = """
+                SELECT day, %s AS hospital_name, %s AS policy_number,
+                       sum(claims) AS claims, sum(approved) AS approved, sum(partial) AS partial,
+                       sum(denied) AS denied, sum(needs_info) AS needs_info,
+                       sum(payable_total) AS payable_total, sum(payable_claims) AS payable_claims
+                FROM claim_daily_stats
+                """.formatted(hospitalColumn, policyColumn)
+                + where(from, to, hospitalName, policyNumber, args)
+                + "GROUP BY day, 2, 3 ORDER BY day, 2, 3";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> toDailyStats(rs), args.toArray());
+    }
+
+    /**
+     * Reasons cited by denied and partially paid claims with days in [from, to], most frequent first.
+     *
+     * @throws InvalidClaimException for a reversed or too long date range or a non-positive limit
+     */
+    public List<DenialReasonCount> denialReasons(LocalDate from, LocalDate to, String hospitalName,
+                                                 String policyNumber, Integer limit) {
+        checkRange(from, to);
+        if (limit != null && limit < 1) {
+            throw new InvalidClaimException("'limit' must be positive");
+        }
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT reason, sum(claims) AS claims FROM claim_daily_denial_reasons "
+                + where(from, to, hospitalName, policyNumber, args)
+                + "GROUP BY reason ORDER BY claims DESC, reason LIMIT ?";
+        args.add(limit == null ? defaultReasonLimit : Math.min(limit, maxReasonLimit));
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new DenialReasonCount(rs.getString("reason"), rs.getLong("claims")),
+                args.toArray());
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new InvalidClaimException("'from' and 'to' are required");
+        }
+        if (to.isBefore(from)) {
+            throw new InvalidClaimException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new InvalidClaimException("Date range is limited to " + maxRangeDays + " days");
+        }
+    }
+
+    private static String where(LocalDate from, LocalDate to, String hospitalName, String policyNumber, List<Object> args) {
+        StringBuilder where = new StringBuilder("WHERE day BETWEEN ? AND ? ");
+        args.add(Date.valueOf(from));
+        args.add(Date.valueOf(to));
+        if (hospitalName != null && !hospitalName.isBlank()) {
+            where.append("AND hospital_name = ? ");
+            args.add(hospitalName.strip());
+        }
+        if (policyNumber != null && !policyNumber.isBlank()) {
+            where.append("AND policy_number = ? ");
+            args.add(policyNumber.strip());
+        }
+        return where.toString();
+    }
+
+    private static Set<String> parseGroupBy(Collection<String> groupBy) {
+        if (groupBy == null || groupBy.isEmpty()) {
+            return GROUPS;
+        }
+        Set<String> groups = new LinkedHashSet<>();
+        for (String group : groupBy) {
+            String normalized = group.strip().toLowerCase(Locale.ROOT);
+            if (normalized.isEmpty() || normalized.equals("day")) {
+                continue;
+            }
+            if (!GROUPS.contains(normalized)) {
+                throw new InvalidClaimException("Unknown groupBy '" + group + "', expected hospital or policy");
+            }
+            groups.add(normalized);
+        }
+        return groups;
+    }
+
+    private static ClaimDailyStats toDailyStats(ResultSet rs) throws SQLException {
+        long claims = rs.getLong("claims");
+        long approved = rs.getLong("approved");
+        long payableClaims = rs.getLong("payable_claims");
+        BigDecimal payableTotal = rs.getBigDecimal("payable_total");
+        double approvalRate = claims == 0 ? 0.0
+                : BigDecimal.valueOf(approved).divide(BigDecimal.valueOf(claims), 4, RoundingMode.HALF_UP).doubleValue();
+        BigDecimal averagePayable = payableClaims == 0 || payableTotal == null ? null
+                : payableTotal.divide(BigDecimal.valueOf(payableClaims), 2, RoundingMode.HALF_UP);
+        return new ClaimDailyStats(rs.getDate("day").toLocalDate(), emptyToNull(rs.getString("hospital_name")),
+                emptyToNull(rs.getString("policy_number")), claims, approved, rs.getLong("partial"),
+                rs.getLong("denied"), rs.getLong("needs_info"), approvalRate, payableTotal, averagePayable);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,192 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.exception.InvalidClaimException;
+import com.ai.claim.underwriter.model.ClaimDecisionPage;
+import com.ai.claim.underwriter.model.ClaimDecisionView;
+import com.ai.claim.underwriter.repository.ClaimDecisionDB;
+import com.ai.claim.underwriter.repository.ClaimDecisionEvidenceDB;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of claim decisions for dashboards: filtered, newest-first listing with keyset pagination over
+ * {@code (created_at, id)}, returning summaries without the letter and the evidence unless they are requested.
+ * Letters and evidence of a page are loaded with one query each.
+ */
+@Service
+public class ClaimDecisionQueryService {
+
+    public static final String INCLUDE_LETTER = "letter";
+    public static final String INCLUDE_EVIDENCE = "evidence";
+
+    // Open bounds for the date range and the first page, inside the range of a Postgres timestamp
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final Set<String> INCLUDES = Set.of(INCLUDE_LETTER, INCLUDE_EVIDENCE);
+
+    private final ClaimDecisionDB claimDecisionDB;
+    private final ClaimDecisionEvidenceDB claimDecisionEvidenceDB;
+    private final ObjectMapper objectMapper;
+
+    @Value("${claim.decision-query.default-page-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${claim.decision-query.max-page-size:200}")
+    private int maxPageSize = 200;
+
+    public ClaimDecisionQueryService(ClaimDecisionDB claimDecisionDB, ClaimDecisionEvidenceDB claimDecisionEvidenceDB,
+                                     ObjectMapper objectMapper) {
+        this.claimDecisionDB = claimDecisionDB;
+        this.claimDecisionEvidenceDB = claimDecisionEvidenceDB;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decisions created in [from, to) matching the optional decision and policy, newest first, starting after
+     * {@code cursor}.
+     *
+     * @throws InvalidClaimException for an unreadable cursor, an unknown include or an empty date range
+     */
+    public ClaimDecisionPage search(LocalDateTime from, LocalDateTime to, String decision, String policyNumber,
+                                    Integer limit, String cursor, Collection<String> include) {
+        Set<String> includes = parseInclude(include);
+        LocalDateTime lower = from != null ? from : EARLIEST;
+        LocalDateTime upper = to != null ? to : LATEST;
+        if (!lower.isBefore(upper)) {
+            throw new InvalidClaimException("'from' must be before 'to'");
+        }
+        int pageSize = pageSize(limit);
+        Cursor position = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : new Cursor(LATEST, Long.MAX_VALUE);
+
+        // One extra row tells whether another page follows
+        List<ClaimDecisionDB.DecisionSummary> rows = claimDecisionDB.searchSummaries(lower, upper,
+                blankToNull(decision, true), blankToNull(policyNumber, false),
+                position.createdAt(), position.id(), PageRequest.ofSize(pageSize + 1));
+        boolean more = rows.size() > pageSize;
+        List<ClaimDecisionDB.DecisionSummary> page = more ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (more) {
+            ClaimDecisionDB.DecisionSummary last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(new Cursor(last.getCreatedAt(), last.getId()));
+        }
+        return new ClaimDecisionPage(toViews(page, includes), nextCursor);
+    }
+
+    /**
+     * Latest decision of a claim.
+     */
+    public Optional<ClaimDecisionView> latest(long claimId, Collection<String> include) {
+        Set<String> includes = parseInclude(include);
+        List<ClaimDecisionDB.DecisionSummary> rows = claimDecisionDB.findSummariesByClaimId(claimId, PageRequest.ofSize(1));
+        return toViews(rows, includes).stream().findFirst();
+    }
+
+    private List<ClaimDecisionView> toViews(List<ClaimDecisionDB.DecisionSummary> rows, Set<String> includes) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(ClaimDecisionDB.DecisionSummary::getId).toList();
+        Map<Long, String> letters = includes.contains(INCLUDE_LETTER)
+                ? claimDecisionDB.findLettersByIdIn(ids).stream().filter(l -> l.getLetter() != null)
+                        .collect(Collectors.toMap(ClaimDecisionDB.DecisionLetterText::getId, ClaimDecisionDB.DecisionLetterText::getLetter))
+                : Map.of();
+        Map<Long, List<ClaimDecisionView.Evidence>> evidence = includes.contains(INCLUDE_EVIDENCE)
+                ? claimDecisionEvidenceDB.findEvidenceWithTextByDecisionIdIn(ids).stream()
+                        .collect(Collectors.groupingBy(ClaimDecisionEvidenceDB.EvidenceText::getDecisionId, LinkedHashMap::new,
+                                Collectors.mapping(e -> new ClaimDecisionView.Evidence(e.getChunkId(), e.getRank(), e.getScore(), e.getChunkText()),
+                                        Collectors.toList())))
+                : Map.of();
+
+        return rows.stream().map(row -> new ClaimDecisionView(
+                row.getId(),
+                row.getClaimId(),
+                row.getPolicyNumber(),
+                row.getDecision(),
+                row.getPayableAmount(),
+                parseReasons(row.getReasons()),
+                row.getAdjudicationSource(),
+                row.getCreatedAt(),
+                includes.contains(INCLUDE_LETTER) ? letters.getOrDefault(row.getId(), "") : null,
+                includes.contains(INCLUDE_EVIDENCE) ? evidence.getOrDefault(row.getId(), List.of()) : null
+        )).toList();
+    }
+
+    private List<String> parseReasons(String reasons) {
+        if (reasons == null || reasons.isBlank()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(reasons, new TypeReference<List<String>>() {});
+        } catch (Exception e) {
+            return List.of(reasons);
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new InvalidClaimException("'limit' must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private static Set<String> parseInclude(Collection<String> include) {
+        if (include == null) {
+            return Set.of();
+        }
+        Set<String> includes = include.stream()
+                .map(value -> value.strip().toLowerCase(Locale.ROOT))
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toSet());
+        for (String value : includes) {
+            if (!INCLUDES.contains(value)) {
+                throw new InvalidClaimException("Unknown include '" + value + "', expected letter or evidence");
+            }
+        }
+        return includes;
+    }
+
+    private static String blankToNull(String value, boolean upperCase) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return upperCase ? value.strip().toUpperCase(Locale.ROOT) : value.strip();
+    }
+
+    record Cursor(LocalDateTime createdAt, long id) {
+    }
+
+    static String encodeCursor(Cursor cursor) {
+        String raw = cursor.createdAt() + "|" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.strip()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new InvalidClaimException("Invalid cursor");
+        }
+    }
+}
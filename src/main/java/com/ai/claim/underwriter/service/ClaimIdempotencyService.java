@@ -0,0 +1,189 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.entity.ClaimIdempotency;
+import com.ai.claim.underwriter.exception.InvalidClaimException;
+import com.ai.claim.underwriter.model.ClaimProcessingResult;
+import com.ai.claim.underwriter.repository.ClaimIdempotencyDB;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotent claim processing.
+ * <p>
+ * Each claim request is keyed by its {@code Idempotency-Key} header, or by a fingerprint of policy number,
+ * patient name and normalized invoice text when the client sent none. A successful result is stored under the
+ * key, and a repeat of the request gets that result back without running the pipeline again; a repeat that
+ * arrives while the first is still processing waits for it. Reusing a key for a different request is rejected.
+ */
+@Service
+public class ClaimIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimIdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private record InFlight(String fingerprint, CompletableFuture<ClaimProcessingResult> result) {
+    }
+
+    private final ClaimIdempotencyDB claimIdempotencyDB;
+    private final ObjectMapper objectMapper;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${claim.idempotency.enabled:true}")
+    private boolean enabled = true;
+
+    public ClaimIdempotencyService(ClaimIdempotencyDB claimIdempotencyDB, ObjectMapper objectMapper) {
+        this.claimIdempotencyDB = claimIdempotencyDB;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the stored result of an earlier identical request, or runs {@code pipeline} and stores its result
+     * when it succeeded.
+     *
+     * @throws InvalidClaimException when the key was already used for a different request
+     */
+    public ClaimProcessingResult process(String idempotencyKey, String policyNumber, String patientName,
+                                         String invoiceText, Supplier<ClaimProcessingResult> pipeline) {
+        if (!enabled) {
+            return pipeline.get();
+        }
+        String fingerprint = fingerprint(policyNumber, patientName, invoiceText);
+        String key = keyFor(idempotencyKey, fingerprint);
+
+        Optional<ClaimProcessingResult> stored = storedResult(key, fingerprint);
+        if (stored.isPresent()) {
+            logger.info("Idempotency key {} already processed as claim {}, returning stored result", key, stored.get().claimId());
+            return stored.get();
+        }
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkFingerprint(key, running.fingerprint(), fingerprint);
+            logger.info("Idempotency key {} is being processed, waiting for its result", key);
+            return await(running.result());
+        }
+        try {
+            // A duplicate may have stored its result and left inFlight between the first lookup and putIfAbsent
+            Optional<ClaimProcessingResult> storedMeanwhile = storedResult(key, fingerprint);
+            if (storedMeanwhile.isPresent()) {
+                logger.info("Idempotency key {} was processed concurrently as claim {}, returning stored result",
+                        key, storedMeanwhile.get().claimId());
+                mine.result().complete(storedMeanwhile.get());
+                return storedMeanwhile.get();
+            }
+            ClaimProcessingResult result = pipeline.get();
+            store(key, fingerprint, result);
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * SHA-256 of policy number, upper-cased patient name and the invoice text with whitespace collapsed.
+     */
+    static String fingerprint(String policyNumber, String patientName, String invoiceText) {
+        String canonical = normalize(policyNumber) + "|" + normalize(patientName).toUpperCase(Locale.ROOT)
+                + "|" + normalize(invoiceText);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String keyFor(String idempotencyKey, String fingerprint) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return fingerprint;
+        }
+        String key = idempotencyKey.strip();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidClaimException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    private Optional<ClaimProcessingResult> storedResult(String key, String fingerprint) {
+        Optional<ClaimIdempotency> record;
+        try {
+            record = claimIdempotencyDB.findById(key);
+        } catch (RuntimeException e) {
+            // Without the lookup the claim is simply processed again
+            logger.warn("Idempotency lookup for key {} failed: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+        if (record.isEmpty()) {
+            return Optional.empty();
+        }
+        checkFingerprint(key, record.get().getRequestFingerprint(), fingerprint);
+        try {
+            return Optional.of(objectMapper.readValue(record.get().getResult(), ClaimProcessingResult.class));
+        } catch (JsonProcessingException e) {
+            logger.warn("Stored result for idempotency key {} is unreadable, processing again: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String key, String fingerprint, ClaimProcessingResult result) {
+        if (result == null || !"success".equals(result.status())) {
+            return;
+        }
+        try {
+            ClaimIdempotency record = new ClaimIdempotency();
+            record.setIdempotencyKey(key);
+            record.setRequestFingerprint(fingerprint);
+            record.setClaimId(result.claimId());
+            record.setPolicyNumber(result.policyNumber());
+            record.setResult(objectMapper.writeValueAsString(result));
+            record.setCreatedAt(LocalDateTime.now());
+            claimIdempotencyDB.save(record);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The claim itself succeeded; a retry will just be processed again
+            logger.warn("Could not store result for idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static void checkFingerprint(String key, String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new InvalidClaimException("Idempotency-Key " + key + " was already used for a different claim request");
+        }
+    }
+
+    private static ClaimProcessingResult await(CompletableFuture<ClaimProcessingResult> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.strip().replaceAll("\\s+", " ");
+    }
+}
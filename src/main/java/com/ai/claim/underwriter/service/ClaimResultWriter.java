@@ -0,0 +1,338 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.entity.ClaimDecision;
+import com.ai.claim.underwriter.model.ClaimEvidence;
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.ai.claim.underwriter.model.PendingClaimWrite;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind persistence for claim results.
+ * <p>
+ * {@link #submit} appends the claim's extraction result, decision and evidence to a local JSON-lines journal and
+ * queues them; a single writer thread drains the bounded queue and persists up to {@code batch-size} claims per
+ * transaction through {@link DataBaseOperationService#saveClaimResults}. Each committed batch is recorded in the
+ * journal, which is truncated whenever nothing is outstanding. On startup, journaled claims without a commit
+ * record are persisted again (skipping decisions already in the database), so a crash loses nothing.
+ * A full queue makes the submitting thread persist its own claim.
+ */
+@Service
+public class ClaimResultWriter implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimResultWriter.class);
+    private static final String JOURNAL_FILE = "pending-claim-writes.jsonl";
+    private static final String COMMITTED = "committed";
+    private static final long COMPACT_BYTES = 8L * 1024 * 1024;
+
+    private final DataBaseOperationService dataBaseOperationService;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong sequence = new AtomicLong();
+    // Journaled but not yet committed, in submission order; guarded by this
+    private final Map<Long, PendingClaimWrite> uncommitted = new LinkedHashMap<>();
+
+    @Value("${claim.write-behind.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${claim.write-behind.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @Value("${claim.write-behind.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${claim.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs = 200;
+
+    @Value("${claim.write-behind.journal-dir:claim-journal}")
+    private String journalDir = "claim-journal";
+
+    @Value("${claim.write-behind.journal-fsync:true}")
+    private boolean journalFsync = true;
+
+    private BlockingQueue<PendingClaimWrite> queue;
+    // Not a FileChannel: an interrupted submitting thread would close it for everyone
+    private RandomAccessFile journal;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public ClaimResultWriter(DataBaseOperationService dataBaseOperationService, ObjectMapper objectMapper) {
+        this.dataBaseOperationService = dataBaseOperationService;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return enabled && running;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Opens the journal, re-queues claims a previous run journaled but never committed and starts the writer thread.
+     */
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        openJournal();
+        running = true;
+        writerThread = new Thread(this::drainLoop, "claim-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    synchronized void openJournal() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        List<PendingClaimWrite> recovered = readJournal();
+        recovered.forEach(write -> uncommitted.put(write.sequence(), write));
+        rewriteJournal();
+
+        int replayed = 0;
+        for (PendingClaimWrite write : recovered) {
+            if (alreadySaved(write)) {
+                markCommitted(List.of(write));
+            } else {
+                enqueue(write);
+                replayed++;
+            }
+        }
+        if (!recovered.isEmpty()) {
+            logger.info("Write-behind journal: {} uncommitted claims found, {} queued again", recovered.size(), replayed);
+        }
+    }
+
+    /**
+     * Journals and queues a claim's results; returns without waiting for the database.
+     */
+    public void submit(ExtractedInvoice invoice, ClaimEvidence claimEvidence) {
+        ClaimDecision claimDecision = claimEvidence.claimDecision();
+        // Microsecond precision survives the database round-trip, so replay can recognise committed decisions
+        LocalDateTime createdAt = claimDecision.getCreatedAt() != null ? claimDecision.getCreatedAt() : LocalDateTime.now();
+        claimDecision.setCreatedAt(createdAt.truncatedTo(ChronoUnit.MICROS));
+
+        PendingClaimWrite write = new PendingClaimWrite(sequence.incrementAndGet(),
+                dataBaseOperationService.toClaimAIResult(invoice), claimDecision,
+                dataBaseOperationService.toEvidence(claimEvidence));
+        synchronized (this) {
+            appendToJournal(write);
+            uncommitted.put(write.sequence(), write);
+        }
+        enqueue(write);
+    }
+
+    /**
+     * Persists everything queued so far on the calling thread.
+     */
+    public void flush() {
+        List<PendingClaimWrite> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            persist(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (queue == null) {
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Write-behind flush at shutdown failed, {} claims stay journaled: {}", queue.size(), e.getMessage());
+        }
+        closeJournal();
+    }
+
+    private void enqueue(PendingClaimWrite write) {
+        if (!queue.offer(write)) {
+            // Backpressure: the submitting thread pays the database latency instead of growing the queue
+            persist(List.of(write));
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingClaimWrite> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingClaimWrite first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (persistWithRetry(batch)) {
+                    batch = new ArrayList<>(batchSize);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // A batch still failing at shutdown goes back to the queue for the shutdown flush
+        batch.forEach(queue::offer);
+    }
+
+    private boolean persistWithRetry(List<PendingClaimWrite> batch) throws InterruptedException {
+        while (running) {
+            try {
+                persist(batch);
+                return true;
+            } catch (RuntimeException e) {
+                logger.warn("Write-behind batch of {} claims failed, retrying in {} ms: {}", batch.size(), flushIntervalMs, e.getMessage());
+                Thread.sleep(flushIntervalMs);
+            }
+        }
+        return false;
+    }
+
+    private void persist(List<PendingClaimWrite> batch) {
+        long start = System.currentTimeMillis();
+        dataBaseOperationService.saveClaimResults(batch);
+        markCommitted(batch);
+        logger.info("Write-behind: persisted {} claims in {} ms", batch.size(), System.currentTimeMillis() - start);
+    }
+
+    private boolean alreadySaved(PendingClaimWrite write) {
+        try {
+            return dataBaseOperationService.isSaved(write.claimDecision());
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private synchronized void markCommitted(List<PendingClaimWrite> batch) {
+        List<Long> sequences = batch.stream().map(PendingClaimWrite::sequence).toList();
+        sequences.forEach(uncommitted::remove);
+        try {
+            if (uncommitted.isEmpty()) {
+                journal.setLength(0);
+            } else if (journal.length() > COMPACT_BYTES) {
+                rewriteJournal();
+            } else {
+                write(objectMapper.createObjectNode().set(COMMITTED, objectMapper.valueToTree(sequences)));
+            }
+        } catch (IOException e) {
+            // The claims are committed; at worst they are checked against the database again on restart
+            logger.warn("Could not record committed claims in the write-behind journal: {}", e.getMessage());
+        }
+    }
+
+    private void appendToJournal(PendingClaimWrite write) {
+        try {
+            write(objectMapper.valueToTree(write));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal claim " + write.claimDecision().getClaimId(), e);
+        }
+    }
+
+    private void write(JsonNode line) throws IOException {
+        journal.seek(journal.length());
+        journal.write((objectMapper.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8));
+        if (journalFsync) {
+            journal.getFD().sync();
+        }
+    }
+
+    /**
+     * Claims journaled without a later commit record, in submission order. A torn last line is ignored.
+     */
+    private List<PendingClaimWrite> readJournal() {
+        Path file = Path.of(journalDir, JOURNAL_FILE);
+        Map<Long, PendingClaimWrite> pending = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        JsonNode node = objectMapper.readTree(line);
+                        if (node.has(COMMITTED)) {
+                            node.get(COMMITTED).forEach(seq -> pending.remove(seq.asLong()));
+                        } else {
+                            PendingClaimWrite write = objectMapper.treeToValue(node, PendingClaimWrite.class);
+                            pending.put(write.sequence(), write);
+                        }
+                    } catch (IOException e) {
+                        logger.warn("Skipping unreadable write-behind journal line: {}", e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read write-behind journal " + file, e);
+            }
+        }
+        pending.keySet().stream().mapToLong(Long::longValue).max().ifPresent(sequence::set);
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Replaces the journal with just the uncommitted claims and reopens it for appending.
+     */
+    private synchronized void rewriteJournal() {
+        try {
+            Path directory = Path.of(journalDir);
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "pending-claim-writes", ".tmp");
+            List<String> lines = new ArrayList<>();
+            for (PendingClaimWrite write : uncommitted.values()) {
+                lines.add(objectMapper.writeValueAsString(write));
+            }
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            closeJournal();
+            Files.move(temp, directory.resolve(JOURNAL_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journal = new RandomAccessFile(directory.resolve(JOURNAL_FILE).toFile(), "rw");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open write-behind journal in " + journalDir, e);
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Could not close write-behind journal: {}", e.getMessage());
+        }
+        journal = null;
+    }
+}
@@ -7,6 +7,7 @@ import com.ai.claim.underwriter.model.ClaimAdjudicationRequest;
 import com.ai.claim.underwriter.model.ClaimEvidence;
 import com.ai.claim.underwriter.model.ClaimExtractionResult;
 import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.ai.claim.underwriter.model.PendingClaimWrite;
 import com.ai.claim.underwriter.repository.ClaimAIResultDB;
 import com.ai.claim.underwriter.repository.ClaimDecisionDB;
 import com.ai.claim.underwriter.repository.ClaimDecisionEvidenceDB;
@@ -19,7 +20,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,7 +42,18 @@ public class DataBaseOperationService {
     }
 
     public void saveInvoiceData(ExtractedInvoice invoice) {
+        // Save to DB
+        saveResult(toExtractionResult(invoice));
+    }
+
+    /**
+     * The {@code claim_ai_result} row for an extracted invoice, without saving it.
+     */
+    public ClaimAIResult toClaimAIResult(ExtractedInvoice invoice) {
+        return toClaimAIResult(toExtractionResult(invoice));
+    }
 
+    private ClaimExtractionResult toExtractionResult(ExtractedInvoice invoice) {
         if (invoice == null) {
             throw new IllegalArgumentException("No extracted invoice found. Please call the extract tool first.");
         }
@@ -65,12 +80,14 @@ public class DataBaseOperationService {
                 })
                 .collect(java.util.stream.Collectors.toList());
         }
-        
-        // Save to DB
-        saveResult(result);
+        return result;
     }
 
     public void saveResult(ClaimExtractionResult result) {
+        claimAIResultDB.save(toClaimAIResult(result));
+    }
+
+    private ClaimAIResult toClaimAIResult(ClaimExtractionResult result) {
         ClaimAIResult claimAIResult = new ClaimAIResult();
 
         // Map simple fields
@@ -114,36 +131,93 @@ public class DataBaseOperationService {
         }
 
         claimAIResult.setCreatedAt(LocalDateTime.now());
-
-        // Save
-        claimAIResultDB.save(claimAIResult);
-
+        return claimAIResult;
     }
 
     @Transactional
     public void saveIntoClaimEvidenceDB(ClaimEvidence claimEvidence) {
 
-        List<ClaimDecisionEvidence> existingEvidences = claimEvidence.matches().stream().map(
-                d -> {
-                    ClaimDecisionEvidence claimDecisionEvidence = new ClaimDecisionEvidence();
-                    claimDecisionEvidence.setChunkText(d.getText());
-                    // Set the relationship object, not just the ID (decision_id is insertable=false)
-                    claimDecisionEvidence.setClaimDecision(claimEvidence.claimDecision());
-                    if (d.getMetadata().get("score") instanceof Number n) {
-                        claimDecisionEvidence
-                                .setScore(BigDecimal.valueOf(n.doubleValue()).setScale(4, RoundingMode.HALF_UP));
-                    } else {
-                        claimDecisionEvidence.setScore(null);
-                    }
-                    return claimDecisionEvidence;
-                }
-
-        ).collect(Collectors.toList());
+        List<ClaimDecisionEvidence> existingEvidences = toEvidence(claimEvidence).stream()
+                .map(e -> newEvidence(claimEvidence.claimDecision(), e))
+                .collect(Collectors.toList());
 
         claimDecisionEvidenceDB.saveAll(existingEvidences);
 
     }
 
+    /**
+     * Evidence rows of a decision in retrieval order: the policy chunk id (text only for chunks without one),
+     * the retrieval score rounded to 4 places and the rank.
+     */
+    public List<PendingClaimWrite.Evidence> toEvidence(ClaimEvidence claimEvidence) {
+        List<PendingClaimWrite.Evidence> evidence = new ArrayList<>();
+        List<Document> matches = claimEvidence.matches();
+        for (int rank = 0; rank < matches.size(); rank++) {
+            Document d = matches.get(rank);
+            UUID chunkId = chunkId(d);
+            BigDecimal score = d.getMetadata().get("score") instanceof Number n
+                    ? BigDecimal.valueOf(n.doubleValue()).setScale(4, RoundingMode.HALF_UP)
+                    : null;
+            evidence.add(new PendingClaimWrite.Evidence(chunkId, chunkId == null ? d.getText() : null, score, rank + 1));
+        }
+        return evidence;
+    }
+
+    /**
+     * Evidence of a saved decision, best first, with the text joined from {@code policy_chunks}.
+     */
+    public List<ClaimDecisionEvidenceDB.EvidenceText> findEvidence(Long decisionId) {
+        return claimDecisionEvidenceDB.findEvidenceWithText(decisionId);
+    }
+
+    private static UUID chunkId(Document document) {
+        if (document.getId() == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(document.getId());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Persists the results of several claims in one transaction: all extraction results, then all decisions,
+     * then all evidence rows, each as a single {@code saveAll}.
+     */
+    @Transactional
+    public void saveClaimResults(List<PendingClaimWrite> writes) {
+        claimAIResultDB.saveAll(writes.stream().map(PendingClaimWrite::aiResult).filter(Objects::nonNull).toList());
+
+        List<ClaimDecision> decisions = claimDecisionDB.saveAll(writes.stream().map(PendingClaimWrite::claimDecision).toList());
+        List<ClaimDecisionEvidence> evidences = new ArrayList<>();
+        for (int i = 0; i < writes.size(); i++) {
+            ClaimDecision saved = decisions.get(i);
+            writes.get(i).evidence().forEach(e -> evidences.add(newEvidence(saved, e)));
+        }
+        claimDecisionEvidenceDB.saveAll(evidences);
+    }
+
+    /**
+     * Whether a journaled decision was already committed before a crash; drafts saved earlier (with an id) are
+     * saved again.
+     */
+    public boolean isSaved(ClaimDecision claimDecision) {
+        return claimDecision.getId() == null && claimDecision.getCreatedAt() != null
+                && claimDecisionDB.existsByClaimIdAndCreatedAt(claimDecision.getClaimId(), claimDecision.getCreatedAt());
+    }
+
+    private static ClaimDecisionEvidence newEvidence(ClaimDecision claimDecision, PendingClaimWrite.Evidence evidence) {
+        ClaimDecisionEvidence claimDecisionEvidence = new ClaimDecisionEvidence();
+        claimDecisionEvidence.setChunkId(evidence.chunkId());
+        claimDecisionEvidence.setChunkText(evidence.chunkText());
+        claimDecisionEvidence.setRank(evidence.rank());
+        // Set the relationship object, not just the ID (decision_id is insertable=false)
+        claimDecisionEvidence.setClaimDecision(claimDecision);
+        claimDecisionEvidence.setScore(evidence.score());
+        return claimDecisionEvidence;
+    }
+
     public ClaimDecision saveIntoClaimDecisionDB(ClaimEvidence claimEvidence) {
         return claimDecisionDB.save(claimEvidence.claimDecision());
     }
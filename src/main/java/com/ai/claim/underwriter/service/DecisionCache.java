@@ -0,0 +1,254 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.ai.claim.underwriter.utils.AbstractConstant.*;
+
+/**
+ * Opt-in cache of line-item classifications for repeat claims under the same policy.
+ * <p>
+ * After an LLM adjudication, the per-item coverage classification (covered, care type, reason), the letter
+ * template and the evidence are kept per policy/customer. A later claim whose line items all match a cached
+ * claim, either exactly (same descriptions and amounts) or by description token similarity, reuses that
+ * classification with its own amounts, so only the deterministic benefit calculation runs.
+ */
+@Component
+public class DecisionCache {
+
+    public static final String SOURCE_LLM = "LLM";
+    public static final String SOURCE_CACHE_EXACT = "CACHE_EXACT";
+    public static final String SOURCE_CACHE_SIMILAR = "CACHE_SIMILAR";
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private record ItemClass(String service, Set<String> tokens, boolean covered, String careType, String reason) {
+    }
+
+    private record Entry(long claimId, String fingerprint, List<ItemClass> items, JsonNode policyTerms,
+                         String letter, List<Document> matches, long storedAt) {
+    }
+
+    /**
+     * A cache hit: the classification rebuilt for the new claim's line items, ready for the benefit calculator.
+     */
+    public record Hit(JsonNode classification, List<Document> matches, long sourceClaimId, String source) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Deque<Entry>> entries;
+
+    @Value("${claim.decision-cache.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${claim.decision-cache.similarity-threshold:0.8}")
+    private double similarityThreshold = 0.8;
+
+    @Value("${claim.decision-cache.ttl-minutes:1440}")
+    private long ttlMinutes = 1440;
+
+    @Value("${claim.decision-cache.max-entries-per-policy:20}")
+    private int maxEntriesPerPolicy = 20;
+
+    public DecisionCache(ObjectMapper objectMapper, @Value("${claim.decision-cache.max-policies:1000}") int maxPolicies) {
+        this.objectMapper = objectMapper;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Deque<Entry>> eldest) {
+                return size() > maxPolicies;
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Most recent cached claim whose classification covers every line item; exact fingerprint matches win.
+     */
+    public Optional<Hit> lookup(String policyNumber, String customerId, List<ExtractedInvoice.LineItem> lineItems) {
+        if (!enabled || lineItems == null || lineItems.isEmpty()) {
+            return Optional.empty();
+        }
+        Deque<Entry> policyEntries = entries.get(key(policyNumber, customerId));
+        if (policyEntries == null) {
+            return Optional.empty();
+        }
+
+        String fingerprint = fingerprint(lineItems);
+        long now = System.nanoTime();
+        long ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        synchronized (policyEntries) {
+            policyEntries.removeIf(entry -> now - entry.storedAt() >= ttlNanos);
+            for (Entry entry : policyEntries) {
+                if (entry.fingerprint().equals(fingerprint)) {
+                    return rebuild(entry, lineItems, SOURCE_CACHE_EXACT);
+                }
+            }
+            for (Entry entry : policyEntries) {
+                Optional<Hit> hit = rebuild(entry, lineItems, SOURCE_CACHE_SIMILAR);
+                if (hit.isPresent()) {
+                    return hit;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Keeps the model's classification of an adjudicated claim for later repeats.
+     */
+    public void store(String policyNumber, String customerId, List<ExtractedInvoice.LineItem> lineItems,
+                      JsonNode classification, List<Document> matches, long claimId) {
+        if (!enabled || lineItems == null || lineItems.isEmpty()) {
+            return;
+        }
+        JsonNode itemized = classification.path(ITEMIZED_DECISIONS);
+        if (!itemized.isArray() || itemized.isEmpty()) {
+            return;
+        }
+        List<ItemClass> items = new ArrayList<>(itemized.size());
+        for (JsonNode item : itemized) {
+            String service = item.path("service").asText("");
+            items.add(new ItemClass(service, tokens(service), item.path("covered").asBoolean(false),
+                    item.path("careType").isTextual() ? item.path("careType").asText() : null,
+                    item.path("reason").isTextual() ? item.path("reason").asText() : null));
+        }
+        JsonNode policyTerms = classification.path(POLICY_TERMS).isObject() ? classification.get(POLICY_TERMS) : null;
+        Entry entry = new Entry(claimId, fingerprint(lineItems), List.copyOf(items), policyTerms,
+                classification.path(LETTER).asText(""), List.copyOf(matches), System.nanoTime());
+
+        Deque<Entry> policyEntries = entries.computeIfAbsent(key(policyNumber, customerId), k -> new ArrayDeque<>());
+        synchronized (policyEntries) {
+            policyEntries.removeIf(existing -> existing.fingerprint().equals(entry.fingerprint()));
+            policyEntries.addFirst(entry);
+            while (policyEntries.size() > maxEntriesPerPolicy) {
+                policyEntries.removeLast();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached claim of the policy (all customers), e.g. after the policy was re-ingested.
+     */
+    public void invalidate(String policyNumber) {
+        String prefix = policyNumber + "|";
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private Optional<Hit> rebuild(Entry entry, List<ExtractedInvoice.LineItem> lineItems, String source) {
+        ObjectNode classification = objectMapper.createObjectNode();
+        ArrayNode itemized = classification.putArray(ITEMIZED_DECISIONS);
+        ArrayNode reasons = classification.putArray(REASONS);
+        for (ExtractedInvoice.LineItem lineItem : lineItems) {
+            ItemClass match = bestMatch(entry.items(), lineItem.desc());
+            if (match == null) {
+                return Optional.empty();
+            }
+            ObjectNode item = itemized.addObject();
+            item.put("service", lineItem.desc());
+            item.put("amount", lineItem.amount() != null ? lineItem.amount() : 0.0);
+            item.put("covered", match.covered());
+            if (match.careType() != null) {
+                item.put("careType", match.careType());
+            }
+            if (match.reason() != null) {
+                item.put("reason", match.reason());
+            }
+            // Reasons are rebuilt per item so they never mention services of the cached claim only
+            reasons.add(match.covered()
+                    ? lineItem.desc() + " covered"
+                    : lineItem.desc() + " excluded" + (match.reason() != null ? ": " + match.reason() : ""));
+        }
+        if (entry.policyTerms() != null) {
+            classification.set(POLICY_TERMS, entry.policyTerms());
+        }
+        classification.put(LETTER, entry.letter());
+        return Optional.of(new Hit(classification, entry.matches(), entry.claimId(), source));
+    }
+
+    private ItemClass bestMatch(List<ItemClass> items, String description) {
+        String normalized = normalize(description);
+        Set<String> tokens = tokens(description);
+        ItemClass best = null;
+        double bestScore = 0;
+        for (ItemClass item : items) {
+            if (normalize(item.service()).equals(normalized)) {
+                return item;
+            }
+            double score = similarity(tokens, item.tokens());
+            if (score >= similarityThreshold && score > bestScore) {
+                best = item;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Order-independent key of the line items: normalized descriptions with amounts rounded to the rupee.
+     */
+    static String fingerprint(List<ExtractedInvoice.LineItem> lineItems) {
+        return lineItems.stream()
+                .map(item -> normalize(item.desc()) + "=" + (item.amount() != null ? Math.round(item.amount()) : 0))
+                .sorted()
+                .collect(Collectors.joining(";"));
+    }
+
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        return NON_ALPHANUMERIC.matcher(description.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Jaccard similarity of two token sets.
+     */
+    static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int intersection = 0;
+        for (String token : a) {
+            if (b.contains(token)) {
+                intersection++;
+            }
+        }
+        return (double) intersection / (a.size() + b.size() - intersection);
+    }
+
+    private static Set<String> tokens(String description) {
+        String normalized = normalize(description);
+        return normalized.isEmpty() ? Set.of() : new HashSet<>(Arrays.asList(normalized.split(" ")));
+    }
+
+    private static String key(String policyNumber, String customerId) {
+        return policyNumber + "|" + customerId;
+    }
+}
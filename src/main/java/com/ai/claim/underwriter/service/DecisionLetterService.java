@@ -0,0 +1,178 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.entity.ClaimDecision;
+import com.ai.claim.underwriter.model.BenefitCalculation;
+import com.ai.claim.underwriter.model.DecisionLetter;
+import com.ai.claim.underwriter.model.DecisionLetterRequest;
+import com.ai.claim.underwriter.model.ItemizedDecision;
+import com.ai.claim.underwriter.repository.ClaimDecisionDB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Customer letters written off the adjudication critical path.
+ * <p>
+ * With {@code claim.letter.async.enabled}, the adjudication call returns only the decision JSON and the letter is
+ * requested here afterwards, optionally from a cheaper model ({@code claim.letter.model}). The placeholders are
+ * filled by {@link BenefitCalculator} and the letter is attached to the {@link ClaimDecision}, whether or not
+ * the decision has been saved yet. A fixed template is used when the letter call fails.
+ */
+@Service
+public class DecisionLetterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecisionLetterService.class);
+
+    private final ChatClient chatClient;
+    private final BenefitCalculator benefitCalculator;
+    private final ClaimDecisionDB claimDecisionDB;
+    private final Executor executor;
+    private final Map<Long, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+    @Value("classpath:/templates/decisionLetterPromptTemplate.st")
+    Resource decisionLetterPrompt;
+
+    @Value("classpath:/templates/decisionLetterFallback.st")
+    Resource decisionLetterFallback;
+
+    @Value("${claim.letter.async.enabled:false}")
+    private boolean enabled = false;
+
+    // Blank uses the default chat model
+    @Value("${claim.letter.model:}")
+    private String model = "";
+
+    public DecisionLetterService(ChatClient.Builder chatClientBuilder, BenefitCalculator benefitCalculator,
+                                 ClaimDecisionDB claimDecisionDB,
+                                 @Qualifier("blockingTaskExecutor") Executor executor) {
+        this.chatClient = chatClientBuilder.build();
+        this.benefitCalculator = benefitCalculator;
+        this.claimDecisionDB = claimDecisionDB;
+        this.executor = executor;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts writing the letter for the decision; it is set on {@code claimDecision} and on the stored row when done.
+     */
+    public CompletableFuture<String> generateAsync(ClaimDecision claimDecision, DecisionLetterRequest request) {
+        CompletableFuture<String> letter = CompletableFuture.supplyAsync(() -> write(request), executor)
+                .thenApply(text -> attach(claimDecision, request.claimId(), text));
+        pending.put(request.claimId(), letter);
+        letter.whenComplete((text, error) -> pending.remove(request.claimId(), letter));
+        return letter;
+    }
+
+    /**
+     * Letter of the claim's latest decision, or PENDING while it is still being written.
+     */
+    public DecisionLetter letterFor(long claimId) {
+        if (pending.containsKey(claimId)) {
+            return new DecisionLetter(claimId, DecisionLetter.PENDING, null);
+        }
+        return claimDecisionDB.findLatestByClaimId(claimId)
+                .flatMap(decisions -> decisions.stream().findFirst())
+                .map(ClaimDecision::getLetter)
+                .filter(letter -> !letter.isBlank())
+                .map(letter -> new DecisionLetter(claimId, DecisionLetter.READY, letter))
+                .orElseGet(() -> new DecisionLetter(claimId, DecisionLetter.NOT_FOUND, null));
+    }
+
+    String write(DecisionLetterRequest request) {
+        long start = System.currentTimeMillis();
+        BenefitCalculation calculation = benefitCalculator.calculate(request.itemizedDecisions(), request.terms());
+
+        String template;
+        try {
+            ChatOptions.Builder options = ChatOptions.builder().temperature(0.0);
+            if (model != null && !model.isBlank()) {
+                options.model(model);
+            }
+            template = chatClient.prompt()
+                    .system(decisionLetterPrompt)
+                    .user(letterInput(request, calculation))
+                    .options(options.build())
+                    .call()
+                    .content();
+        } catch (Exception e) {
+            logger.warn("Letter generation failed for claim {}, using the standard letter: {}", request.claimId(), e.getMessage());
+            template = null;
+        }
+        if (template == null || template.isBlank()) {
+            template = fallbackTemplate(request);
+        }
+
+        String letter = benefitCalculator.fillLetter(template, calculation);
+        logger.info("Letter for claim {} written in {} ms", request.claimId(), System.currentTimeMillis() - start);
+        return letter;
+    }
+
+    private String attach(ClaimDecision claimDecision, long claimId, String letter) {
+        // Set on the entity first: a decision saved after this point carries the letter, one saved before is updated.
+        // Only this decision is updated, never an older or newer decision of the same claim.
+        claimDecision.setLetter(letter);
+        try {
+            if (claimDecision.getId() != null) {
+                claimDecisionDB.updateLetterWhereMissing(claimDecision.getId(), letter);
+            } else {
+                claimDecisionDB.updateLatestLetterWhereMissing(claimId, letter);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not store letter for claim {}: {}", claimId, e.getMessage());
+        }
+        return letter;
+    }
+
+    private String letterInput(DecisionLetterRequest request, BenefitCalculation calculation) {
+        StringBuilder items = new StringBuilder();
+        for (ItemizedDecision item : calculation.itemizedDecisions()) {
+            items.append("- ").append(item.service())
+                    .append(Boolean.TRUE.equals(item.covered()) ? ": covered" : ": excluded");
+            if (item.reason() != null) {
+                items.append(" (").append(item.reason()).append(')');
+            }
+            items.append('\n');
+        }
+        List<String> reasons = request.reasons() != null ? request.reasons() : List.of();
+        return """
+                PATIENT NAME: %s
+                POLICY NUMBER: %s
+                DECISION: %s
+                
+                SERVICES:
+                %s
+                REASONS:
+                %s
+                
+                INVOICE SUMMARY:
+                %s
+                """.formatted(request.patientName(), request.policyNumber(), calculation.decision(), items,
+                String.join("\n", reasons), request.invoiceSummary());
+    }
+
+    private String fallbackTemplate(DecisionLetterRequest request) {
+        try {
+            return decisionLetterFallback.getContentAsString(StandardCharsets.UTF_8)
+                    .replace("{{PATIENT_NAME}}", request.patientName() != null ? request.patientName() : "Customer")
+                    .replace("{{POLICY_NUMBER}}", request.policyNumber() != null ? request.policyNumber() : "");
+        } catch (IOException e) {
+            return "RE: CLAIM DECISION - {{DECISION}}\n\n{{ITEMIZED_BREAKDOWN}}\n\n{{PAYMENT_CALCULATION}}\n\n{{NEXT_STEPS}}";
+        }
+    }
+}
@@ -7,7 +7,6 @@ import com.ai.claim.underwriter.model.MetadataOnly;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
@@ -16,6 +15,7 @@ import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
 
 import static com.ai.claim.underwriter.utils.AbstractConstant.*;
 
@@ -23,9 +23,12 @@ import static com.ai.claim.underwriter.utils.AbstractConstant.*;
 public class InvoiceExtractorService {
 
     private static final Logger logger = LoggerFactory.getLogger(InvoiceExtractorService.class);
+    // A line that ends in a monetary amount, e.g. "CBC Test ..... 1,250.00" or "X-Ray  ₹ 800"
+    private static final Pattern AMOUNT_LINE = Pattern.compile("(?:^|\\s)[₹$]?\\s*\\d[\\d,]*(?:\\.\\d{1,2})?\\s*$");
     private final ChatClient chatClient;
     private final InvoiceContext invoiceContext;
     private final Executor blockingTaskExecutor;
+    private final ModelRouter modelRouter;
 
     @Value("classpath:/templates/metadataExtractionPrompt.st")
     Resource metadataExtractionPrompt;
@@ -33,12 +36,18 @@ public class InvoiceExtractorService {
     @Value("classpath:/templates/lineItemsExtractionPrompt.st")
     Resource lineItemsExtractionPrompt;
 
+    // Mean line-item confidence below which a cheaper model's extraction is escalated
+    @Value("${claim.routing.min-line-item-confidence:0.7}")
+    private double minLineItemConfidence = 0.7;
+
     public InvoiceExtractorService(ChatClient.Builder chatClientBuilder, 
                                    InvoiceContext invoiceContext,
-                                   @Qualifier("blockingTaskExecutor") Executor blockingTaskExecutor) {
+                                   @Qualifier("blockingTaskExecutor") Executor blockingTaskExecutor,
+                                   ModelRouter modelRouter) {
         this.chatClient = chatClientBuilder.build();
         this.invoiceContext = invoiceContext;
         this.blockingTaskExecutor = blockingTaskExecutor;
+        this.modelRouter = modelRouter;
     }
 
     public Map<String, Object> extract(String invoiceText) {
@@ -136,12 +145,12 @@ public class InvoiceExtractorService {
                 %s
                 """.formatted(invoiceText);
 
-        return chatClient.prompt()
+        return modelRouter.route(ModelRouter.Stage.METADATA, model -> chatClient.prompt()
                 .system(metadataExtractionPrompt)
                 .user(user)
-                .options(ChatOptions.builder().model("gpt-4o").temperature(0.0).build())
+                .options(ModelRouter.options(model))
                 .call()
-                .entity(MetadataOnly.class);
+                .entity(MetadataOnly.class), InvoiceExtractorService::isCompleteMetadata);
     }
 
     /**
@@ -153,12 +162,59 @@ public class InvoiceExtractorService {
                 %s
                 """.formatted(itemizedText);
 
-        return chatClient.prompt()
+        return modelRouter.route(ModelRouter.Stage.LINE_ITEMS, model -> chatClient.prompt()
                 .system(lineItemsExtractionPrompt)
                 .user(user)
-                .options(ChatOptions.builder().temperature(0.0).build())
+                .options(ModelRouter.options(model))
                 .call()
-                .entity(LineItemsOnly.class);
+                .entity(LineItemsOnly.class), this::isConfidentLineItems);
+    }
+
+    static boolean isCompleteMetadata(MetadataOnly metadata) {
+        return metadata != null
+                && metadata.patientName() != null && !metadata.patientName().isBlank()
+                && metadata.invoiceNumber() != null && !metadata.invoiceNumber().isBlank()
+                && metadata.totalAmount() != null && metadata.totalAmount() > 0;
+    }
+
+    boolean isConfidentLineItems(LineItemsOnly items) {
+        if (items == null || items.lineItems() == null || items.lineItems().isEmpty()) {
+            return false;
+        }
+        double confidenceSum = 0;
+        int rated = 0;
+        for (ExtractedInvoice.LineItem item : items.lineItems()) {
+            if (item.desc() == null || item.desc().isBlank() || item.amount() == null) {
+                return false;
+            }
+            if (item.confidence() != null) {
+                confidenceSum += item.confidence();
+                rated++;
+            }
+        }
+        return rated == 0 || confidenceSum / rated >= minLineItemConfidence;
+    }
+
+    /**
+     * Cheap, model-free estimate of the number of line items: counts lines of the itemized
+     * section that end in an amount, ignoring total/subtotal/tax lines.
+     * Used to route small invoices to the single-call fast path; 0 when no amount line is recognised.
+     */
+    public int estimateLineItemCount(String invoiceText) {
+        if (invoiceText == null || invoiceText.isBlank()) {
+            return 0;
+        }
+        int count = 0;
+        for (String line : extractItemizedSection(invoiceText).split("\\r?\\n")) {
+            String upper = line.toUpperCase();
+            if (upper.contains("TOTAL") || upper.contains("TAX") || upper.contains("GST")) {
+                continue;
+            }
+            if (AMOUNT_LINE.matcher(line).find()) {
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
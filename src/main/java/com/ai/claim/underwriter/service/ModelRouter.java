@@ -0,0 +1,110 @@
+package com.ai.claim.underwriter.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Per-stage model ladders: each call runs on the cheapest model of its stage first and moves up the ladder
+ * only when the result fails the stage's confidence/validation check or the call itself fails.
+ * <p>
+ * Ladders are comma-separated model names under {@code claim.routing.ladders.*}; an empty rung means the
+ * default chat model. Every call is counted per stage and model ({@code claim.model.calls}) and every
+ * escalation per stage and model escalated from ({@code claim.model.escalations}), so the escalation rate of
+ * a stage is escalations / calls.
+ */
+@Component
+public class ModelRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelRouter.class);
+
+    public enum Stage {
+        METADATA, LINE_ITEMS, ADJUDICATION;
+
+        String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Stage, List<String>> ladders = new EnumMap<>(Stage.class);
+
+    // Defaults keep the models each stage used before routing: gpt-4o for metadata, the default model elsewhere
+    public ModelRouter(MeterRegistry meterRegistry,
+                       @Value("${claim.routing.ladders.metadata:gpt-4o}") String metadataLadder,
+                       @Value("${claim.routing.ladders.line-items:}") String lineItemsLadder,
+                       @Value("${claim.routing.ladders.adjudication:}") String adjudicationLadder) {
+        this.meterRegistry = meterRegistry;
+        ladders.put(Stage.METADATA, parseLadder(metadataLadder));
+        ladders.put(Stage.LINE_ITEMS, parseLadder(lineItemsLadder));
+        ladders.put(Stage.ADJUDICATION, parseLadder(adjudicationLadder));
+    }
+
+    /**
+     * Runs {@code call} with each model of the stage's ladder until {@code accept} passes. The last model's
+     * result is returned even when it does not pass; its exception is rethrown when it fails.
+     */
+    public <T> T route(Stage stage, Function<String, T> call, Predicate<T> accept) {
+        List<String> ladder = ladders.get(stage);
+        for (int rung = 0; ; rung++) {
+            String model = ladder.get(rung);
+            boolean last = rung == ladder.size() - 1;
+            counter("claim.model.calls", stage, model).increment();
+            try {
+                T result = call.apply(model);
+                if (last || accept.test(result)) {
+                    return result;
+                }
+                logger.info("{} result from {} failed validation, escalating to {}", stage, label(model), label(ladder.get(rung + 1)));
+            } catch (RuntimeException e) {
+                if (last) {
+                    throw e;
+                }
+                logger.warn("{} call on {} failed, escalating to {}: {}", stage, label(model), label(ladder.get(rung + 1)), e.getMessage());
+            }
+            counter("claim.model.escalations", stage, model).increment();
+        }
+    }
+
+    /**
+     * Deterministic options for a rung; a blank model leaves the default chat model in place.
+     */
+    public static ChatOptions options(String model) {
+        ChatOptions.Builder builder = ChatOptions.builder().temperature(0.0);
+        if (model != null && !model.isBlank()) {
+            builder.model(model);
+        }
+        return builder.build();
+    }
+
+    List<String> ladder(Stage stage) {
+        return ladders.get(stage);
+    }
+
+    private Counter counter(String name, Stage stage, String model) {
+        return Counter.builder(name)
+                .tag("stage", stage.tag())
+                .tag("model", label(model))
+                .register(meterRegistry);
+    }
+
+    private static String label(String model) {
+        return model.isBlank() ? "default" : model;
+    }
+
+    private static List<String> parseLadder(String ladder) {
+        List<String> models = Arrays.stream(ladder.split(",")).map(String::trim).toList();
+        return models.isEmpty() ? List.of("") : models;
+    }
+}
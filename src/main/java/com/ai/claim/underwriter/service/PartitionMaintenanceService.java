@@ -0,0 +1,165 @@
+package com.ai.claim.underwriter.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitions on {@code created_at} for the claim fact tables.
+ * <p>
+ * At startup and daily ({@code claim.partitions.cron}), partitions for the current month and the next
+ * {@code months-ahead} months are created, so inserts never fall into the default partition. With
+ * {@code retention-months} set, monthly partitions that ended before the retention window are detached and
+ * moved to {@code archive-schema}, where they can be dumped and dropped without touching live tables.
+ * Tables that are not partitioned (databases not yet converted with {@code V2__partition_claim_tables.sql})
+ * are skipped.
+ */
+@Service
+public class PartitionMaintenanceService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    static final List<String> PARTITIONED_TABLES = List.of("claim_decisions", "claim_decision_evidence", "claim_ai_result");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("_p(\\d{4})(\\d{2})$");
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${claim.partitions.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${claim.partitions.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    // 0 keeps every partition attached
+    @Value("${claim.partitions.retention-months:0}")
+    private int retentionMonths = 0;
+
+    // Blank leaves detached partitions in place
+    @Value("${claim.partitions.archive-schema:claim_archive}")
+    private String archiveSchema = "claim_archive";
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        scheduledMaintenance();
+    }
+
+    @Scheduled(cron = "${claim.partitions.cron:0 30 2 * * *}")
+    public void scheduledMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            maintain(YearMonth.now());
+        } catch (DataAccessException e) {
+            logger.error("Partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    void maintain(YearMonth current) {
+        for (String table : PARTITIONED_TABLES) {
+            if (!isPartitioned(table)) {
+                logger.debug("{} is not partitioned, skipping partition maintenance", table);
+                continue;
+            }
+            List<String> partitions = partitionsOf(table);
+            createPartitions(table, current, partitions);
+            if (retentionMonths > 0) {
+                archivePartitions(table, current.minusMonths(retentionMonths), partitions);
+            }
+        }
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return "%s_p%04d%02d".formatted(table, month.getYear(), month.getMonthValue());
+    }
+
+    private void createPartitions(String table, YearMonth current, List<String> partitions) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = partitionName(table, month);
+            if (partitions.contains(name)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')"
+                        .formatted(name, table, month.atDay(1), month.plusMonths(1).atDay(1)));
+                logger.info("Created partition {}", name);
+            } catch (DataAccessException e) {
+                // Typically rows for this month already sit in the default partition; they stay there
+                logger.warn("Could not create partition {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Detaches monthly partitions that ended on or before the first day of {@code oldestKept} and moves them to
+     * the archive schema.
+     */
+    private void archivePartitions(String table, YearMonth oldestKept, List<String> partitions) {
+        String schema = archiveSchema == null ? "" : archiveSchema.strip();
+        if (!schema.isEmpty() && !IDENTIFIER.matcher(schema).matches()) {
+            logger.error("Invalid claim.partitions.archive-schema '{}', not archiving partitions", schema);
+            return;
+        }
+        for (String name : partitions) {
+            Optional<YearMonth> month = monthOf(table, name);
+            if (month.isEmpty() || !month.get().isBefore(oldestKept)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE %s DETACH PARTITION %s".formatted(table, name));
+            if (!schema.isEmpty()) {
+                jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+                jdbcTemplate.execute("ALTER TABLE %s SET SCHEMA %s".formatted(name, schema));
+            }
+            logger.info("Detached partition {}{}", name, schema.isEmpty() ? "" : " into schema " + schema);
+        }
+    }
+
+    // Only partitions named by partitionName(); the default and legacy partitions never expire
+    private static Optional<YearMonth> monthOf(String table, String partition) {
+        Matcher matcher = MONTHLY_PARTITION.matcher(partition);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        try {
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            return partitionName(table, month).equals(partition) ? Optional.of(month) : Optional.empty();
+        } catch (DateTimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean isPartitioned(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid
+                               WHERE c.relname = ? AND pg_table_is_visible(c.oid))
+                """, Boolean.class, table));
+    }
+
+    private List<String> partitionsOf(String table) {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ? AND pg_table_is_visible(p.oid)
+                """, String.class, table);
+    }
+}
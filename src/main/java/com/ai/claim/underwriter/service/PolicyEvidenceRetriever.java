@@ -0,0 +1,256 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.ai.claim.underwriter.model.LineItemCategory;
+import com.ai.claim.underwriter.repository.PolicyChunkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hybrid policy evidence retrieval.
+ * <p>
+ * Runs the pgvector similarity search and a Postgres full-text search over {@code policy_chunks.content}
+ * in parallel, both filtered on the typed {@code policy_number}/{@code customer_id} columns, and fuses both rankings with Reciprocal Rank Fusion, so exclusion clauses that only match
+ * by exact terms (drug names, procedure codes) are found without raising topK.
+ * <p>
+ * For large itemized invoices an optional per-category mode groups the line items (room, pharmacy,
+ * diagnostics, consumables, ...), runs one hybrid search per group in parallel and merges the groups
+ * into a single ranking bounded by chunk count and total evidence size.
+ * <p>
+ * With the in-memory index enabled, both searches run against {@link PolicyVectorIndex} and only the
+ * query embedding leaves the process.
+ */
+@Service
+public class PolicyEvidenceRetriever {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyEvidenceRetriever.class);
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]{3,}");
+    private static final int MAX_QUERY_TERMS = 48;
+    private static final int MAX_CATEGORY_QUERY_CHARS = 2000;
+
+    private final PolicyChunkRepository policyChunkRepository;
+    private final PolicyVectorIndex policyVectorIndex;
+    private final EmbeddingModel embeddingModel;
+    private final Executor vectorTaskExecutor;
+
+    @Value("${claim.retrieval.top-k:4}")
+    private int topK = 4;
+
+    @Value("${claim.retrieval.candidates:10}")
+    private int candidates = 10;
+
+    @Value("${claim.retrieval.rrf-k:60}")
+    private int rrfK = 60;
+
+    @Value("${claim.retrieval.lexical-enabled:true}")
+    private boolean lexicalEnabled = true;
+
+    @Value("${claim.retrieval.timeout-seconds:15}")
+    private int timeoutSeconds = 15;
+
+    @Value("${claim.retrieval.per-category.enabled:false}")
+    private boolean perCategoryEnabled = false;
+
+    @Value("${claim.retrieval.per-category.min-line-items:6}")
+    private int perCategoryMinLineItems = 6;
+
+    @Value("${claim.retrieval.per-category.top-k:3}")
+    private int perCategoryTopK = 3;
+
+    @Value("${claim.retrieval.per-category.max-chunks:10}")
+    private int maxChunks = 10;
+
+    @Value("${claim.retrieval.per-category.max-evidence-chars:12000}")
+    private int maxEvidenceChars = 12000;
+
+    @Value("${claim.retrieval.in-memory.enabled:false}")
+    private boolean inMemoryEnabled = false;
+
+    private record PendingSearch(CompletableFuture<List<Document>> vector, CompletableFuture<List<Document>> lexical) {
+    }
+
+    public PolicyEvidenceRetriever(PolicyChunkRepository policyChunkRepository,
+                                   PolicyVectorIndex policyVectorIndex, EmbeddingModel embeddingModel,
+                                   @Qualifier("vectorTaskExecutor") Executor vectorTaskExecutor) {
+        this.policyChunkRepository = policyChunkRepository;
+        this.policyVectorIndex = policyVectorIndex;
+        this.embeddingModel = embeddingModel;
+        this.vectorTaskExecutor = vectorTaskExecutor;
+    }
+
+    /**
+     * Top policy chunks for the policy/customer pair, best first. Empty when neither search finds anything.
+     */
+    public List<Document> retrieve(String policyNumber, String customerId, String query) {
+        return retrieve(policyNumber, customerId, query, List.of());
+    }
+
+    public boolean isPerCategoryEnabled() {
+        return perCategoryEnabled;
+    }
+
+    /**
+     * Same as {@link #retrieve(String, String, String)}, switching to per-category queries when enabled
+     * and the invoice has enough line items.
+     */
+    public List<Document> retrieve(String policyNumber, String customerId, String query, List<ExtractedInvoice.LineItem> lineItems) {
+        if (perCategoryEnabled && lineItems != null && lineItems.size() >= perCategoryMinLineItems) {
+            return retrieveByCategory(policyNumber, customerId, LineItemCategory.group(lineItems));
+        }
+
+        long start = System.currentTimeMillis();
+        PendingSearch search = startSearch(policyNumber, customerId, query);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        List<Document> vectorHits = await(search.vector(), deadline, "Vector similaritySearch");
+        List<Document> lexicalHits = await(search.lexical(), deadline, "Lexical search");
+
+        List<Document> fused = fuse(List.of(vectorHits, lexicalHits), rrfK, topK);
+        logger.info("Hybrid retrieval: {} vector + {} lexical candidates -> {} chunks in {} ms",
+                vectorHits.size(), lexicalHits.size(), fused.size(), System.currentTimeMillis() - start);
+        return fused;
+    }
+
+    private List<Document> retrieveByCategory(String policyNumber, String customerId, Map<LineItemCategory, List<String>> groups) {
+        long start = System.currentTimeMillis();
+
+        // Submit every group's searches before waiting on any, so they all run concurrently
+        Map<LineItemCategory, PendingSearch> pending = new EnumMap<>(LineItemCategory.class);
+        groups.forEach((category, descriptions) ->
+                pending.put(category, startSearch(policyNumber, customerId, categoryQuery(category, descriptions))));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        List<List<Document>> perCategory = new ArrayList<>();
+        pending.forEach((category, search) -> {
+            List<Document> vectorHits = await(search.vector(), deadline, "Vector similaritySearch [" + category + "]");
+            List<Document> lexicalHits = await(search.lexical(), deadline, "Lexical search [" + category + "]");
+            perCategory.add(fuse(List.of(vectorHits, lexicalHits), rrfK, perCategoryTopK));
+        });
+
+        // Chunks relevant to several groups rise to the top of the union
+        List<Document> merged = bound(fuse(perCategory, rrfK, Integer.MAX_VALUE), maxChunks, maxEvidenceChars);
+        logger.info("Per-category retrieval: {} groups -> {} chunks in {} ms",
+                groups.size(), merged.size(), System.currentTimeMillis() - start);
+        return merged;
+    }
+
+    private PendingSearch startSearch(String policyNumber, String customerId, String query) {
+        if (inMemoryEnabled) {
+            PolicyVectorIndex.PolicySnapshot snapshot = policyVectorIndex.snapshot(policyNumber, customerId);
+            if (snapshot != null) {
+                CompletableFuture<List<Document>> vectorFuture = CompletableFuture.supplyAsync(
+                        () -> snapshot.vectorSearch(embeddingModel.embed(query), candidates), vectorTaskExecutor);
+                List<Document> lexicalHits = lexicalEnabled ? snapshot.lexicalSearch(queryTerms(query), candidates) : List.of();
+                return new PendingSearch(vectorFuture, CompletableFuture.completedFuture(lexicalHits));
+            }
+        }
+
+        CompletableFuture<List<Document>> vectorFuture = CompletableFuture.supplyAsync(
+                () -> policyChunkRepository.searchVector(policyNumber, customerId, embeddingModel.embed(query), candidates),
+                vectorTaskExecutor);
+
+        String tsQuery = toTsQuery(query);
+        CompletableFuture<List<Document>> lexicalFuture = lexicalEnabled && !tsQuery.isEmpty()
+                ? CompletableFuture.supplyAsync(() -> policyChunkRepository.searchLexical(policyNumber, customerId, tsQuery, candidates), vectorTaskExecutor)
+                : CompletableFuture.completedFuture(List.of());
+
+        return new PendingSearch(vectorFuture, lexicalFuture);
+    }
+
+    static String categoryQuery(LineItemCategory category, List<String> descriptions) {
+        String query = category.label() + ": " + String.join(", ", descriptions);
+        return query.length() > MAX_CATEGORY_QUERY_CHARS ? query.substring(0, MAX_CATEGORY_QUERY_CHARS) : query;
+    }
+
+    /**
+     * Keeps ranked documents until the chunk count or total text size is reached; the best one is always kept.
+     */
+    static List<Document> bound(List<Document> ranked, int maxChunks, int maxChars) {
+        List<Document> kept = new ArrayList<>();
+        int chars = 0;
+        for (Document document : ranked) {
+            int length = document.getText() != null ? document.getText().length() : 0;
+            if (kept.size() >= maxChunks || (!kept.isEmpty() && chars + length > maxChars)) {
+                break;
+            }
+            kept.add(document);
+            chars += length;
+        }
+        return kept;
+    }
+
+    /**
+     * Reciprocal Rank Fusion: each document scores {@code sum(1 / (k + rank))} over the rankings it appears in.
+     */
+    static List<Document> fuse(List<List<Document>> rankings, int k, int limit) {
+        Map<String, Document> documents = new LinkedHashMap<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (List<Document> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                Document document = ranking.get(rank);
+                String key = document.getId() != null ? document.getId() : document.getText();
+                documents.putIfAbsent(key, document);
+                scores.merge(key, 1.0 / (k + rank + 1), Double::sum);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(limit)
+                .map(e -> documents.get(e.getKey()).mutate().score(e.getValue()).build())
+                .toList();
+    }
+
+    /**
+     * OR-query of the distinct words in the text; only letters and digits reach {@code to_tsquery}.
+     */
+    static String toTsQuery(String text) {
+        return String.join(" | ", queryTerms(text));
+    }
+
+    static Set<String> queryTerms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        Matcher matcher = TERM.matcher(text);
+        while (matcher.find() && terms.size() < MAX_QUERY_TERMS) {
+            terms.add(matcher.group().toLowerCase(Locale.ROOT));
+        }
+        return terms;
+    }
+
+    private List<Document> await(CompletableFuture<List<Document>> future, long deadline, String name) {
+        try {
+            List<Document> result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return result != null ? result : List.of();
+        } catch (TimeoutException te) {
+            future.cancel(true);
+            logger.info("{} timed out after {}s", name, timeoutSeconds);
+            return List.of();
+        } catch (Exception e) {
+            logger.info("{} failed: {}", name, e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.ai.claim.underwriter.service;
 
 import com.ai.claim.underwriter.model.PolicyMataData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.TextReader;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
@@ -13,21 +15,32 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class PolicyIngestionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PolicyIngestionService.class);
+
     private final VectorStore vectorStore;
     private final ResourceLoader resourceLoader;
+    private final PolicyVectorIndex policyVectorIndex;
+    private final PolicyTermsService policyTermsService;
+    private final DecisionCache decisionCache;
 
-    public PolicyIngestionService(VectorStore vectorStore, ResourceLoader resourceLoader) {
+    public PolicyIngestionService(VectorStore vectorStore, ResourceLoader resourceLoader, PolicyVectorIndex policyVectorIndex,
+                                  PolicyTermsService policyTermsService, DecisionCache decisionCache) {
         this.vectorStore = vectorStore;
         this.resourceLoader = resourceLoader;
+        this.policyVectorIndex = policyVectorIndex;
+        this.policyTermsService = policyTermsService;
+        this.decisionCache = decisionCache;
     }
 
     public String performRAG(MultipartFile file, PolicyMataData metadata){
 
-        // ✅ Add metadata to each chunk BEFORE storing
+        // ✅ Add metadata to each chunk BEFORE storing; policy_chunks derives its indexed
+        // policy_number / customer_id / policy_id columns from these keys
         Map<String, String> meta = Map.of(
                 "policyId", metadata.policyId(),
                 "customerId", metadata.customerId(),
@@ -52,6 +65,19 @@ public class PolicyIngestionService {
         // 3. Embed + save to pgvector (automatic)
         vectorStore.add(chunksWithMeta);
 
+        // 4. Next claim on this policy reloads its chunks into the in-memory index and is adjudicated afresh
+        policyVectorIndex.invalidate(metadata.policyNumber());
+        decisionCache.invalidate(metadata.policyNumber());
+
+        // 5. Extract the benefit terms once, so adjudication does not re-derive them per claim
+        String policyText = documents.stream().map(Document::getText).collect(Collectors.joining("\n"));
+        try {
+            policyTermsService.extractAndStore(metadata.policyNumber(), file.getOriginalFilename(), policyText);
+        } catch (Exception e) {
+            // The chunks are stored; adjudication reads the terms from them until extraction succeeds
+            logger.warn("Policy terms extraction failed for {}: {}", metadata.policyNumber(), e.getMessage());
+        }
+
         return "Policy stored in vector DB. Chunks:"  + chunksWithMeta.size();
     }
 }
@@ -0,0 +1,148 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.entity.Policy;
+import com.ai.claim.underwriter.exception.ClaimProcessingException;
+import com.ai.claim.underwriter.model.PolicyTerms;
+import com.ai.claim.underwriter.repository.PolicyDB;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benefit terms of each policy, extracted once when the policy is ingested.
+ * <p>
+ * Terms are persisted as JSON on the {@code policies} row of the policy number and kept in an LRU cache,
+ * so adjudication reads them instead of asking the model to re-derive copays, deductibles, sub-limits,
+ * exclusions and waiting periods from the evidence chunks on every claim.
+ */
+@Service
+public class PolicyTermsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyTermsService.class);
+    private static final String DEFAULT_VERSION = "1.0";
+
+    private record CachedTerms(PolicyTerms terms, long loadedAt) {
+    }
+
+    private final ChatClient chatClient;
+    private final PolicyDB policyDB;
+    private final ObjectMapper objectMapper;
+    private final Map<String, CachedTerms> cache;
+
+    @Value("classpath:/templates/policyTermsExtractionPrompt.st")
+    Resource policyTermsExtractionPrompt;
+
+    @Value("${claim.policy-terms.max-policy-chars:60000}")
+    private int maxPolicyChars = 60000;
+
+    @Value("${claim.policy-terms.ttl-minutes:60}")
+    private long ttlMinutes = 60;
+
+    public PolicyTermsService(ChatClient.Builder chatClientBuilder, PolicyDB policyDB, ObjectMapper objectMapper,
+                              @Value("${claim.policy-terms.cache-size:1000}") int cacheSize) {
+        this.chatClient = chatClientBuilder.build();
+        this.policyDB = policyDB;
+        this.objectMapper = objectMapper;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedTerms> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Extracts the terms from the full policy text and stores them with the policy, replacing earlier terms.
+     */
+    public PolicyTerms extractAndStore(String policyNumber, String title, String policyText) {
+        long start = System.currentTimeMillis();
+        String text = policyText.length() > maxPolicyChars ? policyText.substring(0, maxPolicyChars) : policyText;
+
+        PolicyTerms terms = chatClient.prompt()
+                .system(policyTermsExtractionPrompt)
+                .user("POLICY DOCUMENT:\n" + text)
+                .options(ChatOptions.builder()
+                        .temperature(0.0)
+                        .build())
+                .call()
+                .entity(PolicyTerms.class);
+        if (terms == null) {
+            terms = PolicyTerms.DEFAULTS;
+        }
+
+        Policy policy = policyDB.findByPolicyCode(policyNumber).orElseGet(Policy::new);
+        policy.setPolicyCode(policyNumber);
+        if (policy.getVersion() == null) {
+            policy.setVersion(DEFAULT_VERSION);
+        }
+        policy.setTitle(title != null && !title.isBlank() ? title : policyNumber);
+        policy.setContentText(policyText);
+        policy.setTerms(toJson(terms));
+        if (policy.getCreatedAt() == null) {
+            policy.setCreatedAt(LocalDateTime.now());
+        }
+        policyDB.save(policy);
+
+        cache.put(policyNumber, new CachedTerms(terms, System.nanoTime()));
+        logger.info("Extracted policy terms for {} in {} ms", policyNumber, System.currentTimeMillis() - start);
+        return terms;
+    }
+
+    /**
+     * Stored terms of the policy, or empty when the policy was ingested before terms were extracted.
+     */
+    public Optional<PolicyTerms> termsFor(String policyNumber) {
+        CachedTerms cached = cache.get(policyNumber);
+        if (cached != null && System.nanoTime() - cached.loadedAt() < TimeUnit.MINUTES.toNanos(ttlMinutes)) {
+            return Optional.of(cached.terms());
+        }
+
+        Optional<PolicyTerms> stored;
+        try {
+            stored = policyDB.findByPolicyCode(policyNumber)
+                    .map(Policy::getTerms)
+                    .flatMap(this::fromJson);
+        } catch (RuntimeException e) {
+            // Adjudication falls back to reading the terms from the evidence chunks
+            logger.warn("Could not load policy terms for {}: {}", policyNumber, e.getMessage());
+            return Optional.empty();
+        }
+        stored.ifPresentOrElse(
+                terms -> cache.put(policyNumber, new CachedTerms(terms, System.nanoTime())),
+                () -> cache.remove(policyNumber));
+        return stored;
+    }
+
+    private String toJson(PolicyTerms terms) {
+        try {
+            return objectMapper.writeValueAsString(terms);
+        } catch (JsonProcessingException e) {
+            throw new ClaimProcessingException("Unable to serialize policy terms", e);
+        }
+    }
+
+    private Optional<PolicyTerms> fromJson(String json) {
+        if (json == null || json.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, PolicyTerms.class));
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable stored policy terms: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
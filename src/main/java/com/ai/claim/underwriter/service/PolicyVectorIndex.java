@@ -0,0 +1,263 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.model.PolicyChunk;
+import com.ai.claim.underwriter.repository.PolicyChunkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * In-process, per-policy vector index for hot policies.
+ * <p>
+ * A policy's chunks are loaded lazily from {@code policy_chunks} on first use and kept in an LRU map,
+ * so later claims on the same policy run an exact top-K (and term matching) in memory instead of a
+ * filtered pgvector query. Entries are dropped on policy ingestion and after a TTL.
+ */
+@Component
+public class PolicyVectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyVectorIndex.class);
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final PolicyChunkRepository policyChunkRepository;
+    private final int maxPolicies;
+    private final long ttlNanos;
+    private final Map<String, PolicySnapshot> snapshots;
+
+    public PolicyVectorIndex(PolicyChunkRepository policyChunkRepository,
+                             @Value("${claim.retrieval.in-memory.max-policies:2000}") int maxPolicies,
+                             @Value("${claim.retrieval.in-memory.ttl-minutes:60}") long ttlMinutes) {
+        this.policyChunkRepository = policyChunkRepository;
+        this.maxPolicies = maxPolicies;
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PolicySnapshot> eldest) {
+                return size() > PolicyVectorIndex.this.maxPolicies;
+            }
+        });
+    }
+
+    /**
+     * Index for the policy/customer pair, loading it on a miss. Null when the policy has no chunks.
+     */
+    public PolicySnapshot snapshot(String policyNumber, String customerId) {
+        String key = key(policyNumber, customerId);
+        PolicySnapshot snapshot = snapshots.get(key);
+        if (snapshot != null && System.nanoTime() - snapshot.loadedAt < ttlNanos) {
+            return snapshot;
+        }
+
+        // Loaded outside the map lock; a concurrent miss may load the same policy twice, which is harmless
+        long start = System.currentTimeMillis();
+        List<PolicyChunk> chunks = policyChunkRepository.findByPolicy(policyNumber, customerId);
+        if (chunks.isEmpty()) {
+            snapshots.remove(key);
+            return null;
+        }
+        snapshot = PolicySnapshot.of(chunks);
+        snapshots.put(key, snapshot);
+        logger.info("Loaded {} chunks for policy {} into the in-memory index in {} ms",
+                chunks.size(), policyNumber, System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    /**
+     * Drops every cached entry of the policy (all customers), e.g. after the policy was re-ingested.
+     */
+    public void invalidate(String policyNumber) {
+        String prefix = policyNumber + "|";
+        synchronized (snapshots) {
+            snapshots.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    int size() {
+        return snapshots.size();
+    }
+
+    private static String key(String policyNumber, String customerId) {
+        return policyNumber + "|" + customerId;
+    }
+
+    /**
+     * Immutable chunk set of one policy. Embeddings are L2-normalized and stored row-major in one flat
+     * array, so cosine similarity is a dot product over a contiguous range.
+     */
+    public static final class PolicySnapshot {
+
+        private final List<PolicyChunk> chunks;
+        private final float[] vectors;
+        private final int dimensions;
+        private final List<Map<String, Integer>> termCounts;
+        private final long loadedAt = System.nanoTime();
+
+        private PolicySnapshot(List<PolicyChunk> chunks, float[] vectors, int dimensions, List<Map<String, Integer>> termCounts) {
+            this.chunks = chunks;
+            this.vectors = vectors;
+            this.dimensions = dimensions;
+            this.termCounts = termCounts;
+        }
+
+        static PolicySnapshot of(List<PolicyChunk> chunks) {
+            int dimensions = chunks.get(0).embedding().length;
+            float[] vectors = new float[chunks.size() * dimensions];
+            List<Map<String, Integer>> termCounts = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                float[] embedding = chunks.get(i).embedding();
+                if (embedding.length == dimensions) {
+                    System.arraycopy(embedding, 0, vectors, i * dimensions, dimensions);
+                    normalize(vectors, i * dimensions, dimensions);
+                }
+                termCounts.add(countTerms(chunks.get(i).content()));
+            }
+            return new PolicySnapshot(List.copyOf(chunks), vectors, dimensions, termCounts);
+        }
+
+        public int size() {
+            return chunks.size();
+        }
+
+        /**
+         * Exact top-K by cosine similarity.
+         */
+        public List<Document> vectorSearch(float[] query, int k) {
+            if (query.length != dimensions) {
+                return List.of();
+            }
+            float[] normalizedQuery = query.clone();
+            normalize(normalizedQuery, 0, dimensions);
+
+            float[] scores = new float[chunks.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = dot(vectors, i * dimensions, normalizedQuery, dimensions);
+            }
+            return topK(scores, k);
+        }
+
+        /**
+         * Term-match ranking: distinct query terms present in the chunk, ties broken by term frequency.
+         * Approximates the Postgres full-text ranking (plural folding instead of stemming).
+         */
+        public List<Document> lexicalSearch(Set<String> terms, int k) {
+            float[] scores = new float[chunks.size()];
+            for (int i = 0; i < scores.length; i++) {
+                Map<String, Integer> counts = termCounts.get(i);
+                int matched = 0;
+                int frequency = 0;
+                for (String term : terms) {
+                    Integer count = counts.get(stem(term));
+                    if (count != null) {
+                        matched++;
+                        frequency += count;
+                    }
+                }
+                scores[i] = matched == 0 ? Float.NEGATIVE_INFINITY : matched + (1f - 1f / (1 + frequency));
+            }
+            return topK(scores, k);
+        }
+
+        private List<Document> topK(float[] scores, int k) {
+            // Chunk counts per policy are small (tens), so a partial selection sort beats a heap here
+            int n = scores.length;
+            int limit = Math.min(k, n);
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            List<Document> result = new ArrayList<>(limit);
+            for (int r = 0; r < limit; r++) {
+                int best = r;
+                for (int j = r + 1; j < n; j++) {
+                    if (scores[order[j]] > scores[order[best]]) {
+                        best = j;
+                    }
+                }
+                int tmp = order[r];
+                order[r] = order[best];
+                order[best] = tmp;
+
+                float score = scores[order[r]];
+                if (score == Float.NEGATIVE_INFINITY) {
+                    break;
+                }
+                PolicyChunk chunk = chunks.get(order[r]);
+                result.add(Document.builder()
+                        .id(chunk.id())
+                        .text(chunk.content())
+                        .metadata(new HashMap<>(chunk.metadata()))
+                        .score((double) score)
+                        .build());
+            }
+            return result;
+        }
+
+        private static Map<String, Integer> countTerms(String content) {
+            Map<String, Integer> counts = new HashMap<>();
+            if (content == null) {
+                return counts;
+            }
+            for (String word : WORD_SEPARATOR.split(content.toLowerCase(Locale.ROOT))) {
+                if (word.length() >= 3) {
+                    counts.merge(stem(word), 1, Integer::sum);
+                }
+            }
+            return counts;
+        }
+
+        // Plural folding only; enough for "charges" to match "charge"
+        private static String stem(String word) {
+            return word.length() > 3 && word.endsWith("s") ? word.substring(0, word.length() - 1) : word;
+        }
+    }
+
+    /**
+     * Dot product over {@code length} floats starting at {@code offset}, with four independent
+     * accumulators so the loop is unrolled and not serialized on a single floating-point add chain.
+     */
+    static float dot(float[] matrix, int offset, float[] query, int length) {
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        int upper = length - (length % 4);
+        for (; i < upper; i += 4) {
+            s0 += matrix[offset + i] * query[i];
+            s1 += matrix[offset + i + 1] * query[i + 1];
+            s2 += matrix[offset + i + 2] * query[i + 2];
+            s3 += matrix[offset + i + 3] * query[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += matrix[offset + i] * query[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static void normalize(float[] vector, int offset, int length) {
+        double sumOfSquares = 0;
+        for (int i = 0; i < length; i++) {
+            sumOfSquares += vector[offset + i] * vector[offset + i];
+        }
+        if (sumOfSquares == 0) {
+            return;
+        }
+        float inverseNorm = (float) (1.0 / Math.sqrt(sumOfSquares));
+        for (int i = 0; i < length; i++) {
+            vector[offset + i] *= inverseNorm;
+        }
+    }
+}
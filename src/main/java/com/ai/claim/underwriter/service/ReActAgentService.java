@@ -3,16 +3,18 @@ package com.ai.claim.underwriter.service;
 import com.ai.claim.underwriter.entity.ClaimDecision;
 import com.ai.claim.underwriter.exception.PolicyNotFoundException;
 import com.ai.claim.underwriter.model.*;
+import com.ai.claim.underwriter.utils.PlannerObservations;
+import com.ai.claim.underwriter.utils.ReActResponseScanner;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,8 +27,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static com.ai.claim.underwriter.utils.AbstractConstant.*;
 
@@ -43,24 +43,43 @@ public class ReActAgentService {
     private final ObjectMapper objectMapper;
     private final ClaimAdjudicationService claimAdjudicationService;
     private final DataBaseOperationService dataBaseOperationService;
+    private final ClaimResultWriter claimResultWriter;
     private final ThreadLocal<String> rawInvoiceText = new ThreadLocal<>();
 
     @Value("classpath:/templates/agentSystemPromptTemplate.st")
     Resource agentSystemPromptTemplate;
 
-    private boolean extractedOnce = false;
+    @Value("${claim.react.memory.max-messages:5}")
+    private int memoryMaxMessages = 5;
+
+    @Value("${claim.react.memory.window-max-tokens:3000}")
+    private int memoryWindowMaxTokens = 3000;
+
+    @Value("${claim.react.memory.observation-max-tokens:400}")
+    private int memoryObservationMaxTokens = 400;
+
+    private final TokenCountEstimator tokenCountEstimator = new JTokkitTokenCountEstimator();
+
+    @Value("${claim.fast-path.enabled:false}")
+    private boolean fastPathEnabled;
+
+    @Value("${claim.fast-path.max-line-items:5}")
+    private int fastPathMaxLineItems;
 
     @Autowired
     @Qualifier("blockingTaskExecutor")
     private Executor blockingTaskExecutor;
 
     private ConcurrentHashMap<String, ClaimEvidence> lastClaimEvidence;
+    // Whether lastClaimEvidence was saved (or queued for the write-behind writer)
+    private boolean lastClaimEvidenceSaved;
 
 
     public ReActAgentService(ChatClient.Builder chatClientBuilder,
                              InvoiceExtractorService extractorService,
                              InvoiceContext invoiceContext,
-                             ObjectMapper objectMapper, ClaimAdjudicationService claimAdjudicationService, DataBaseOperationService dataBaseTools) {
+                             ObjectMapper objectMapper, ClaimAdjudicationService claimAdjudicationService, DataBaseOperationService dataBaseTools,
+                             ClaimResultWriter claimResultWriter) {
 
         this.chatClient = chatClientBuilder.build();
         this.extractorService = extractorService;
@@ -68,6 +87,7 @@ public class ReActAgentService {
         this.objectMapper = objectMapper;
         this.claimAdjudicationService = claimAdjudicationService;
         this.dataBaseOperationService = dataBaseTools;
+        this.claimResultWriter = claimResultWriter;
         lastClaimEvidence = new ConcurrentHashMap<>();
     }
 
@@ -75,18 +95,44 @@ public class ReActAgentService {
      * Process an invoice using the ReAct (Reason + Act) pattern.
      * The agent explicitly reasons about each step before taking action.
      * Returns the final claim processing result with decision, payableAmount, and letter.
+     * Policy evidence retrieval starts speculatively alongside extraction and is joined at adjudication.
+     * A draft decision of an adjudication that was never saved is deleted when processing ends.
      */
     public ClaimProcessingResult processWithReAct(ExtractRequest request, String policyNumber, String patientName) {
         logger.info("=== Claim Processing Started ===");
 
-        List<Message> messages = new ArrayList<>();
+        ClaimAdjudicationService.Speculation speculation =
+                claimAdjudicationService.speculate(policyNumber, patientName, request.invoiceText());
+        try {
+            return runPipeline(request, policyNumber, patientName);
+        } finally {
+            discardUnsavedDraft();
+            claimAdjudicationService.discardSpeculation(request.invoiceText(), speculation);
+        }
+    }
+
+    private ClaimProcessingResult runPipeline(ExtractRequest request, String policyNumber, String patientName) {
 
         // Reset state for new request
         this.lastClaimEvidence = null;
+        this.lastClaimEvidenceSaved = false;
+
+        // Small invoices: try to extract and adjudicate in a single model round-trip. An estimate of 0 means no
+        // amount lines were recognised, so the size is unknown and the invoice takes the full pipeline
+        int estimatedLineItems = fastPathEnabled ? extractorService.estimateLineItemCount(request.invoiceText()) : 0;
+        if (estimatedLineItems > 0 && estimatedLineItems <= fastPathMaxLineItems) {
+            ClaimProcessingResult fastResult = processSinglePass(request.invoiceText(), policyNumber, patientName);
+            if (fastResult != null) {
+                return fastResult;
+            }
+            logger.info("Falling back to ReAct loop");
+        }
+
         rawInvoiceText.set(request.invoiceText());
 
         // Step 1: Initialize conversation history
-        messages.add(new UserMessage(PROCESS_THIS_INVOICE_AND_SAVE_IT_TO_DATABASE + request.invoiceText()));
+        ReActConversationMemory memory = newMemory();
+        memory.start(PROCESS_THIS_INVOICE_AND_SAVE_IT_TO_DATABASE + request.invoiceText());
 
         try {
             // Step 2: Enter the ReAct loop
@@ -94,6 +140,8 @@ public class ReActAgentService {
                 logger.info("\n--- Step {} ---", iteration);
 
                 // Step 3: Get LLM response (Thought + Action OR Final Answer)
+                List<Message> messages = memory.window();
+                logger.info("Step {} prompt: {} messages, ~{} tokens", iteration, messages.size(), memory.lastWindowTokens());
                 String response = chatClient.prompt(new Prompt(messages))
                         .system(agentSystemPromptTemplate)
                         .options(ChatOptions.builder().temperature(0.0).build())
@@ -102,25 +150,15 @@ public class ReActAgentService {
 
                 logger.info("Step {} Response:\n{}", iteration, truncateForLogging(response, 500));
 
+                ReActStep step = ReActResponseScanner.scan(response);
+
                 // Step 4: Check if agent is done
-                if (containsFinalAnswer(response)) {
+                if (step.isFinal()) {
                     logger.info("=== Claim Adjudicated successfully ===");
 
                     // Return the claim decision result (the actual output of the pipeline)
                     if (lastClaimEvidence != null) {
-                        ClaimDecision decision = lastClaimEvidence.get(patientName).claimDecision();
-                        List<String> reasons = parseReasons(decision.getReasons());
-                        JsonNode itemizedDecisions = parseItemizedDecisions(lastClaimEvidence.get(patientName).itemizedDecisions());
-
-                        return ClaimProcessingResult.success(
-                                decision.getClaimId(),
-                                policyNumber,
-                                decision.getDecision(),
-                                decision.getPayableAmount() != null ? decision.getPayableAmount().doubleValue() : null,
-                                reasons,
-                                itemizedDecisions,
-                                decision.getLetter()
-                        );
+                        return buildSuccessResult(policyNumber, patientName);
                     }
 
                     // Fallback: return error if no claim evidence available
@@ -128,12 +166,13 @@ public class ReActAgentService {
                 }
 
                 // Step 5: Parse the action from response
-                ParsedAction action = parseAction(response, policyNumber, patientName);
+                ParsedAction action = step.hasAction()
+                        ? new ParsedAction(step.toolName(), step.parameters(), policyNumber, patientName)
+                        : null;
 
                 if (action == null) {
                     logger.warn(COULD_NOT_PARSE_ACTION_FROM_RESPONSE_ASKING_AGENT_TO_CLARIFY);
-                    messages.add(new AssistantMessage(response != null ? response : ""));
-                    messages.add(new UserMessage("OBSERVATION: I couldn't understand your action. Please use the format: ACTION: tool_name(parameters)"));
+                    memory.addClarification(response, "I couldn't understand your action. Please use the format: ACTION: tool_name(parameters)");
                     continue;
                 }
 
@@ -155,14 +194,10 @@ public class ReActAgentService {
                 assert result != null;
                 logger.info(TOOL_RESULT, result.observation());
 
-                // Step 7: Add to conversation history
-                messages.add(new AssistantMessage(response));
-                // String observation = summarizeObservation(result != null ? result.observation() : null);
-                messages.add(new UserMessage("OBSERVATION: " + result.observation()));
-
-                handleObservation(result.observation(), action.toolName());
+                // Step 7: Add to conversation history (observation is truncated to its token budget)
+                memory.addStep(response, action.toolName(), result.success(), result.observation());
 
-                messages = messageTrimming(messages);
+                handleObservation(result.observation(), action.toolName(), memory);
             }
         } finally {
             rawInvoiceText.remove();
@@ -173,24 +208,62 @@ public class ReActAgentService {
 
         // Return whatever claim decision we have
         if (lastClaimEvidence != null) {
-            ClaimDecision decision = lastClaimEvidence.get(patientName).claimDecision();
-            List<String> reasons = parseReasons(decision.getReasons());
-            JsonNode itemizedDecisions = parseItemizedDecisions(lastClaimEvidence.get(patientName).itemizedDecisions());
-
-            return ClaimProcessingResult.success(
-                    decision.getClaimId(),
-                    policyNumber,
-                    decision.getDecision(),
-                    decision.getPayableAmount() != null ? decision.getPayableAmount().doubleValue() : null,
-                    reasons,
-                    itemizedDecisions,
-                    decision.getLetter()
-            );
+            return buildSuccessResult(policyNumber, patientName);
         }
 
         return ClaimProcessingResult.error("ReAct agent did not complete within " + MAX_ITERATIONS + " iterations");
     }
 
+    /**
+     * Single-call fast path: one model round-trip produces the extracted invoice and the decision,
+     * which are then persisted exactly like the ReAct pipeline does.
+     * Returns null when the output is incomplete so the caller can fall back to the ReAct loop.
+     */
+    private ClaimProcessingResult processSinglePass(String invoiceText, String policyNumber, String patientName) {
+        logger.info("=== Single-call fast path ===");
+        try {
+            CombinedAdjudication combined = claimAdjudicationService.adjudicateCombined(invoiceText, policyNumber, patientName);
+            ExtractedInvoice invoice = combined.invoice();
+            if (invoice.patientName() == null || invoice.patientName().isBlank()
+                    || invoice.lineItems() == null || invoice.lineItems().isEmpty()) {
+                logger.warn("Single-call output is incomplete (patientName or line items missing)");
+                return null;
+            }
+
+            invoiceContext.setLastExtractedInvoice(invoice);
+            ConcurrentHashMap<String, ClaimEvidence> newLastEvidence = new ConcurrentHashMap<>();
+            newLastEvidence.put(patientName, combined.claimEvidence());
+            this.lastClaimEvidence = newLastEvidence;
+
+            ToolResult saved = saveClaimDecisionAndEvidence(patientName);
+            logger.info(TOOL_RESULT, saved.observation());
+
+            return buildSuccessResult(policyNumber, patientName);
+        } catch (PolicyNotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.warn("Single-call fast path failed: {}", e.getMessage());
+            this.lastClaimEvidence = null;
+            return null;
+        }
+    }
+
+    private ClaimProcessingResult buildSuccessResult(String policyNumber, String patientName) {
+        ClaimDecision decision = lastClaimEvidence.get(patientName).claimDecision();
+        List<String> reasons = parseReasons(decision.getReasons());
+        JsonNode itemizedDecisions = parseItemizedDecisions(lastClaimEvidence.get(patientName).itemizedDecisions());
+
+        return ClaimProcessingResult.success(
+                decision.getClaimId(),
+                policyNumber,
+                decision.getDecision(),
+                decision.getPayableAmount() != null ? decision.getPayableAmount().doubleValue() : null,
+                reasons,
+                itemizedDecisions,
+                decision.getLetter()
+        );
+    }
+
     /**
      * Parse reasons from JSON string to List<String>
      */
@@ -233,37 +306,6 @@ public class ReActAgentService {
         return text.substring(0, maxLength) + "\n... [truncated " + (text.length() - maxLength) + " more characters]";
     }
 
-    /**
-     * Check if the response contains a final answer
-     */
-    private boolean containsFinalAnswer(String response) {
-        return response != null && response.toUpperCase().contains("FINAL ANSWER:");
-    }
-
-    /**
-     * Parse the action from the LLM response.
-     * Expected format: ACTION: tool_name(parameters)
-     */
-    private ParsedAction parseAction(String response, String policyNumber, String patientName) {
-        if (response == null) return null;
-
-        // Pattern to match: ACTION: tool_name(anything)
-        Pattern pattern = Pattern.compile(
-                "ACTION:\\s*(\\w+)\\s*\\((.*)\\)",
-                Pattern.CASE_INSENSITIVE | Pattern.DOTALL
-        );
-
-        Matcher matcher = pattern.matcher(response);
-
-        if (matcher.find()) {
-            String toolName = matcher.group(1).toLowerCase().trim();
-            String parameters = matcher.group(2).trim();
-            return new ParsedAction(toolName, parameters, policyNumber, patientName);
-        }
-
-        return null;
-    }
-
     /**
      * Execute a tool and return the observation
      */
@@ -275,12 +317,13 @@ public class ReActAgentService {
                 case "adjudicate" -> {
                     // capture context-bound invoice on the calling thread before moving to executor
                     ExtractedInvoice captured = invoiceContext.getLastExtractedInvoice();
+                    String invoiceText = rawInvoiceText.get();
                     if (captured == null) {
                         // keep behavior: return the usual error synchronously
                         yield adjudicateClaim(action.policyNumber());
                     }
                     // run adjudication off the servlet thread but operate on the captured object
-                    yield runBlockingWithTimeout(() -> adjudicateClaimWithInvoice(captured, action.policyNumber()), 300, "adjudicate");
+                    yield runBlockingWithTimeout(() -> adjudicateClaimWithInvoice(captured, invoiceText, action.policyNumber()), 300, "adjudicate");
                 }
                 case "saveclaimdecision" -> saveClaimDecisionAndEvidence(action.patientName());
                 case "getclaimdecisiondata" -> getClaimDecisionData(action.patientName());
@@ -308,12 +351,8 @@ public class ReActAgentService {
 
             ClaimDecision claimDecision = lastClaimEvidence.get(patientName).claimDecision();
 
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("claimId", claimDecision.getClaimId());
-            result.put("decision", claimDecision.getDecision());
-            result.put("payableAmount", claimDecision.getPayableAmount());
-            result.put("letter", claimDecision.getLetter());
+            // The letter stays in the payload; the planner only needs to know it exists
+            Map<String, Object> result = PlannerObservations.decision(claimDecision);
             result.put("message", "Claim data fetched successfully");
 
             return new ToolResult(true, objectMapper.writeValueAsString(result), claimDecision);
@@ -332,6 +371,22 @@ public class ReActAgentService {
             if (lastClaimEvidence == null || lastClaimEvidence.get(patientName) == null) {
                 return new ToolResult(false, "{\"success\": false, \"error\": \"No claim evidence available. Call adjudicate first.\"}", null);
             }
+            if (captured != null) {
+                // Per-hospital analytics group decisions by the invoice's hospital
+                lastClaimEvidence.get(patientName).claimDecision().setHospitalName(captured.hospitalName());
+            }
+
+            if (claimResultWriter.isEnabled()) {
+                // Persisted by the write-behind stage together with other claims; the claim id is already final
+                ClaimEvidence pending = lastClaimEvidence.get(patientName);
+                claimResultWriter.submit(captured, pending);
+                lastClaimEvidenceSaved = true;
+                Map<String, Object> result = new HashMap<>();
+                result.put("success", true);
+                result.put("claimId", pending.claimDecision().getClaimId());
+                result.put("queued", true);
+                return new ToolResult(true, objectMapper.writeValueAsString(result), pending.claimDecision());
+            }
 
             // Save the invoice first (if not already saved)
             dataBaseOperationService.saveInvoiceData(captured);
@@ -349,6 +404,7 @@ public class ReActAgentService {
             ConcurrentHashMap<String, ClaimEvidence> newLastEvidence = new ConcurrentHashMap<>();
             newLastEvidence.put(patientName, claimEvidence);
             lastClaimEvidence = newLastEvidence;
+            lastClaimEvidenceSaved = true;
 
             // Now save the evidences with the correct decision_id
             dataBaseOperationService.saveIntoClaimEvidenceDB(lastClaimEvidence.get(patientName));
@@ -367,6 +423,24 @@ public class ReActAgentService {
         }
     }
 
+    /**
+     * Keeps a new adjudication for the save and data tools; the draft of a previous, unsaved adjudication of
+     * this claim is deleted.
+     */
+    private void storeAdjudication(String patientName, ClaimEvidence claimEvidence) {
+        discardUnsavedDraft();
+        ConcurrentHashMap<String, ClaimEvidence> newLastEvidence = new ConcurrentHashMap<>();
+        newLastEvidence.put(patientName, claimEvidence);
+        this.lastClaimEvidence = newLastEvidence;
+        this.lastClaimEvidenceSaved = false;
+    }
+
+    private void discardUnsavedDraft() {
+        if (lastClaimEvidence != null && !lastClaimEvidenceSaved) {
+            lastClaimEvidence.values().forEach(evidence -> claimAdjudicationService.discardDraft(evidence.claimDecision()));
+        }
+    }
+
     private ToolResult adjudicateClaim(String policyNumber) {
         logger.info("Executing ADJUDICATE tool");
 
@@ -402,20 +476,20 @@ public class ReActAgentService {
             String summary = summaryBuilder.toString();
             logger.info("Built invoice summary for adjudication:\n{}", summary);
 
-            // Use invoice number hash as claim ID (consistent and unique)
-            long claimId = Math.abs(invoice.invoiceNumber().hashCode());
+            // Claim ID hashed from the submitted invoice text (consistent across retries)
+            long claimId = ClaimAdjudicationService.claimIdFor(rawInvoiceText.get(), invoice);
 
-            ClaimAdjudicationRequest adjudicationRequest = new ClaimAdjudicationRequest(invoice.patientName(), claimId, policyNumber, summary, 5);
+            ClaimAdjudicationRequest adjudicationRequest = new ClaimAdjudicationRequest(invoice.patientName(), claimId, policyNumber, summary, 5,
+                    invoice.lineItems() != null ? invoice.lineItems() : List.of());
 
             // Call the adjudication service
             var claimEvidence = claimAdjudicationService.adjudicate(adjudicationRequest);
 
             // Store for use by saveClaimDecision, saveClaimEvidence, getClaimDecisionData
-            ConcurrentHashMap<String, ClaimEvidence> newLastEvidence = new ConcurrentHashMap<>();
-            newLastEvidence.put(invoice.patientName(), claimEvidence);
-            this.lastClaimEvidence = newLastEvidence;
+            storeAdjudication(invoice.patientName(), claimEvidence);
 
-            return new ToolResult(true, objectMapper.writeValueAsString(claimEvidence), claimEvidence);
+            // Planner sees a compact projection; the full evidence stays in ToolResult.data / lastClaimEvidence
+            return new ToolResult(true, objectMapper.writeValueAsString(PlannerObservations.adjudication(claimEvidence, objectMapper)), claimEvidence);
 
         } catch (Exception e) {
             logger.error("Adjudication failed: {}", e.getMessage(), e);
@@ -479,14 +553,7 @@ public class ReActAgentService {
             }
 
             // Build deterministic result that includes validation info so LLM doesn't re-decide
-            Map<String, Object> result = new HashMap<>();
-            result.put("invoiceNumber", invoice.invoiceNumber());
-            result.put("totalAmount", invoice.totalAmount());
-            result.put("dateOfService", invoice.dateOfService());
-            result.put("patientName", invoice.patientName());
-            result.put("valid", issues.isEmpty());
-
-            String json = objectMapper.writeValueAsString(result);
+            String json = objectMapper.writeValueAsString(PlannerObservations.extraction(invoice, issues));
 
             // store in invoiceContext so subsequent tools can access without relying on LLM params
             try {
@@ -561,39 +628,15 @@ public class ReActAgentService {
         }
     }
 
-    private void handleObservation(String observation, String lastToolName) {
+    private void handleObservation(String observation, String lastToolName, ReActConversationMemory memory) {
         if ("extract".equals(lastToolName) && observation != null && observation.contains("\"valid\":true")) {
-            extractedOnce = true;
+            memory.markInvoiceConsumed();
         }
     }
 
-
-    public List<Message> messageTrimming(List<Message> messages) {
-
-        boolean replaced = false;
-        // keep last up to 5 messages to limit LLM context size
-        if (messages == null) return new ArrayList<>();
-
-        List<Message> trimmed = new ArrayList<>(messages.size());
-
-        for (Message message : messages) {
-            if (!replaced && extractedOnce && message instanceof UserMessage userMessage) {
-                String content = userMessage.getText();
-                if (content != null && content.startsWith("Process this invoice and save it to database:")) {
-                    trimmed.add(new UserMessage(
-                            "Invoice text already provided earlier. Do not ask for it again."
-                    ));
-                    replaced = true;
-                    continue;
-                }
-            }
-            trimmed.add(message);
-        }
-
-        if (trimmed.size() > 5) {
-            return new ArrayList<>(trimmed.subList(trimmed.size() - 5, trimmed.size()));
-        }
-        return trimmed;
+    private ReActConversationMemory newMemory() {
+        return new ReActConversationMemory(tokenCountEstimator, memoryMaxMessages,
+                memoryWindowMaxTokens, memoryObservationMaxTokens);
     }
 
     private <T> T runBlockingWithTimeout(Supplier<T> supplier, long timeoutSeconds, String taskName) {
@@ -611,7 +654,7 @@ public class ReActAgentService {
     }
 
     // add this method in the same class
-    private ToolResult adjudicateClaimWithInvoice(ExtractedInvoice invoice, String policyNumber) {
+    private ToolResult adjudicateClaimWithInvoice(ExtractedInvoice invoice, String invoiceText, String policyNumber) {
         try {
             if (invoice == null) {
                 return new ToolResult(false, "{\"error\": \"No invoice data available for adjudication. Call save first!\"}", null);
@@ -642,19 +685,14 @@ public class ReActAgentService {
 
             String summary = summaryBuilder.toString();
 
-            long claimId = Math.abs(invoice.invoiceNumber().hashCode());
-            ClaimAdjudicationRequest adjudicationRequest = new ClaimAdjudicationRequest(invoice.patientName(), claimId, policyNumber, summary, 5);
+            long claimId = ClaimAdjudicationService.claimIdFor(invoiceText, invoice);
+            ClaimAdjudicationRequest adjudicationRequest = new ClaimAdjudicationRequest(invoice.patientName(), claimId, policyNumber, summary, 5,
+                    invoice.lineItems() != null ? invoice.lineItems() : List.of());
 
             var claimEvidence = claimAdjudicationService.adjudicate(adjudicationRequest);
-            ConcurrentHashMap<String, ClaimEvidence> newLastEvidence = new ConcurrentHashMap<>();
-            newLastEvidence.put(invoice.patientName(), claimEvidence);
-            this.lastClaimEvidence = newLastEvidence;
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("claimId", claimEvidence.claimDecision().getClaimId());
+            storeAdjudication(invoice.patientName(), claimEvidence);
 
-            return new ToolResult(true, objectMapper.writeValueAsString(result), claimEvidence);
+            return new ToolResult(true, objectMapper.writeValueAsString(PlannerObservations.adjudication(claimEvidence, objectMapper)), claimEvidence);
         } catch (Exception e) {
             logger.error("Adjudication failed: {}", e.getMessage(), e);
             return new ToolResult(false, "{\"error\": \"Adjudication failed: " + e.getMessage() + "\"}", null);
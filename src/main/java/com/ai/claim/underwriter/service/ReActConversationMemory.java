@@ -0,0 +1,171 @@
+package com.ai.claim.underwriter.service;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Token-budgeted conversation memory for a single ReAct run.
+ * <p>
+ * The task message stays pinned, tool observations are truncated to a per-message token budget,
+ * and only the most recent THOUGHT/ACTION + OBSERVATION pairs that fit the window budget are sent.
+ * Once tools have run, a compact STATE line records what already happened so dropped steps are not repeated.
+ * Token counts are computed once, when a message is added.
+ */
+public class ReActConversationMemory {
+
+    static final String INVOICE_ALREADY_PROVIDED = "Invoice text already provided earlier. Do not ask for it again.";
+
+    private record Entry(Message message, int tokens) {
+    }
+
+    private final TokenCountEstimator estimator;
+    private final int maxMessages;
+    private final int windowTokenBudget;
+    private final int observationTokenBudget;
+
+    private final List<Entry> history = new ArrayList<>();
+    private final Map<String, String> toolStates = new LinkedHashMap<>();
+    private Entry task;
+    private boolean invoiceConsumed;
+    private int lastWindowTokens;
+
+    public ReActConversationMemory(TokenCountEstimator estimator, int maxMessages,
+                                   int windowTokenBudget, int observationTokenBudget) {
+        this.estimator = estimator;
+        this.maxMessages = maxMessages;
+        this.windowTokenBudget = windowTokenBudget;
+        this.observationTokenBudget = observationTokenBudget;
+    }
+
+    public void start(String taskText) {
+        task = entry(new UserMessage(taskText));
+    }
+
+    /**
+     * Records one executed tool step. The observation is truncated before it enters the history.
+     */
+    public void addStep(String response, String toolName, boolean success, String observation) {
+        toolStates.put(toolName, success ? "ok" : "failed");
+        history.add(entry(new AssistantMessage(response)));
+        history.add(entry(new UserMessage("OBSERVATION: " + truncateObservation(observation))));
+    }
+
+    /**
+     * Records a response without a usable action together with the corrective observation.
+     */
+    public void addClarification(String response, String observation) {
+        history.add(entry(new AssistantMessage(response != null ? response : "")));
+        history.add(entry(new UserMessage("OBSERVATION: " + observation)));
+    }
+
+    /**
+     * After a valid extraction the raw invoice text is no longer needed in the prompt.
+     */
+    public void markInvoiceConsumed() {
+        if (!invoiceConsumed) {
+            invoiceConsumed = true;
+            task = entry(new UserMessage(INVOICE_ALREADY_PROVIDED));
+        }
+    }
+
+    /**
+     * Messages to send on the next model call: pinned task, STATE summary, then recent steps.
+     */
+    public List<Message> window() {
+        List<Message> window = new ArrayList<>();
+        int tokens = 0;
+        if (task != null) {
+            window.add(task.message());
+            tokens += task.tokens();
+        }
+        if (!toolStates.isEmpty()) {
+            Entry state = entry(new UserMessage(stateSummary()));
+            window.add(state.message());
+            tokens += state.tokens();
+        }
+
+        List<Entry> recent = recentEntries(history, maxMessages, windowTokenBudget);
+        // Keep whole assistant/observation pairs so the window never opens with an orphan observation
+        if (recent.size() > 1 && recent.size() % 2 != 0) {
+            recent = recent.subList(1, recent.size());
+        }
+        for (Entry entry : recent) {
+            window.add(entry.message());
+            tokens += entry.tokens();
+        }
+        lastWindowTokens = tokens;
+        return window;
+    }
+
+    /**
+     * Estimated token count of the last window returned by {@link #window()}.
+     */
+    public int lastWindowTokens() {
+        return lastWindowTokens;
+    }
+
+    String stateSummary() {
+        String tools = toolStates.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", "));
+        return "STATE: tools run so far: " + tools
+                + ". Do not repeat a step that is ok; earlier observations may have been dropped.";
+    }
+
+    String truncateObservation(String observation) {
+        if (observation == null) {
+            return "";
+        }
+        int tokens = estimator.estimate(observation);
+        if (tokens <= observationTokenBudget) {
+            return observation;
+        }
+        // Cut proportionally to the token ratio instead of re-encoding repeatedly
+        int keepChars = (int) ((long) observation.length() * observationTokenBudget / tokens);
+        return observation.substring(0, keepChars)
+                + " ... [truncated " + (tokens - observationTokenBudget) + " tokens]";
+    }
+
+    /**
+     * Keeps the most recent messages within the message count and token budget. The newest message is always kept.
+     */
+    public List<Message> trim(List<Message> messages) {
+        if (messages == null) {
+            return new ArrayList<>();
+        }
+        List<Entry> entries = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            entries.add(entry(message));
+        }
+        return recentEntries(entries, maxMessages, windowTokenBudget).stream()
+                .map(Entry::message)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static List<Entry> recentEntries(List<Entry> entries, int maxMessages, int tokenBudget) {
+        int from = entries.size();
+        int tokens = 0;
+        while (from > 0 && entries.size() - from < maxMessages) {
+            int next = tokens + entries.get(from - 1).tokens();
+            if (next > tokenBudget && from < entries.size()) {
+                break;
+            }
+            tokens = next;
+            from--;
+        }
+        return entries.subList(from, entries.size());
+    }
+
+    private Entry entry(Message message) {
+        String text = message.getText();
+        return new Entry(message, text == null ? 0 : estimator.estimate(text));
+    }
+}
@@ -7,6 +7,9 @@ public class AbstractConstant {
     public static final String PAYABLE_AMOUNT = "payableAmount";
     public static final String REASONS = "reasons";
     public static final String LETTER = "letter";
+    public static final String ITEMIZED_DECISIONS = "itemizedDecisions";
+    public static final String POLICY_TERMS = "policyTerms";
+    public static final String DECISION_REUSED_FROM_CACHE = "Coverage classification reused from cached decision of claim ";
     public static final String MISSING_PATIENT_NAME = "Missing patient name";
     public static final String MISSING_INVOICE_NUMBER = "Missing invoice number";
     public static final String INVALID_OR_MISSING_TOTAL_AMOUNT = "Invalid or missing total amount";
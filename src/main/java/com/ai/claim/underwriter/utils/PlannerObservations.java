@@ -0,0 +1,72 @@
+package com.ai.claim.underwriter.utils;
+
+import com.ai.claim.underwriter.entity.ClaimDecision;
+import com.ai.claim.underwriter.model.ClaimEvidence;
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, planner-facing projections of tool results.
+ * <p>
+ * The ReAct planner only needs ids, the decision, amounts, counts and validity flags to choose its next
+ * action. Full payloads (matched documents, evidence chunks, letters) stay server-side in
+ * {@link com.ai.claim.underwriter.model.ToolResult#data()} and are never echoed into the prompt.
+ */
+public final class PlannerObservations {
+
+    private PlannerObservations() {
+    }
+
+    public static Map<String, Object> extraction(ExtractedInvoice invoice, List<String> issues) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("invoiceNumber", invoice.invoiceNumber());
+        result.put("patientName", invoice.patientName());
+        result.put("dateOfService", invoice.dateOfService());
+        result.put("totalAmount", invoice.totalAmount());
+        result.put("lineItems", invoice.lineItems() != null ? invoice.lineItems().size() : 0);
+        result.put("issueCount", issues.size());
+        result.put("valid", issues.isEmpty());
+        return result;
+    }
+
+    public static Map<String, Object> adjudication(ClaimEvidence evidence, ObjectMapper objectMapper) {
+        Map<String, Object> result = decision(evidence.claimDecision());
+
+        int lineItems = 0;
+        int covered = 0;
+        try {
+            JsonNode itemized = evidence.itemizedDecisions() != null
+                    ? objectMapper.readTree(evidence.itemizedDecisions())
+                    : null;
+            if (itemized != null && itemized.isArray()) {
+                lineItems = itemized.size();
+                for (JsonNode item : itemized) {
+                    if (item.path("covered").asBoolean(false)) {
+                        covered++;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // counts are informational only
+        }
+        result.put("lineItems", lineItems);
+        result.put("coveredItems", covered);
+        result.put("evidenceChunks", evidence.evidenceChunks() != null ? evidence.evidenceChunks().size() : 0);
+        return result;
+    }
+
+    public static Map<String, Object> decision(ClaimDecision decision) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("success", true);
+        result.put("claimId", decision.getClaimId());
+        result.put("decision", decision.getDecision());
+        result.put("payableAmount", decision.getPayableAmount());
+        result.put("hasLetter", decision.getLetter() != null && !decision.getLetter().isBlank());
+        return result;
+    }
+}
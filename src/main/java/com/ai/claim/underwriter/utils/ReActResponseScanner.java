@@ -0,0 +1,131 @@
+package com.ai.claim.underwriter.utils;
+
+import com.ai.claim.underwriter.model.ReActStep;
+
+/**
+ * Single-pass scanner for ReAct planner responses.
+ * <p>
+ * Recognizes the THOUGHT / ACTION / FINAL ANSWER sections case-insensitively without
+ * compiling regular expressions or upper-casing a copy of the response: markers are matched
+ * in place and only the captured sections are materialized as strings.
+ */
+public final class ReActResponseScanner {
+
+    private static final String THOUGHT = "THOUGHT:";
+    private static final String ACTION = "ACTION:";
+    private static final String FINAL_ANSWER = "FINAL ANSWER:";
+
+    private ReActResponseScanner() {
+    }
+
+    public static ReActStep scan(String response) {
+        if (response == null || response.isEmpty()) {
+            return ReActStep.EMPTY;
+        }
+
+        int length = response.length();
+        int thoughtStart = -1;
+        int actionMarker = -1;
+        int finalMarker = -1;
+        String toolName = null;
+        String parameters = null;
+
+        // Every marker ends with ':', so jump between colons (an intrinsified indexOf)
+        // and only compare the marker text that would end at each one
+        int colon = response.indexOf(':');
+        while (colon >= 0) {
+            int next = colon + 1;
+            if (thoughtStart < 0 && endsWithMarker(response, colon, THOUGHT)) {
+                thoughtStart = next;
+            } else if (toolName == null && endsWithMarker(response, colon, ACTION)) {
+                int[] bounds = parseAction(response, next);
+                if (bounds != null) {
+                    actionMarker = next - ACTION.length();
+                    toolName = response.substring(bounds[0], bounds[1]).toLowerCase();
+                    parameters = response.substring(bounds[2], bounds[3]).trim();
+                    next = bounds[3] + 1;
+                }
+            } else if (endsWithMarker(response, colon, FINAL_ANSWER)) {
+                // Everything after the final answer marker belongs to the answer
+                finalMarker = next - FINAL_ANSWER.length();
+                break;
+            }
+            colon = next < length ? response.indexOf(':', next) : -1;
+        }
+
+        String thought = null;
+        if (thoughtStart >= 0) {
+            int end = length;
+            if (actionMarker > thoughtStart) {
+                end = actionMarker;
+            }
+            if (finalMarker > thoughtStart && finalMarker < end) {
+                end = finalMarker;
+            }
+            thought = response.substring(thoughtStart, end).trim();
+        }
+
+        String finalAnswer = finalMarker >= 0
+                ? response.substring(finalMarker + FINAL_ANSWER.length()).trim()
+                : null;
+
+        return new ReActStep(thought, toolName, parameters, finalAnswer);
+    }
+
+    /**
+     * Parses {@code tool_name(parameters)} starting right after an ACTION marker.
+     *
+     * @return {nameStart, nameEnd, paramsStart, paramsEnd} or null when the marker is not followed by a call
+     */
+    private static int[] parseAction(String response, int from) {
+        int length = response.length();
+        int i = skipWhitespace(response, from);
+
+        int nameStart = i;
+        while (i < length && isWordChar(response.charAt(i))) {
+            i++;
+        }
+        if (i == nameStart) {
+            return null;
+        }
+        int nameEnd = i;
+
+        i = skipWhitespace(response, i);
+        if (i >= length || response.charAt(i) != '(') {
+            return null;
+        }
+        int paramsStart = i + 1;
+
+        // Balanced match so text after the call (e.g. "(see above)") is not swallowed
+        int depth = 1;
+        for (int j = paramsStart; j < length; j++) {
+            char c = response.charAt(j);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return new int[]{nameStart, nameEnd, paramsStart, j};
+            }
+        }
+
+        // Unbalanced parameters: fall back to the last closing parenthesis, if any
+        int lastClose = response.lastIndexOf(')');
+        return lastClose >= paramsStart ? new int[]{nameStart, nameEnd, paramsStart, lastClose} : null;
+    }
+
+    private static boolean endsWithMarker(String response, int colon, String marker) {
+        int start = colon + 1 - marker.length();
+        return start >= 0 && response.regionMatches(true, start, marker, 0, marker.length());
+    }
+
+    private static int skipWhitespace(String response, int from) {
+        int i = from;
+        while (i < response.length() && Character.isWhitespace(response.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
@@ -0,0 +1,186 @@
+package com.ai.claim.underwriter.utils;
+
+import com.ai.claim.underwriter.exception.ClaimProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static com.ai.claim.underwriter.utils.AbstractConstant.*;
+
+/**
+ * Incremental parser for the adjudication model's JSON output, fed chunk by chunk as the response streams in.
+ * <p>
+ * Built on Jackson's non-blocking parser: text before the root object other than a code fence, a top-level
+ * field of the wrong type or a non-object itemized decision fails on the chunk that reveals it, so the caller
+ * can abort the stream instead of waiting for the whole completion. Top-level fields become available as soon
+ * as their value is complete; anything after the root object (a closing fence) is ignored.
+ */
+public final class StreamingAdjudicationParser {
+
+    private static final String CODE_FENCE = "```json";
+
+    private static final Map<String, Set<JsonToken>> EXPECTED_TOKENS = Map.of(
+            POLICY_TERMS, Set.of(JsonToken.START_OBJECT, JsonToken.VALUE_NULL),
+            ITEMIZED_DECISIONS, Set.of(JsonToken.START_ARRAY),
+            REASONS, Set.of(JsonToken.START_ARRAY, JsonToken.VALUE_NULL),
+            LETTER, Set.of(JsonToken.VALUE_STRING, JsonToken.VALUE_NULL));
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final ObjectNode fields;
+    private final StringBuilder preamble = new StringBuilder();
+
+    private boolean started;
+    private boolean complete;
+    private int depth;
+    private String currentField;
+    private TokenBuffer currentValue;
+
+    public StreamingAdjudicationParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.fields = objectMapper.createObjectNode();
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new ClaimProcessingException("Unable to create streaming JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Parses the next chunk of the response.
+     *
+     * @return names of the top-level fields whose values were completed by this chunk
+     * @throws ClaimProcessingException when the output can no longer become a valid adjudication object
+     */
+    public List<String> feed(String chunk) {
+        if (complete || chunk == null || chunk.isEmpty()) {
+            return List.of();
+        }
+        String text = chunk;
+        if (!started) {
+            preamble.append(chunk);
+            int brace = preamble.indexOf("{");
+            checkPreamble(brace < 0 ? preamble : preamble.subSequence(0, brace));
+            if (brace < 0) {
+                return List.of();
+            }
+            text = preamble.substring(brace);
+            started = true;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            return drain();
+        } catch (IOException e) {
+            throw new ClaimProcessingException("Malformed adjudication output: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Signals the end of the stream.
+     *
+     * @return the complete adjudication object
+     * @throws ClaimProcessingException when the stream ended before the root object was closed
+     */
+    public ObjectNode finish() {
+        if (!complete) {
+            feeder.endOfInput();
+            try {
+                drain();
+            } catch (IOException e) {
+                throw new ClaimProcessingException("Adjudication output ended before the JSON object was complete: "
+                        + e.getMessage(), e);
+            }
+        }
+        if (!complete) {
+            throw new ClaimProcessingException("Adjudication output ended before the JSON object was complete");
+        }
+        return fields;
+    }
+
+    /**
+     * Top-level fields completed so far.
+     */
+    public ObjectNode fields() {
+        return fields;
+    }
+
+    private List<String> drain() throws IOException {
+        List<String> completed = new ArrayList<>(2);
+        JsonToken token;
+        while (!complete && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (depth == 0) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new ClaimProcessingException("Adjudication output is not a JSON object");
+                }
+                depth = 1;
+                continue;
+            }
+            if (depth == 1) {
+                if (token == JsonToken.END_OBJECT) {
+                    depth = 0;
+                    complete = true;
+                } else if (token == JsonToken.FIELD_NAME) {
+                    currentField = parser.currentName();
+                } else {
+                    startValue(token);
+                    if (depth == 1) {
+                        completed.add(completeValue());
+                    }
+                }
+                continue;
+            }
+
+            if (depth == 2 && ITEMIZED_DECISIONS.equals(currentField)
+                    && token != JsonToken.START_OBJECT && token != JsonToken.END_ARRAY) {
+                throw new ClaimProcessingException("Itemized decision is not a JSON object: " + parser.getText());
+            }
+            currentValue.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == 1) {
+                completed.add(completeValue());
+            }
+        }
+        return completed;
+    }
+
+    private void startValue(JsonToken token) throws IOException {
+        Set<JsonToken> expected = EXPECTED_TOKENS.get(currentField);
+        if (expected != null && !expected.contains(token)) {
+            throw new ClaimProcessingException("Unexpected " + token + " for field " + currentField);
+        }
+        currentValue = new TokenBuffer(parser);
+        currentValue.copyCurrentEvent(parser);
+        if (token.isStructStart()) {
+            depth++;
+        }
+    }
+
+    private String completeValue() throws IOException {
+        String name = currentField;
+        fields.set(name, objectMapper.readTree(currentValue.asParser(objectMapper)));
+        currentValue = null;
+        return name;
+    }
+
+    private static void checkPreamble(CharSequence text) {
+        String preambleText = text.toString().strip().toLowerCase(Locale.ROOT);
+        if (!CODE_FENCE.startsWith(preambleText)) {
+            throw new ClaimProcessingException("Adjudication output does not start with a JSON object");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+-- Baseline schema of the application.
+-- Idempotent on purpose: with spring.flyway.baseline-version 0 it also runs once on databases created before
+-- migrations (by initdb-scripts and Hibernate's ddl-auto update) and adds whatever they are missing.
+
+CREATE EXTENSION IF NOT EXISTS vector;
+
+-- Policy chunks of the pgvector store; the dimension follows spring.ai.vectorstore.pgvector.dimensions
+CREATE TABLE IF NOT EXISTS policy_chunks (
+    id UUID PRIMARY KEY,
+    content TEXT NOT NULL,
+    metadata JSON,
+    embedding VECTOR(${vector-dimensions}) NOT NULL
+);
+
+-- Typed copies of the metadata written at ingestion, used for filtered retrieval
+ALTER TABLE policy_chunks ADD COLUMN IF NOT EXISTS policy_number TEXT GENERATED ALWAYS AS (metadata->>'policyNumber') STORED;
+ALTER TABLE policy_chunks ADD COLUMN IF NOT EXISTS customer_id TEXT GENERATED ALWAYS AS (metadata->>'customerId') STORED;
+ALTER TABLE policy_chunks ADD COLUMN IF NOT EXISTS policy_id TEXT GENERATED ALWAYS AS (metadata->>'policyId') STORED;
+
+CREATE INDEX IF NOT EXISTS policy_chunks_policy_customer_idx ON policy_chunks (policy_number, customer_id) WHERE policy_number IS NOT NULL;
+CREATE INDEX IF NOT EXISTS policy_chunks_policy_id_idx ON policy_chunks (policy_id) WHERE policy_id IS NOT NULL;
+
+-- HNSW index for cosine similarity (the vector store uses vector_cosine_ops)
+CREATE INDEX IF NOT EXISTS policy_chunks_index ON policy_chunks USING hnsw (embedding vector_cosine_ops);
+
+-- Full-text index for hybrid (lexical + vector) policy evidence retrieval
+CREATE INDEX IF NOT EXISTS policy_chunks_content_fts_idx ON policy_chunks USING gin (to_tsvector('english', content));
+
+CREATE TABLE IF NOT EXISTS claim_decisions (
+    id BIGSERIAL PRIMARY KEY,
+    claim_id BIGINT NOT NULL,
+    decision VARCHAR(30) NOT NULL,          -- APPROVED / PARTIAL / DENIED / NEEDS_INFO
+    payable_amount NUMERIC(10,2),
+    reasons JSONB,
+    letter TEXT,
+    created_at TIMESTAMPTZ DEFAULT now()
+);
+
+ALTER TABLE claim_decisions ADD COLUMN IF NOT EXISTS policy_number VARCHAR(50);
+ALTER TABLE claim_decisions ADD COLUMN IF NOT EXISTS adjudication_source VARCHAR(20);  -- LLM / CACHE_EXACT / CACHE_SIMILAR
+ALTER TABLE claim_decisions ADD COLUMN IF NOT EXISTS source_claim_id BIGINT;          -- claim whose cached classification was reused
+
+-- Lookups by claim (latest decision, letter updates, write-behind replay)
+CREATE INDEX IF NOT EXISTS claim_decisions_claim_idx ON claim_decisions (claim_id, created_at DESC, id DESC);
+
+-- Keyset pagination of GET /claims/decisions, newest first, optionally per policy
+CREATE INDEX IF NOT EXISTS claim_decisions_created_idx ON claim_decisions (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS claim_decisions_policy_created_idx ON claim_decisions (policy_number, created_at DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS claim_decision_evidence (
+    id BIGSERIAL PRIMARY KEY,
+    decision_id BIGINT NOT NULL,            -- claim_decisions(id)
+    chunk_text TEXT,
+    score NUMERIC(10,6),
+    created_at TIMESTAMPTZ DEFAULT now()
+);
+
+-- Evidence references its policy_chunks row and rank; chunk_text is kept only for evidence without a chunk row
+ALTER TABLE claim_decision_evidence ADD COLUMN IF NOT EXISTS chunk_id UUID;
+ALTER TABLE claim_decision_evidence ADD COLUMN IF NOT EXISTS rank INT;
+ALTER TABLE claim_decision_evidence ALTER COLUMN chunk_text DROP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS claim_decision_evidence_decision_idx ON claim_decision_evidence (decision_id, rank);
+
+CREATE TABLE IF NOT EXISTS claim_ai_result (
+    id SERIAL PRIMARY KEY,
+    patient_name VARCHAR(100),
+    policy_number VARCHAR(50),
+    hospital_name VARCHAR(150),
+    invoice_number VARCHAR(50),
+    total_amount NUMERIC(10,2),
+    currency VARCHAR(10),
+    confidence_score NUMERIC(3,2),
+    ai_status VARCHAR(20),
+    ai_output JSONB,
+    created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT now()
+);
+
+-- Entity ids are drawn 50 at a time (pooled optimizer), which lets Hibernate batch inserts
+ALTER SEQUENCE IF EXISTS claim_decisions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS claim_decision_evidence_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS claim_ai_result_id_seq INCREMENT BY 50;
+
+-- Successful claim results by Idempotency-Key (or request fingerprint), returned to repeated requests
+CREATE TABLE IF NOT EXISTS claim_idempotency (
+    idempotency_key VARCHAR(128) PRIMARY KEY,
+    request_fingerprint VARCHAR(64) NOT NULL,  -- SHA-256 of policy, patient and normalized invoice text
+    claim_id BIGINT,
+    policy_number VARCHAR(50),
+    result JSONB NOT NULL,                     -- ClaimProcessingResult
+    created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS policies (
+    policy_id      BIGSERIAL PRIMARY KEY,
+    policy_code    TEXT UNIQUE NOT NULL,     -- e.g. 'NSC-CS-POL-001'
+    version        TEXT NOT NULL,            -- e.g. '1.0'
+    title          TEXT NOT NULL,
+    effective_date DATE,
+    content_text   TEXT NOT NULL,            -- full markdown/text
+    created_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+ALTER TABLE policies ADD COLUMN IF NOT EXISTS terms JSONB;  -- PolicyTerms extracted at ingestion
+
+CREATE TABLE IF NOT EXISTS helpdesk_tickets (
+    id BIGSERIAL PRIMARY KEY,
+    customer_name VARCHAR(255) NOT NULL,
+    issue_description TEXT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    priority VARCHAR(50) NOT NULL,
+    assigned_to VARCHAR(255),
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    eta TIMESTAMP WITHOUT TIME ZONE
+);
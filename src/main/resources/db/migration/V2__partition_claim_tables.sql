@@ -0,0 +1,55 @@
+-- Converts the unpartitioned claim_decisions, claim_decision_evidence and claim_ai_result tables to monthly
+-- range partitions on created_at.
+-- Existing rows are not copied: each non-empty old table is attached as the "<table>_legacy" partition covering
+-- everything before next month (empty ones are dropped), and PartitionMaintenanceService creates the monthly
+-- partitions from then on.
+DO $$
+DECLARE
+    t text;
+    fk record;
+    has_rows boolean;
+    cutover date := (date_trunc('month', now()) + interval '1 month')::date;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid
+               WHERE c.relname = 'claim_decisions' AND pg_table_is_visible(c.oid)) THEN
+        RAISE NOTICE 'claim tables are already partitioned';
+        RETURN;
+    END IF;
+
+    -- A foreign key to a partitioned table must include the partition key; evidence keeps decision_id without one
+    FOR fk IN SELECT conname FROM pg_constraint
+              WHERE conrelid = 'claim_decision_evidence'::regclass AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE claim_decision_evidence DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+
+    -- Index names are per schema; the partitioned indexes below reuse these names
+    ALTER INDEX IF EXISTS claim_decisions_claim_idx RENAME TO claim_decisions_legacy_claim_idx;
+    ALTER INDEX IF EXISTS claim_decisions_created_idx RENAME TO claim_decisions_legacy_created_idx;
+    ALTER INDEX IF EXISTS claim_decisions_policy_created_idx RENAME TO claim_decisions_legacy_policy_created_idx;
+    ALTER INDEX IF EXISTS claim_decision_evidence_decision_idx RENAME TO claim_decision_evidence_legacy_decision_idx;
+
+    FOREACH t IN ARRAY ARRAY['claim_decisions', 'claim_decision_evidence', 'claim_ai_result'] LOOP
+        EXECUTE format('UPDATE %I SET created_at = now() WHERE created_at IS NULL', t);
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', t, t || '_legacy');
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', t || '_legacy', t || '_pkey');
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN created_at SET NOT NULL', t || '_legacy');
+        EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS) PARTITION BY RANGE (created_at)', t, t || '_legacy');
+        EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (id, created_at)', t);
+        -- Keep the id sequence when the legacy partition is archived or dropped
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', t || '_id_seq', t);
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I)', t || '_legacy') INTO has_rows;
+        IF has_rows THEN
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)', t, t || '_legacy', cutover);
+        ELSE
+            -- Nothing to keep; monthly partitions of the current month would overlap the legacy range
+            EXECUTE format('DROP TABLE %I', t || '_legacy');
+        END IF;
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', t || '_default', t);
+    END LOOP;
+END $$;
+
+-- Partitioned indexes; matching indexes on the partitions are created or attached
+CREATE INDEX IF NOT EXISTS claim_decisions_claim_idx ON claim_decisions (claim_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS claim_decisions_created_idx ON claim_decisions (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS claim_decisions_policy_created_idx ON claim_decisions (policy_number, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS claim_decision_evidence_decision_idx ON claim_decision_evidence (decision_id, rank);
@@ -0,0 +1,32 @@
+-- Hospital of the claim's invoice, for per-hospital analytics
+ALTER TABLE claim_decisions ADD COLUMN IF NOT EXISTS hospital_name VARCHAR(150);
+
+-- Daily rollups of claim decisions by hospital and policy, recomputed for recent days by ClaimAnalyticsService.
+-- Each claim counts once per day with its latest decision; an unknown hospital or policy is stored as ''.
+CREATE TABLE IF NOT EXISTS claim_daily_stats (
+    day DATE NOT NULL,
+    hospital_name VARCHAR(150) NOT NULL,
+    policy_number VARCHAR(50) NOT NULL,
+    claims INT NOT NULL,
+    approved INT NOT NULL,
+    partial INT NOT NULL,
+    denied INT NOT NULL,
+    needs_info INT NOT NULL,
+    payable_total NUMERIC(14,2) NOT NULL,
+    payable_claims INT NOT NULL,            -- claims with a payable amount, the denominator of the average
+    refreshed_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (day, hospital_name, policy_number)
+);
+
+CREATE INDEX IF NOT EXISTS claim_daily_stats_hospital_idx ON claim_daily_stats (hospital_name, day);
+CREATE INDEX IF NOT EXISTS claim_daily_stats_policy_idx ON claim_daily_stats (policy_number, day);
+
+-- Reasons of DENIED and PARTIAL decisions, counted in claims
+CREATE TABLE IF NOT EXISTS claim_daily_denial_reasons (
+    day DATE NOT NULL,
+    hospital_name VARCHAR(150) NOT NULL,
+    policy_number VARCHAR(50) NOT NULL,
+    reason VARCHAR(500) NOT NULL,
+    claims INT NOT NULL,
+    PRIMARY KEY (day, hospital_name, policy_number, reason)
+);
@@ -0,0 +1,6 @@
+-- Reasons of the claim's uncovered line items, which the denial-reason rollup counts instead of every entry of
+-- reasons (those also hold covered-item and copay/deductible lines)
+ALTER TABLE claim_decisions ADD COLUMN IF NOT EXISTS denial_reasons JSONB;
+
+-- Rows rolled up from reasons are wrong and cannot be recomputed (line items of older decisions were not stored)
+DELETE FROM claim_daily_denial_reasons;
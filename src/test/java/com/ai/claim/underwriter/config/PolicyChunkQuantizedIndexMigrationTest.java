@@ -0,0 +1,84 @@
+package com.ai.claim.underwriter.config;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class PolicyChunkQuantizedIndexMigrationTest {
+
+    @Test
+    void migrate_withHalfQuantization_createsHalfPrecisionIndex() throws Exception {
+        // Arrange
+        Statement statement = mock(Statement.class);
+        Context context = contextWith(statement);
+
+        // Act
+        new PolicyChunkQuantizedIndexMigration("half", 768).migrate(context);
+
+        // Assert
+        InOrder inOrder = inOrder(statement);
+        inOrder.verify(statement).execute("DROP INDEX IF EXISTS policy_chunks_embedding_half_idx");
+        inOrder.verify(statement).execute(contains("USING hnsw ((embedding::halfvec(768)) halfvec_cosine_ops)"));
+    }
+
+    @Test
+    void migrate_withoutQuantization_dropsQuantizedIndexesAndCreatesNone() throws Exception {
+        // Arrange
+        Statement statement = mock(Statement.class);
+        Context context = contextWith(statement);
+
+        // Act
+        new PolicyChunkQuantizedIndexMigration("none", 1536).migrate(context);
+
+        // Assert
+        verify(statement).execute("DROP INDEX IF EXISTS policy_chunks_embedding_half_idx");
+        verify(statement).execute("DROP INDEX IF EXISTS policy_chunks_embedding_binary_idx");
+        verify(statement, never()).execute(startsWith("CREATE"));
+    }
+
+    @Test
+    void migrate_whenIndexCannotBeCreated_failsMigration() throws Exception {
+        // Arrange
+        Statement statement = mock(Statement.class);
+        when(statement.execute(startsWith("CREATE"))).thenThrow(new SQLException("type \"halfvec\" does not exist"));
+        Context context = contextWith(statement);
+
+        // Act & Assert
+        assertThatThrownBy(() -> new PolicyChunkQuantizedIndexMigration("half", 768).migrate(context))
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("halfvec");
+    }
+
+    @Test
+    void checksum_changesWithModeAndDimensions() {
+        // Arrange
+        PolicyChunkQuantizedIndexMigration half768 = new PolicyChunkQuantizedIndexMigration("half", 768);
+
+        // Act & Assert
+        assertThat(half768.getVersion()).isNull();
+        assertThat(half768.canExecuteInTransaction()).isFalse();
+        assertThat(half768.getChecksum())
+                .isEqualTo(new PolicyChunkQuantizedIndexMigration("half", 768).getChecksum())
+                .isNotEqualTo(new PolicyChunkQuantizedIndexMigration("half", 1536).getChecksum())
+                .isNotEqualTo(new PolicyChunkQuantizedIndexMigration("binary", 768).getChecksum())
+                .isNotEqualTo(new PolicyChunkQuantizedIndexMigration("none", 768).getChecksum());
+    }
+
+    private static Context contextWith(Statement statement) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        Context context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+        return context;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ai.claim.underwriter.controller;
+
+import com.ai.claim.underwriter.model.ClaimDailyStats;
+import com.ai.claim.underwriter.model.DenialReasonCount;
+import com.ai.claim.underwriter.service.ClaimAnalyticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimAnalyticsControllerTest {
+
+    @Mock
+    private ClaimAnalyticsService claimAnalyticsService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ClaimAnalyticsController(claimAnalyticsService)).build();
+    }
+
+    @Test
+    void dailyStats_passesRangeFiltersAndGrouping() throws Exception {
+        // Arrange
+        ClaimDailyStats stats = new ClaimDailyStats(LocalDate.of(2024, 3, 1), "City Hospital", null, 4, 3, 0, 1, 0,
+                0.75, new BigDecimal("1000.00"), new BigDecimal("333.33"));
+        when(claimAnalyticsService.dailyStats(any(), any(), any(), any(), any())).thenReturn(List.of(stats));
+
+        // Act & Assert
+        mockMvc.perform(get("/analytics/claims/daily")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-07")
+                        .param("hospital", "City Hospital")
+                        .param("groupBy", "hospital"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].hospitalName").value("City Hospital"))
+                .andExpect(jsonPath("$[0].approvalRate").value(0.75))
+                .andExpect(jsonPath("$[0].averagePayable").value(333.33));
+
+        verify(claimAnalyticsService).dailyStats(eq(LocalDate.of(2024, 3, 1)), eq(LocalDate.of(2024, 3, 7)),
+                eq("City Hospital"), isNull(), eq(List.of("hospital")));
+    }
+
+    @Test
+    void dailyStats_withoutRange_returnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/analytics/claims/daily").param("from", "2024-03-01"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(claimAnalyticsService);
+    }
+
+    @Test
+    void denialReasons_returnsCounts() throws Exception {
+        // Arrange
+        when(claimAnalyticsService.denialReasons(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(new DenialReasonCount("Cosmetic procedure excluded", 5)));
+
+        // Act & Assert
+        mockMvc.perform(get("/analytics/claims/denial-reasons")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-31")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].reason").value("Cosmetic procedure excluded"))
+                .andExpect(jsonPath("$[0].claims").value(5));
+
+        verify(claimAnalyticsService).denialReasons(eq(LocalDate.of(2024, 3, 1)), eq(LocalDate.of(2024, 3, 31)),
+                isNull(), isNull(), eq(10));
+    }
+}
@@ -1,8 +1,13 @@
 package com.ai.claim.underwriter.controller;
 
+import com.ai.claim.underwriter.entity.ClaimIdempotency;
 import com.ai.claim.underwriter.exception.FileProcessingException;
 import com.ai.claim.underwriter.model.ClaimProcessingResult;
+import com.ai.claim.underwriter.model.DecisionLetter;
 import com.ai.claim.underwriter.model.ExtractRequest;
+import com.ai.claim.underwriter.repository.ClaimIdempotencyDB;
+import com.ai.claim.underwriter.service.ClaimIdempotencyService;
+import com.ai.claim.underwriter.service.DecisionLetterService;
 import com.ai.claim.underwriter.service.ReActAgentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,15 +37,22 @@ class ClaimControllerTest {
     @Mock
     private ReActAgentService reActAgentService;
 
+    @Mock
+    private DecisionLetterService decisionLetterService;
+
+    @Mock
+    private ClaimIdempotencyDB claimIdempotencyDB;
+
     private ClaimController controller;
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
-        controller = new ClaimController(reActAgentService);
-        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
         objectMapper = new ObjectMapper();
+        controller = new ClaimController(reActAgentService, decisionLetterService,
+                new ClaimIdempotencyService(claimIdempotencyDB, objectMapper));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
     @Test
@@ -80,6 +92,34 @@ class ClaimControllerTest {
         verify(reActAgentService).processWithReAct(any(ExtractRequest.class), eq(policyNumber), eq(userName));
     }
 
+    @Test
+    void processWithReAct_withIdempotencyKey_storesResultUnderKey() throws Exception {
+        // Arrange
+        ExtractRequest request = new ExtractRequest("Invoice text content");
+        ClaimProcessingResult expectedResult = ClaimProcessingResult.success(
+                12345L, "POL-12345", "APPROVED", 1500.0, java.util.List.of("Covered service"),
+                objectMapper.createArrayNode(), "Claim approved");
+        when(reActAgentService.processWithReAct(any(ExtractRequest.class), anyString(), anyString()))
+                .thenReturn(expectedResult);
+
+        // Act
+        mockMvc.perform(post("/claims/process-react")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .param("policyNumber", "POL-12345")
+                        .param("userName", "john.doe")
+                        .header("Idempotency-Key", "retry-key-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.claimId").value(12345L));
+
+        // Assert
+        verify(claimIdempotencyDB, times(2)).findById("retry-key-1");
+        ArgumentCaptor<ClaimIdempotency> captor = ArgumentCaptor.forClass(ClaimIdempotency.class);
+        verify(claimIdempotencyDB).save(captor.capture());
+        assertThat(captor.getValue().getIdempotencyKey()).isEqualTo("retry-key-1");
+        assertThat(captor.getValue().getClaimId()).isEqualTo(12345L);
+    }
+
     @Test
     void processClaimFile_withPdfFile_processesSuccessfully() throws Exception {
         // Arrange - Use text file instead of PDF to avoid PDF parsing issues in tests
@@ -173,7 +213,7 @@ class ClaimControllerTest {
         String patientName = "Test Patient";
 
         // Act & Assert
-        assertThatThrownBy(() -> controller.processClaimFile(unsupportedFile, policyNumber, patientName))
+        assertThatThrownBy(() -> controller.processClaimFile(unsupportedFile, policyNumber, patientName, null))
                 .isInstanceOf(FileProcessingException.class)
                 .hasMessageContaining("Unsupported file type");
 
@@ -193,7 +233,7 @@ class ClaimControllerTest {
                 .thenReturn(expectedResult);
 
         // Act
-        ClaimProcessingResult result = controller.processWithReAct(request, policyNumber, userName);
+        ClaimProcessingResult result = controller.processWithReAct(request, policyNumber, userName, null);
 
         // Assert
         verify(reActAgentService).processWithReAct(request, policyNumber, userName);
@@ -253,4 +293,37 @@ class ClaimControllerTest {
     }
 
 
+
+    @Test
+    void getLetter_whenReady_returnsLetter() throws Exception {
+        // Arrange
+        when(decisionLetterService.letterFor(42L)).thenReturn(new DecisionLetter(42L, DecisionLetter.READY, "Dear John"));
+
+        // Act & Assert
+        mockMvc.perform(get("/claims/42/letter"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("READY"))
+                .andExpect(jsonPath("$.letter").value("Dear John"));
+    }
+
+    @Test
+    void getLetter_whilePending_returnsAccepted() throws Exception {
+        // Arrange
+        when(decisionLetterService.letterFor(42L)).thenReturn(new DecisionLetter(42L, DecisionLetter.PENDING, null));
+
+        // Act & Assert
+        mockMvc.perform(get("/claims/42/letter"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void getLetter_unknownClaim_returnsNotFound() throws Exception {
+        // Arrange
+        when(decisionLetterService.letterFor(7L)).thenReturn(new DecisionLetter(7L, DecisionLetter.NOT_FOUND, null));
+
+        // Act & Assert
+        mockMvc.perform(get("/claims/7/letter"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,70 @@
+package com.ai.claim.underwriter.controller;
+
+import com.ai.claim.underwriter.model.ClaimDecisionPage;
+import com.ai.claim.underwriter.model.ClaimDecisionView;
+import com.ai.claim.underwriter.service.ClaimDecisionQueryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimDecisionControllerTest {
+
+    @Mock
+    private ClaimDecisionQueryService claimDecisionQueryService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ClaimDecisionController(claimDecisionQueryService)).build();
+    }
+
+    @Test
+    void searchDecisions_passesFiltersAndOmitsUnrequestedFields() throws Exception {
+        // Arrange
+        ClaimDecisionView view = new ClaimDecisionView(7L, 42L, "POL-1", "APPROVED", new BigDecimal("100.00"),
+                List.of("Covered"), "LLM", LocalDateTime.of(2024, 3, 1, 12, 0), null, null);
+        when(claimDecisionQueryService.search(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new ClaimDecisionPage(List.of(view), "next"));
+
+        // Act & Assert
+        mockMvc.perform(get("/claims/decisions")
+                        .param("from", "2024-03-01T00:00:00")
+                        .param("decision", "APPROVED")
+                        .param("policyNumber", "POL-1")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].claimId").value(42))
+                .andExpect(jsonPath("$.items[0].letter").doesNotExist())
+                .andExpect(jsonPath("$.items[0].evidence").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(claimDecisionQueryService).search(eq(LocalDateTime.of(2024, 3, 1, 0, 0)), isNull(), eq("APPROVED"),
+                eq("POL-1"), eq(20), isNull(), isNull());
+    }
+
+    @Test
+    void getLatestDecision_unknownClaim_returnsNotFound() throws Exception {
+        // Arrange
+        when(claimDecisionQueryService.latest(eq(7L), eq(List.of("letter")))).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/claims/7/decision").param("include", "letter"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +45,21 @@ class ClaimDecisionEvidenceTest {
         assertTrue(newEvidence.getCreatedAt().isBefore(after.plusSeconds(1)));
     }
 
+    @Test
+    void testChunkIdAndRankGettersAndSetters() {
+        // Arrange
+        UUID chunkId = UUID.randomUUID();
+
+        // Act
+        evidence.setChunkId(chunkId);
+        evidence.setRank(3);
+
+        // Assert
+        assertEquals(chunkId, evidence.getChunkId());
+        assertEquals(3, evidence.getRank());
+        assertNull(evidence.getChunkText());
+    }
+
     @Test
     void testIdGetterAndSetter() {
         // Arrange
@@ -46,6 +46,35 @@ class ClaimDecisionTest {
         assertEquals(id, claimDecision.getId());
     }
 
+    @Test
+    void testAdjudicationSourceGetterAndSetter() {
+        // Act
+        claimDecision.setAdjudicationSource("CACHE_EXACT");
+        claimDecision.setSourceClaimId(42L);
+
+        // Assert
+        assertEquals("CACHE_EXACT", claimDecision.getAdjudicationSource());
+        assertEquals(42L, claimDecision.getSourceClaimId());
+    }
+
+    @Test
+    void testPolicyNumberGetterAndSetter() {
+        // Act
+        claimDecision.setPolicyNumber("POL-001");
+
+        // Assert
+        assertEquals("POL-001", claimDecision.getPolicyNumber());
+    }
+
+    @Test
+    void testHospitalNameGetterAndSetter() {
+        // Act
+        claimDecision.setHospitalName("City Hospital");
+
+        // Assert
+        assertEquals("City Hospital", claimDecision.getHospitalName());
+    }
+
     @Test
     void testClaimIdGetterAndSetter() {
         // Arrange
@@ -0,0 +1,58 @@
+package com.ai.claim.underwriter.entity;
+
+import jakarta.persistence.Id;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaimIdempotencyTest {
+
+    private ClaimIdempotency claimIdempotency;
+
+    @BeforeEach
+    void setUp() {
+        claimIdempotency = new ClaimIdempotency();
+    }
+
+    @Test
+    void testDefaultConstructor() {
+        // Assert
+        assertNull(claimIdempotency.getIdempotencyKey());
+        assertNull(claimIdempotency.getRequestFingerprint());
+        assertNull(claimIdempotency.getClaimId());
+        assertNull(claimIdempotency.getPolicyNumber());
+        assertNull(claimIdempotency.getResult());
+        assertNull(claimIdempotency.getCreatedAt());
+    }
+
+    @Test
+    void testAllFieldsSetAndGet() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+        // Act
+        claimIdempotency.setIdempotencyKey("retry-key-1");
+        claimIdempotency.setRequestFingerprint("ab12");
+        claimIdempotency.setClaimId(12345L);
+        claimIdempotency.setPolicyNumber("POL-001");
+        claimIdempotency.setResult("{\"status\":\"success\"}");
+        claimIdempotency.setCreatedAt(createdAt);
+
+        // Assert
+        assertEquals("retry-key-1", claimIdempotency.getIdempotencyKey());
+        assertEquals("ab12", claimIdempotency.getRequestFingerprint());
+        assertEquals(12345L, claimIdempotency.getClaimId());
+        assertEquals("POL-001", claimIdempotency.getPolicyNumber());
+        assertEquals("{\"status\":\"success\"}", claimIdempotency.getResult());
+        assertEquals(createdAt, claimIdempotency.getCreatedAt());
+    }
+
+    @Test
+    void testIdempotencyKeyIsPrimaryKey() throws Exception {
+        // Assert
+        assertNotNull(ClaimIdempotency.class.getDeclaredField("idempotencyKey").getAnnotation(Id.class));
+    }
+}
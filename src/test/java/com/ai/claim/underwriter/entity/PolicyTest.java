@@ -0,0 +1,49 @@
+package com.ai.claim.underwriter.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyTest {
+
+    @Test
+    void testDefaultConstructor() {
+        // Act
+        Policy policy = new Policy();
+
+        // Assert
+        assertNull(policy.getPolicyId());
+        assertNull(policy.getPolicyCode());
+        assertNull(policy.getTerms());
+    }
+
+    @Test
+    void testSettersAndGetters() {
+        // Arrange
+        Policy policy = new Policy();
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        // Act
+        policy.setPolicyId(1L);
+        policy.setPolicyCode("ASPL-HI-784512");
+        policy.setVersion("1.0");
+        policy.setTitle("ArogyaSecure Plus");
+        policy.setEffectiveDate(LocalDate.of(2024, 1, 1));
+        policy.setContentText("policy text");
+        policy.setTerms("{\"deductible\":2000}");
+        policy.setCreatedAt(createdAt);
+
+        // Assert
+        assertEquals(1L, policy.getPolicyId());
+        assertEquals("ASPL-HI-784512", policy.getPolicyCode());
+        assertEquals("1.0", policy.getVersion());
+        assertEquals("ArogyaSecure Plus", policy.getTitle());
+        assertEquals(LocalDate.of(2024, 1, 1), policy.getEffectiveDate());
+        assertEquals("policy text", policy.getContentText());
+        assertEquals("{\"deductible\":2000}", policy.getTerms());
+        assertEquals(createdAt, policy.getCreatedAt());
+    }
+}
@@ -0,0 +1,123 @@
+package com.ai.claim.underwriter.interceptor;
+
+import com.ai.claim.underwriter.exception.ClaimProcessingException;
+import com.ai.claim.underwriter.model.RecordedExchange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RecordReplayAdvisorTest {
+
+    @TempDir
+    Path storeDir;
+
+    private LlmResponseStore store;
+    private CallAdvisorChain chain;
+
+    @BeforeEach
+    void setUp() {
+        store = new LlmResponseStore(storeDir, new ObjectMapper());
+        chain = mock(CallAdvisorChain.class);
+    }
+
+    @Test
+    void record_savesResponseKeyedByPromptHash() {
+        // Arrange
+        ChatClientRequest request = request("Process this invoice");
+        when(chain.nextCall(any())).thenReturn(response("ACTION: extract()"));
+        RecordReplayAdvisor advisor = new RecordReplayAdvisor(store, RecordReplayAdvisor.Mode.RECORD, 0.0, false);
+
+        // Act
+        ChatClientResponse result = advisor.adviseCall(request, chain);
+
+        // Assert
+        assertThat(result.chatResponse().getResult().getOutput().getText()).isEqualTo("ACTION: extract()");
+        RecordedExchange recorded = store.find(RecordReplayAdvisor.hashPrompt(request.prompt())).orElseThrow();
+        assertThat(recorded.response()).isEqualTo("ACTION: extract()");
+        assertThat(recorded.model()).isEqualTo("gpt-4o");
+    }
+
+    @Test
+    void replay_returnsRecordedResponseWithoutCallingModel() {
+        // Arrange
+        ChatClientRequest request = request("Process this invoice");
+        store.save(new RecordedExchange(RecordReplayAdvisor.hashPrompt(request.prompt()), "gpt-4o",
+                "FINAL ANSWER: done", 1200, System.currentTimeMillis()));
+        RecordReplayAdvisor advisor = new RecordReplayAdvisor(store, RecordReplayAdvisor.Mode.REPLAY, 0.0, false);
+
+        // Act
+        ChatClientResponse result = advisor.adviseCall(request, chain);
+
+        // Assert
+        assertThat(result.chatResponse().getResult().getOutput().getText()).isEqualTo("FINAL ANSWER: done");
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void replay_withMissAndNoLiveFallback_throws() {
+        // Arrange
+        RecordReplayAdvisor advisor = new RecordReplayAdvisor(store, RecordReplayAdvisor.Mode.REPLAY, 0.0, false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> advisor.adviseCall(request("never recorded"), chain))
+                .isInstanceOf(ClaimProcessingException.class)
+                .hasMessageContaining("No recorded LLM response");
+    }
+
+    @Test
+    void replay_withMissAndLiveFallback_callsModel() {
+        // Arrange
+        when(chain.nextCall(any())).thenReturn(response("live"));
+        RecordReplayAdvisor advisor = new RecordReplayAdvisor(store, RecordReplayAdvisor.Mode.REPLAY, 0.0, true);
+
+        // Act
+        ChatClientResponse result = advisor.adviseCall(request("never recorded"), chain);
+
+        // Assert
+        assertThat(result.chatResponse().getResult().getOutput().getText()).isEqualTo("live");
+        verify(chain).nextCall(any());
+    }
+
+    @Test
+    void hashPrompt_differsWhenMessagesOrModelDiffer() {
+        // Arrange
+        Prompt base = request("invoice A").prompt();
+        Prompt otherText = request("invoice B").prompt();
+        Prompt otherModel = new Prompt(base.getInstructions(), ChatOptions.builder().model("gpt-4o-mini").temperature(0.0).build());
+
+        // Act & Assert
+        assertThat(RecordReplayAdvisor.hashPrompt(base)).isEqualTo(RecordReplayAdvisor.hashPrompt(request("invoice A").prompt()));
+        assertThat(RecordReplayAdvisor.hashPrompt(base)).isNotEqualTo(RecordReplayAdvisor.hashPrompt(otherText));
+        assertThat(RecordReplayAdvisor.hashPrompt(base)).isNotEqualTo(RecordReplayAdvisor.hashPrompt(otherModel));
+    }
+
+    private static ChatClientRequest request(String userText) {
+        Prompt prompt = new Prompt(List.of(new SystemMessage("system"), new UserMessage(userText)),
+                ChatOptions.builder().model("gpt-4o").temperature(0.0).build());
+        return new ChatClientRequest(prompt, Map.of());
+    }
+
+    private static ChatClientResponse response(String text) {
+        return new ChatClientResponse(new ChatResponse(List.of(new Generation(new AssistantMessage(text)))), Map.of());
+    }
+}
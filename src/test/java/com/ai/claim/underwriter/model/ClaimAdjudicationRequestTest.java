@@ -2,6 +2,8 @@ package com.ai.claim.underwriter.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ClaimAdjudicationRequestTest {
@@ -148,4 +150,27 @@ class ClaimAdjudicationRequestTest {
         assertTrue(request.invoiceSummaryText().contains("Emergency room"));
         assertEquals(7, request.topK());
     }
+
+    @Test
+    void testShortConstructorDefaultsToNoLineItems() {
+        // Act
+        ClaimAdjudicationRequest request = new ClaimAdjudicationRequest("John", 1L, "POL-1", "summary", 5);
+
+        // Assert
+        assertNotNull(request.lineItems());
+        assertTrue(request.lineItems().isEmpty());
+    }
+
+    @Test
+    void testConstructorWithLineItems() {
+        // Arrange
+        List<ExtractedInvoice.LineItem> items = List.of(new ExtractedInvoice.LineItem("Room Rent", 2000.0, 0.9));
+
+        // Act
+        ClaimAdjudicationRequest request = new ClaimAdjudicationRequest("John", 1L, "POL-1", "summary", 5, items);
+
+        // Assert
+        assertEquals(1, request.lineItems().size());
+        assertEquals("Room Rent", request.lineItems().get(0).desc());
+    }
 }
@@ -0,0 +1,52 @@
+package com.ai.claim.underwriter.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineItemCategoryTest {
+
+    @Test
+    void testClassifyCommonDescriptions() {
+        assertEquals(LineItemCategory.ROOM, LineItemCategory.classify("Room Rent - Private Ward"));
+        assertEquals(LineItemCategory.ROOM, LineItemCategory.classify("ICU charges"));
+        assertEquals(LineItemCategory.DIAGNOSTICS, LineItemCategory.classify("CT Scan - Head"));
+        assertEquals(LineItemCategory.DIAGNOSTICS, LineItemCategory.classify("X-Ray Chest PA"));
+        assertEquals(LineItemCategory.CONSUMABLES, LineItemCategory.classify("Surgical Gloves"));
+        assertEquals(LineItemCategory.PHARMACY, LineItemCategory.classify("Paracetamol 500mg"));
+        assertEquals(LineItemCategory.PHARMACY, LineItemCategory.classify("Inj. Ceftriaxone"));
+    }
+
+    @Test
+    void testClassifyMatchesWordStartsOnly() {
+        // "primary" must not match "mri", "product" must not match "ct"
+        assertEquals(LineItemCategory.OTHER, LineItemCategory.classify("Primary consultation"));
+        assertEquals(LineItemCategory.OTHER, LineItemCategory.classify("Product fee"));
+    }
+
+    @Test
+    void testClassifyNullOrBlank() {
+        assertEquals(LineItemCategory.OTHER, LineItemCategory.classify(null));
+        assertEquals(LineItemCategory.OTHER, LineItemCategory.classify("  "));
+    }
+
+    @Test
+    void testGroupSkipsBlankDescriptions() {
+        // Arrange
+        List<ExtractedInvoice.LineItem> items = List.of(
+                new ExtractedInvoice.LineItem("Room Rent", 2000.0, 0.9),
+                new ExtractedInvoice.LineItem("Blood Test CBC", 400.0, 0.9),
+                new ExtractedInvoice.LineItem("Lipid lab panel", 600.0, 0.9),
+                new ExtractedInvoice.LineItem("", 10.0, 0.9));
+
+        // Act
+        Map<LineItemCategory, List<String>> groups = LineItemCategory.group(items);
+
+        // Assert
+        assertEquals(List.of(LineItemCategory.ROOM, LineItemCategory.DIAGNOSTICS), List.copyOf(groups.keySet()));
+        assertEquals(List.of("Blood Test CBC", "Lipid lab panel"), groups.get(LineItemCategory.DIAGNOSTICS));
+    }
+}
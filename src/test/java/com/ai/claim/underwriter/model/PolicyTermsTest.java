@@ -0,0 +1,58 @@
+package com.ai.claim.underwriter.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyTermsTest {
+
+    @Test
+    void testDefaults_whenValuesMissing() {
+        // Act
+        PolicyTerms terms = new PolicyTerms(null, null, null, null, null);
+
+        // Assert
+        assertEquals(10.0, terms.opdCopayPercentOrDefault());
+        assertEquals(0.0, terms.hospitalizationCopayPercentOrDefault());
+        assertEquals(0.0, terms.deductibleOrDefault());
+    }
+
+    @Test
+    void testStatedValues_overrideDefaults() {
+        // Act
+        PolicyTerms terms = new PolicyTerms(20.0, 5.0, 1500.0, Map.of("ROOM", 5000.0), List.of("1.1 Cosmetic"));
+
+        // Assert
+        assertEquals(20.0, terms.opdCopayPercentOrDefault());
+        assertEquals(5.0, terms.hospitalizationCopayPercentOrDefault());
+        assertEquals(1500.0, terms.deductibleOrDefault());
+    }
+
+    @Test
+    void testJsonDeserialization_ignoresUnknownFields() throws Exception {
+        // Arrange
+        String json = "{\"opdCopayPercent\":10,\"deductible\":2000,\"subLimits\":{\"ROOM\":5000},\"waitingPeriod\":\"2 years\"}";
+
+        // Act
+        PolicyTerms terms = new ObjectMapper().readValue(json, PolicyTerms.class);
+
+        // Assert
+        assertEquals(10.0, terms.opdCopayPercent());
+        assertEquals(2000.0, terms.deductible());
+        assertEquals(5000.0, terms.subLimits().get("ROOM"));
+        assertNull(terms.hospitalizationCopayPercent());
+    }
+
+    @Test
+    void testFiveArgumentConstructor_defaultsWaitingPeriodsToEmpty() {
+        // Act
+        PolicyTerms terms = new PolicyTerms(10.0, 0.0, 2000.0, Map.of(), List.of());
+
+        // Assert
+        assertEquals(List.of(), terms.waitingPeriods());
+    }
+}
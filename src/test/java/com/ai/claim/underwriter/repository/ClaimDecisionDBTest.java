@@ -2,21 +2,40 @@ package com.ai.claim.underwriter.repository;
 
 import com.ai.claim.underwriter.entity.ClaimDecision;
 import com.ai.claim.underwriter.entity.ClaimDecisionEvidence;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLWarning;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -253,4 +272,115 @@ class ClaimDecisionDBTest {
         assertThat(updated.getDecision()).isEqualTo("REJECTED");
         assertThat(updated.getPayableAmount()).isEqualByComparingTo(BigDecimal.ZERO);
     }
+
+    @Test
+    @DisplayName("Keyset page query should bound the index scan and partitions at the cursor")
+    void testSearchSummariesKeysetPredicateIsSargable() throws Exception {
+        // Arrange
+        String hql = ClaimDecisionDB.class.getMethod("searchSummaries", LocalDateTime.class, LocalDateTime.class,
+                String.class, String.class, LocalDateTime.class, Long.class, Pageable.class).getAnnotation(Query.class).value();
+        LocalDateTime cursor = LocalDateTime.of(2024, 3, 15, 10, 0);
+
+        // Act
+        String sql = translateToPostgresSql(hql, query -> query
+                .setParameter("from", cursor.minusDays(30))
+                .setParameter("to", cursor.plusDays(1))
+                .setParameter("decision", "APPROVED")
+                .setParameter("policyNumber", "POL-1")
+                .setParameter("afterCreatedAt", cursor)
+                .setParameter("afterId", 42L));
+
+        // Assert: a row-value comparison, not an OR the planner can only apply as a filter
+        assertThat(sql).containsPattern("\\(cd1_0\\.created_at,cd1_0\\.id\\)<\\(\\?,\\?\\)");
+        assertThat(sql).contains("cd1_0.created_at<=?");
+        assertThat(sql).doesNotContain("cd1_0.created_at=?");
+        assertThat(sql).contains("order by cd1_0.created_at desc,cd1_0.id desc");
+    }
+
+    @Test
+    void testClaimReadsExcludeDrafts() throws Exception {
+        // Arrange
+        List<String> hqls = List.of(
+                ClaimDecisionDB.class.getMethod("findLatestByClaimId", Long.class).getAnnotation(Query.class).value(),
+                ClaimDecisionDB.class.getMethod("findLatestByClaimIdWithEvidence", Long.class).getAnnotation(Query.class).value(),
+                ClaimDecisionDB.class.getMethod("findSummariesByClaimId", Long.class, Pageable.class).getAnnotation(Query.class).value());
+
+        for (String hql : hqls) {
+            // Act
+            String sql = translateToPostgresSql(hql, query -> query.setParameter("claimId", 42L));
+
+            // Assert
+            assertThat(sql).containsIgnoringCase("adjudication_source is distinct from 'DRAFT'");
+        }
+    }
+
+    /**
+     * SQL Hibernate generates for the query on PostgreSQL, captured from a stub connection (no database needed).
+     */
+    private static String translateToPostgresSql(String hql, Consumer<org.hibernate.query.Query<?>> bind) {
+        Connection connection = jdbcMock(Connection.class);
+        List<String> statements = new ArrayList<>();
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, PostgreSQLDialect.class)
+                .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, "false")
+                .applySetting(AvailableSettings.CONNECTION_PROVIDER, new StubConnectionProvider(connection))
+                .applySetting(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .build();
+        try (SessionFactory sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(ClaimDecision.class)
+                .addAnnotatedClass(ClaimDecisionEvidence.class)
+                .buildMetadata().buildSessionFactory();
+             Session session = sessionFactory.openSession()) {
+            org.hibernate.query.Query<?> query = session.createQuery(hql);
+            bind.accept(query);
+            query.list();
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+        return statements.get(0);
+    }
+
+    /**
+     * JDBC mock whose statements return empty result sets. Warnings are null: SQLWarning is Iterable, so Mockito's
+     * defaults would return an endless warning chain.
+     */
+    private static <T> T jdbcMock(Class<T> type) {
+        return mock(type, invocation -> {
+            Class<?> returnType = invocation.getMethod().getReturnType();
+            if (returnType == PreparedStatement.class || returnType == ResultSet.class) {
+                return jdbcMock(returnType);
+            }
+            return returnType == SQLWarning.class ? null : RETURNS_DEFAULTS.answer(invocation);
+        });
+    }
+
+    private record StubConnectionProvider(Connection connection) implements ConnectionProvider {
+
+        @Override
+        public Connection getConnection() {
+            return connection;
+        }
+
+        @Override
+        public void closeConnection(Connection conn) {
+        }
+
+        @Override
+        public boolean supportsAggressiveRelease() {
+            return false;
+        }
+
+        @Override
+        public boolean isUnwrappableAs(Class<?> unwrapType) {
+            return false;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> unwrapType) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
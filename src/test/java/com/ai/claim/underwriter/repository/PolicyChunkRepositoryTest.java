@@ -0,0 +1,98 @@
+package com.ai.claim.underwriter.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class PolicyChunkRepositoryTest {
+
+    @Test
+    void parseVector_readsPgvectorTextForm() {
+        assertThat(PolicyChunkRepository.parseVector("[0.5,-1.25,3e-2]")).containsExactly(0.5f, -1.25f, 0.03f);
+    }
+
+    @Test
+    void parseVector_withEmptyOrNull_returnsEmptyArray() {
+        assertThat(PolicyChunkRepository.parseVector("[]")).isEmpty();
+        assertThat(PolicyChunkRepository.parseVector(null)).isEmpty();
+    }
+
+    @Test
+    void toVectorLiteral_roundTripsThroughParseVector() {
+        float[] vector = {0.5f, -1.25f, 1.0E-5f};
+
+        String literal = PolicyChunkRepository.toVectorLiteral(vector);
+
+        assertThat(literal).isEqualTo("[0.5,-1.25,1.0E-5]");
+        assertThat(PolicyChunkRepository.parseVector(literal)).containsExactly(vector);
+    }
+
+    @Test
+    void searchVector_selectsPolicyRowsFirstAndRanksAtFullPrecision() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        PolicyChunkRepository repository = new PolicyChunkRepository(jdbcTemplate, new ObjectMapper(),
+                transactionManager, "none", 1536, 40);
+
+        repository.searchVector("POL-1", "CUST-1", new float[]{0.5f, 1.0f}, 4);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), eq("POL-1"), eq("CUST-1"), eq("[0.5,1.0]"), eq(4));
+        assertThat(sql.getValue())
+                .contains("AS MATERIALIZED", "WHERE c.policy_number = ?", "embedding <=> ?::vector AS distance")
+                .doesNotContain("halfvec").doesNotContain("binary_quantize");
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void searchVector_withBinaryQuantization_reranksIterativeScanCandidatesAtFullPrecision() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        PolicyChunkRepository repository = new PolicyChunkRepository(jdbcTemplate, new ObjectMapper(),
+                transactionManager, "binary", 1536, 40);
+
+        repository.searchVector("POL-1", "CUST-1", new float[]{0.5f, 1.0f}, 4);
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("SET LOCAL hnsw.ef_search = 40");
+        order.verify(jdbcTemplate).execute("SET LOCAL hnsw.iterative_scan = relaxed_order");
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        order.verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class),
+                eq("POL-1"), eq("CUST-1"), eq("[0.5,1.0]"), eq(40), eq("[0.5,1.0]"), eq(4));
+        assertThat(sql.getValue())
+                .contains("ORDER BY binary_quantize(c.embedding)::bit(1536) <~> binary_quantize(?::vector)")
+                .contains("embedding <=> ?::vector AS distance");
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void quantization_candidateOrder_matchesIndexExpression() {
+        assertThat(PolicyChunkRepository.Quantization.HALF.indexDdl(768))
+                .contains("(embedding::halfvec(768)) halfvec_cosine_ops");
+        assertThat(PolicyChunkRepository.Quantization.HALF.candidateOrder(768))
+                .startsWith("c.embedding::halfvec(768) <=>");
+        assertThat(PolicyChunkRepository.Quantization.BINARY.indexDdl(768))
+                .contains("(binary_quantize(embedding)::bit(768)) bit_hamming_ops");
+        assertThat(PolicyChunkRepository.Quantization.BINARY.candidateOrder(768))
+                .startsWith("binary_quantize(c.embedding)::bit(768) <~>");
+    }
+
+    @Test
+    void quantization_parse_isCaseInsensitiveAndDefaultsToNone() {
+        assertThat(PolicyChunkRepository.Quantization.parse(" Half ")).isEqualTo(PolicyChunkRepository.Quantization.HALF);
+        assertThat(PolicyChunkRepository.Quantization.parse(null)).isEqualTo(PolicyChunkRepository.Quantization.NONE);
+        assertThat(PolicyChunkRepository.Quantization.NONE.indexDdl(1536)).isNull();
+    }
+}
@@ -0,0 +1,154 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.model.BenefitCalculation;
+import com.ai.claim.underwriter.model.ItemizedDecision;
+import com.ai.claim.underwriter.model.PolicyTerms;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BenefitCalculatorTest {
+
+    private final BenefitCalculator calculator = new BenefitCalculator();
+
+    @Test
+    void calculate_appliesCopayAndDeductibleToCoveredItems() {
+        // Arrange
+        List<ItemizedDecision> items = List.of(
+                covered("Blood Test", 2500, "OPD"),
+                covered("X-Ray Chest", 1800, "OPD"),
+                excluded("Nose corrective surgery", 2000, "Cosmetic procedure excluded per policy section 1.1"));
+        PolicyTerms terms = new PolicyTerms(10.0, 0.0, 2000.0, Map.of(), List.of());
+
+        // Act
+        BenefitCalculation result = calculator.calculate(items, terms);
+
+        // Assert
+        assertThat(result.decision()).isEqualTo(BenefitCalculator.PARTIAL);
+        assertThat(result.totalClaimed()).isEqualByComparingTo("6300");
+        assertThat(result.totalCovered()).isEqualByComparingTo("4300");
+        assertThat(result.totalCopays()).isEqualByComparingTo("430");
+        assertThat(result.deductibleApplied()).isEqualByComparingTo("2000");
+        assertThat(result.payableAmount()).isEqualByComparingTo("1870");
+        assertThat(result.itemizedDecisions()).extracting(ItemizedDecision::coPayment).containsExactly(250.0, 180.0, null);
+        assertThat(result.itemizedDecisions()).extracting(ItemizedDecision::payable).containsExactly(2250.0, 1620.0, 0.0);
+    }
+
+    @Test
+    void calculate_withHospitalizationOnlyAndNoDeductible_isApproved() {
+        // Arrange
+        List<ItemizedDecision> items = List.of(covered("Surgeon fees", 15000, "HOSPITALIZATION"));
+
+        // Act
+        BenefitCalculation result = calculator.calculate(items, new PolicyTerms(10.0, 0.0, null, null, null));
+
+        // Assert
+        assertThat(result.decision()).isEqualTo(BenefitCalculator.APPROVED);
+        assertThat(result.payableAmount()).isEqualByComparingTo("15000");
+    }
+
+    @Test
+    void calculate_withNothingCovered_isDenied() {
+        // Act
+        BenefitCalculation result = calculator.calculate(
+                List.of(excluded("LASIK", 40000, "Vision correction excluded per section 4.2")), PolicyTerms.DEFAULTS);
+
+        // Assert
+        assertThat(result.decision()).isEqualTo(BenefitCalculator.DENIED);
+        assertThat(result.payableAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void calculate_deductibleLargerThanCoveredAmount_neverGoesNegativeAndStaysPartial() {
+        // Act
+        BenefitCalculation result = calculator.calculate(
+                List.of(covered("Consultation", 800, "OPD")), new PolicyTerms(10.0, 0.0, 5000.0, null, null));
+
+        // Assert
+        assertThat(result.payableAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(result.deductibleApplied()).isEqualByComparingTo("720");
+        assertThat(result.decision()).isEqualTo(BenefitCalculator.PARTIAL);
+    }
+
+    @Test
+    void calculate_subLimitIsSharedAcrossItemsOfTheCategoryBeforeCopay() {
+        // Arrange
+        List<ItemizedDecision> items = List.of(
+                covered("Room Rent Day 1", 4000, "HOSPITALIZATION"),
+                covered("ICU charges", 3000, "HOSPITALIZATION"));
+        PolicyTerms terms = new PolicyTerms(10.0, 10.0, 0.0, Map.of("room", 5000.0), null);
+
+        // Act
+        BenefitCalculation result = calculator.calculate(items, terms);
+
+        // Assert: 7000 covered, capped at 5000, 10% copay on the eligible 5000
+        assertThat(result.subLimitReduction()).isEqualByComparingTo("2000");
+        assertThat(result.totalCopays()).isEqualByComparingTo("500");
+        assertThat(result.payableAmount()).isEqualByComparingTo("4500");
+        assertThat(result.itemizedDecisions()).extracting(ItemizedDecision::payable).containsExactly(3600.0, 900.0);
+    }
+
+    @Test
+    void calculate_withUnknownCareType_appliesOpdCopay() {
+        // Act
+        BenefitCalculation result = calculator.calculate(List.of(covered("Physiotherapy", 1000, null)), PolicyTerms.DEFAULTS);
+
+        // Assert
+        assertThat(result.totalCopays()).isEqualByComparingTo("100");
+        assertThat(result.itemizedDecisions().get(0).careType()).isEqualTo(ItemizedDecision.OPD);
+    }
+
+    @Test
+    void fillLetter_replacesPlaceholdersWithComputedFigures() {
+        // Arrange
+        BenefitCalculation result = calculator.calculate(
+                List.of(covered("Blood Test", 2500, "OPD"), excluded("Nose surgery", 2000, "Cosmetic, section 1.1")),
+                new PolicyTerms(10.0, 0.0, 0.0, null, null));
+
+        // Act
+        String letter = calculator.fillLetter(
+                "RE: {{DECISION}}\nRequested: {{CLAIM_AMOUNT}}\nApproved: {{PAYABLE_AMOUNT}}\n{{ITEMIZED_BREAKDOWN}}\n{{PAYMENT_CALCULATION}}\n{{NEXT_STEPS}}",
+                result);
+
+        // Assert
+        assertThat(letter)
+                .contains("RE: PARTIAL")
+                .contains("Requested: ₹4,500")
+                .contains("Approved: ₹2,250")
+                .contains("- Blood Test: ₹2,500 (Copayment: ₹250, Net Covered: ₹2,250)")
+                .contains("Excluded Services:\n- Nose surgery: ₹2,000\n  Reason: Cosmetic, section 1.1")
+                .contains("NEXT STEPS:")
+                .doesNotContain("{{");
+    }
+
+    @Test
+    void calculationReasons_mentionDeductibleOnlyWhenApplied() {
+        // Arrange
+        BenefitCalculation withDeductible = calculator.calculate(
+                List.of(covered("Consultation", 800, "OPD")), new PolicyTerms(0.0, 0.0, 300.0, null, null));
+        BenefitCalculation withoutDeductible = calculator.calculate(
+                List.of(covered("Consultation", 800, "OPD")), new PolicyTerms(0.0, 0.0, 0.0, null, null));
+
+        // Act & Assert
+        assertThat(calculator.calculationReasons(withDeductible)).containsExactly("Annual deductible of ₹300 applied");
+        assertThat(calculator.calculationReasons(withoutDeductible)).isEmpty();
+    }
+
+    @Test
+    void formatAmount_keepsPaiseOnlyWhenPresent() {
+        assertThat(BenefitCalculator.formatAmount(new BigDecimal("1870"))).isEqualTo("₹1,870");
+        assertThat(BenefitCalculator.formatAmount(new BigDecimal("1234.5"))).isEqualTo("₹1,234.50");
+    }
+
+    private static ItemizedDecision covered(String service, double amount, String careType) {
+        return new ItemizedDecision(service, amount, true, null, null, careType, null);
+    }
+
+    private static ItemizedDecision excluded(String service, double amount, String reason) {
+        return new ItemizedDecision(service, amount, false, null, reason, ItemizedDecision.OPD, null);
+    }
+}
@@ -4,10 +4,19 @@ import com.ai.claim.underwriter.entity.ClaimDecision;
 import com.ai.claim.underwriter.entity.ClaimDecisionEvidence;
 import com.ai.claim.underwriter.model.ClaimAdjudicationRequest;
 import com.ai.claim.underwriter.model.ClaimAdjudicationResponse;
+import com.ai.claim.underwriter.exception.ClaimProcessingException;
 import com.ai.claim.underwriter.model.ClaimEvidence;
+import com.ai.claim.underwriter.model.CombinedAdjudication;
+import com.ai.claim.underwriter.model.CombinedClaimResult;
+import com.ai.claim.underwriter.model.DecisionLetterRequest;
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.ai.claim.underwriter.model.ItemizedDecision;
+import com.ai.claim.underwriter.model.PolicyTerms;
 import com.ai.claim.underwriter.repository.ClaimDecisionDB;
 import com.ai.claim.underwriter.repository.ClaimDecisionEvidenceDB;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,15 +25,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.document.Document;
-import org.springframework.ai.vectorstore.SearchRequest;
-import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -33,10 +47,14 @@ import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 @ExtendWith(MockitoExtension.class)
 class ClaimAdjudicationServiceTest {
 
-    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+    @Mock
+    private PolicyEvidenceRetriever policyEvidenceRetriever;
+
+    @Mock
+    private PolicyTermsService policyTermsService;
 
     @Mock
-    private VectorStore vectorStore;
+    private DecisionLetterService decisionLetterService;
 
     @Mock
     private ClaimDecisionDB claimDecisionDB;
@@ -46,6 +64,7 @@ class ClaimAdjudicationServiceTest {
 
     private ChatClient.Builder chatClientBuilder;
     private ChatClient chatClient;
+    private DecisionCache decisionCache;
     private ClaimAdjudicationService service;
     private DataBaseOperationService dataBaseOperationService;
 
@@ -54,13 +73,18 @@ class ClaimAdjudicationServiceTest {
         chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
         chatClientBuilder = mock(ChatClient.Builder.class);
         when(chatClientBuilder.build()).thenReturn(chatClient);
+        decisionCache = new DecisionCache(new ObjectMapper(), 100);
         service = new ClaimAdjudicationService(
                 chatClientBuilder,
                 new ObjectMapper(),
-                vectorStore,
+                policyEvidenceRetriever,
+                new BenefitCalculator(),
+                policyTermsService,
+                decisionCache,
+                decisionLetterService,
+                new ModelRouter(new SimpleMeterRegistry(), "gpt-4o", "", ""),
                 claimDecisionDB,
-                claimDecisionEvidenceDB,
-                DIRECT_EXECUTOR
+                claimDecisionEvidenceDB
         );
     }
 
@@ -72,6 +96,503 @@ class ClaimAdjudicationServiceTest {
 
 
 
+    @Test
+    void applyBenefits_computesDecisionAmountsAndLetterFromClassification() throws Exception {
+        // Arrange
+        JsonNode classification = new ObjectMapper().readTree("""
+                {"policyTerms":{"opdCopayPercent":10,"deductible":2000},
+                 "itemizedDecisions":[
+                   {"service":"Blood Test","amount":2500,"covered":true,"careType":"OPD"},
+                   {"service":"X-Ray Chest","amount":1800,"covered":true,"careType":"OPD"},
+                   {"service":"Nose surgery","amount":2000,"covered":false,"reason":"Cosmetic, section 1.1"}],
+                 "reasons":["Nose surgery excluded per section 1.1"],
+                 "letter":"Decision: {{DECISION}}, approved {{PAYABLE_AMOUNT}}"}
+                """);
+
+        // Act
+        JsonNode result = service.applyBenefits(classification, null);
+
+        // Assert
+        assertThat(result.path("decision").asText()).isEqualTo("PARTIAL");
+        assertThat(result.path("payableAmount").decimalValue()).isEqualByComparingTo("1870");
+        assertThat(result.path("itemizedDecisions").get(0).path("coPayment").asDouble()).isEqualTo(250.0);
+        assertThat(result.path("reasons")).hasSize(2);
+        assertThat(result.path("letter").asText()).isEqualTo("Decision: PARTIAL, approved ₹1,870");
+    }
+
+    @Test
+    void claimIdFor_dependsOnInvoiceTextNotOnExtraction() {
+        // Arrange
+        String text = "City Hospital\nInvoice INV-1\nConsultation 1500";
+        ExtractedInvoice invoice = new ExtractedInvoice("John Doe", "INV-1", "2024-01-15", 1500.0, "INR", "City Hospital",
+                List.of(new ExtractedInvoice.LineItem("Consultation", 1500.0, 0.9)), null);
+        ExtractedInvoice reextracted = new ExtractedInvoice("John Doe", null, null, 1500.0, "INR", "City Hosp.",
+                List.of(new ExtractedInvoice.LineItem("OPD consultation", 1500.0, 0.6)), null);
+
+        // Act
+        long claimId = ClaimAdjudicationService.claimIdFor(text, invoice);
+
+        // Assert
+        assertThat(claimId).isPositive();
+        assertThat(ClaimAdjudicationService.claimIdFor(text, reextracted)).isEqualTo(claimId);
+        assertThat(ClaimAdjudicationService.claimIdFor("  City Hospital Invoice   INV-1\n\nConsultation 1500 ", invoice))
+                .isEqualTo(claimId);
+        assertThat(ClaimAdjudicationService.claimIdFor("Town Clinic\nInvoice INV-1\nConsultation 1500", invoice))
+                .isNotEqualTo(claimId);
+        assertThat(ClaimAdjudicationService.claimIdFor(null, invoice)).isNotEqualTo(claimId);
+    }
+
+    @Test
+    void claimIdFor_withoutText_isStableAcrossFormattingAndSeparatesHospitalsAndContent() {
+        // Arrange
+        ExtractedInvoice invoice = new ExtractedInvoice("John Doe", "INV-1", "2024-01-15", 1500.0, "INR", "City Hospital",
+                List.of(new ExtractedInvoice.LineItem("Consultation", 1500.0, 0.9)), null);
+        ExtractedInvoice reformatted = new ExtractedInvoice("JOHN DOE", " inv-1 ", "2024-01-15", 1500.00, "INR", "city  hospital",
+                List.of(new ExtractedInvoice.LineItem("CONSULTATION", 1500.0, 0.5)), null);
+        ExtractedInvoice otherHospital = new ExtractedInvoice("John Doe", "INV-1", "2024-01-15", 1500.0, "INR", "Town Clinic",
+                List.of(new ExtractedInvoice.LineItem("Consultation", 1500.0, 0.9)), null);
+        ExtractedInvoice otherContent = new ExtractedInvoice("John Doe", "INV-1", "2024-01-15", 1800.0, "INR", "City Hospital",
+                List.of(new ExtractedInvoice.LineItem("Consultation", 1800.0, 0.9)), null);
+
+        // Act
+        long claimId = ClaimAdjudicationService.claimIdFor(null, invoice);
+
+        // Assert
+        assertThat(claimId).isPositive();
+        assertThat(ClaimAdjudicationService.claimIdFor(" ", reformatted)).isEqualTo(claimId);
+        assertThat(ClaimAdjudicationService.claimIdFor(null, otherHospital)).isNotEqualTo(claimId);
+        assertThat(ClaimAdjudicationService.claimIdFor(null, otherContent)).isNotEqualTo(claimId);
+    }
+
+    @Test
+    void adjudicateCombined_computesDecisionFromSingleModelCall() {
+        // Arrange
+        useCombinedPromptTemplates();
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), eq("Consultation 1000"), any()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        ExtractedInvoice invoice = new ExtractedInvoice("John Doe", "INV-1", "2024-01-15", 1000.0, "INR", "City Hospital",
+                List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9)), Map.of());
+        when(chatClient.prompt().system(anyString()).user(anyString()).options(any()).call().entity(CombinedClaimResult.class))
+                .thenReturn(new CombinedClaimResult(invoice, null,
+                        List.of(new ItemizedDecision("Consultation", 1000.0, true, null, null, "OPD", null)),
+                        List.of(), ""));
+
+        // Act
+        CombinedAdjudication combined = service.adjudicateCombined("Consultation 1000", "POL-1", "John Doe");
+
+        // Assert
+        ClaimDecision decision = combined.claimEvidence().claimDecision();
+        assertThat(combined.invoice()).isEqualTo(invoice);
+        // Amounts come from the benefit calculator, with the default OPD copay
+        assertThat(decision.getDecision()).isEqualTo("PARTIAL");
+        assertThat(decision.getPayableAmount()).isEqualByComparingTo("900");
+        assertThat(decision.getPolicyNumber()).isEqualTo("POL-1");
+        assertThat(decision.getClaimId()).isEqualTo(ClaimAdjudicationService.claimIdFor("Consultation 1000", invoice));
+        assertThat(combined.claimEvidence().evidenceChunks()).containsExactly("Consultation covered");
+    }
+
+    @Test
+    void adjudicateCombined_denialReasonsHoldOnlyUncoveredItems() {
+        // Arrange
+        useCombinedPromptTemplates();
+        when(policyTermsService.termsFor("POL-1"))
+                .thenReturn(Optional.of(new PolicyTerms(10.0, 0.0, 100.0, Map.of(), List.of())));
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), anyString(), any()))
+                .thenReturn(List.of(new Document("Cosmetic procedures are excluded (Section 4.2)")));
+        ExtractedInvoice invoice = new ExtractedInvoice("John Doe", "INV-1", "2024-01-15", 3000.0, "INR", "City Hospital",
+                List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9),
+                        new ExtractedInvoice.LineItem("Botox", 2000.0, 0.9)), Map.of());
+        when(chatClient.prompt().system(anyString()).user(anyString()).options(any()).call().entity(CombinedClaimResult.class))
+                .thenReturn(new CombinedClaimResult(invoice, null, List.of(
+                        new ItemizedDecision("Consultation", 1000.0, true, null,
+                                "Consultation covered (10% OPD copay applies)", "OPD", null),
+                        new ItemizedDecision("Botox", 2000.0, false, null,
+                                "Cosmetic procedures excluded (Section 4.2)", "OPD", null)),
+                        List.of("Consultation covered (10% OPD copay applies)"), ""));
+
+        // Act
+        CombinedAdjudication combined = service.adjudicateCombined("Consultation 1000\nBotox 2000", "POL-1", "John Doe");
+
+        // Assert
+        ClaimDecision decision = combined.claimEvidence().claimDecision();
+        assertThat(decision.getDecision()).isEqualTo("PARTIAL");
+        assertThat(decision.getReasons())
+                .contains("Consultation covered (10% OPD copay applies)", "Annual deductible of ₹100 applied");
+        assertThat(decision.getDenialReasons()).isEqualTo("[\"Cosmetic procedures excluded (Section 4.2)\"]");
+    }
+
+    @Test
+    void adjudicateCombined_withoutExtractedInvoice_failsSoCallerFallsBack() {
+        // Arrange
+        useCombinedPromptTemplates();
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), anyString(), any()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        when(chatClient.prompt().system(anyString()).user(anyString()).options(any()).call().entity(CombinedClaimResult.class))
+                .thenReturn(new CombinedClaimResult(null, null, List.of(), List.of(), ""));
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.adjudicateCombined("unreadable", "POL-1", "John Doe"))
+                .isInstanceOf(ClaimProcessingException.class)
+                .hasMessageContaining("no invoice");
+        verifyNoInteractions(claimDecisionDB);
+    }
+
+    private void useCombinedPromptTemplates() {
+        ReflectionTestUtils.setField(service, "combinedAdjudicationPromptTemplate", new ByteArrayResource("combined".getBytes()));
+        ReflectionTestUtils.setField(service, "claimAdjudicationSystemPromptTemplate", new ByteArrayResource("system".getBytes()));
+    }
+
+    @Test
+    void applyBenefits_withoutItemizedDecisions_returnsInputUnchanged() throws Exception {
+        // Arrange
+        JsonNode output = new ObjectMapper().readTree("{\"reasons\":[\"unreadable invoice\"]}");
+
+        // Act & Assert
+        assertThat(service.applyBenefits(output, null)).isSameAs(output);
+    }
+
+    @Test
+    void applyBenefits_prefersTermsStoredAtIngestion() throws Exception {
+        // Arrange
+        JsonNode classification = new ObjectMapper().readTree("""
+                {"policyTerms":{"opdCopayPercent":50},
+                 "itemizedDecisions":[{"service":"Blood Test","amount":1000,"covered":true,"careType":"OPD"}]}
+                """);
+        PolicyTerms stored = new PolicyTerms(10.0, 0.0, 0.0, null, null);
+
+        // Act
+        JsonNode result = service.applyBenefits(classification, stored);
+
+        // Assert
+        assertThat(result.path("payableAmount").decimalValue()).isEqualByComparingTo("900");
+    }
+
+    @Test
+    void adjudicate_repeatClaimWithCacheEnabled_reusesClassificationWithoutModelCall() {
+        // Arrange
+        ReflectionTestUtils.setField(decisionCache, "enabled", true);
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), anyString(), any()))
+                .thenReturn(List.of(new Document("Consultation covered with 10% copay")));
+        ChatClient.CallResponseSpec callResponse = mock(ChatClient.CallResponseSpec.class);
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).call()).thenReturn(callResponse);
+        when(callResponse.content())
+                .thenReturn("""
+                        {"policyTerms":{"opdCopayPercent":10},
+                         "itemizedDecisions":[{"service":"Consultation","amount":1000,"covered":true,"careType":"OPD"}],
+                         "reasons":["Consultation covered"],
+                         "letter":"Payable {{PAYABLE_AMOUNT}}"}
+                        """);
+        List<ExtractedInvoice.LineItem> first = List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9));
+        List<ExtractedInvoice.LineItem> repeat = List.of(new ExtractedInvoice.LineItem("Consultation", 2000.0, 0.9));
+
+        // Act
+        ClaimEvidence original = service.adjudicate(new ClaimAdjudicationRequest("John Doe", 1L, "POL-1", "invoice 1", 5, first));
+        ClaimEvidence cached = service.adjudicate(new ClaimAdjudicationRequest("John Doe", 2L, "POL-1", "invoice 2", 5, repeat));
+
+        // Assert
+        verify(callResponse, times(1)).content();
+        verify(policyEvidenceRetriever, times(1)).retrieve(anyString(), anyString(), anyString(), any());
+        assertThat(original.claimDecision().getAdjudicationSource()).isEqualTo("LLM");
+        assertThat(cached.claimDecision().getAdjudicationSource()).isEqualTo("CACHE_SIMILAR");
+        assertThat(cached.claimDecision().getSourceClaimId()).isEqualTo(1L);
+        assertThat(cached.claimDecision().getPayableAmount()).isEqualByComparingTo("1800");
+        assertThat(cached.claimDecision().getLetter()).isEqualTo("Payable ₹1,800");
+        assertThat(cached.evidenceChunks()).containsExactly("Consultation covered with 10% copay");
+    }
+
+    @Test
+    void adjudicate_withCacheDisabled_alwaysCallsModel() {
+        // Arrange
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), anyString(), any()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        ChatClient.CallResponseSpec callResponse = mock(ChatClient.CallResponseSpec.class);
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).call()).thenReturn(callResponse);
+        when(callResponse.content())
+                .thenReturn("{\"itemizedDecisions\":[{\"service\":\"Consultation\",\"amount\":1000,\"covered\":true}],\"letter\":\"\"}");
+        List<ExtractedInvoice.LineItem> items = List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9));
+
+        // Act
+        service.adjudicate(new ClaimAdjudicationRequest("John Doe", 1L, "POL-1", "invoice 1", 5, items));
+        service.adjudicate(new ClaimAdjudicationRequest("John Doe", 2L, "POL-1", "invoice 2", 5, items));
+
+        // Assert
+        verify(callResponse, times(2)).content();
+    }
+
+    @Test
+    void adjudicate_afterSpeculation_joinsSpeculativeRetrievalInsteadOfSearchingAgain() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "speculativeRetrievalEnabled", true);
+        ReflectionTestUtils.setField(service, "blockingTaskExecutor", (Executor) Runnable::run);
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve("POL-1", "JOHN DOE", "Consultation 1000", List.of()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).call().content())
+                .thenReturn("{\"itemizedDecisions\":[{\"service\":\"Consultation\",\"amount\":1000,\"covered\":true}],\"letter\":\"\"}");
+        List<ExtractedInvoice.LineItem> items = List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9));
+        long claimId = ClaimAdjudicationService.claimIdFor("Consultation 1000", null);
+
+        // Act
+        service.speculate("POL-1", "John Doe", "Consultation 1000");
+        ClaimEvidence evidence = service.adjudicate(new ClaimAdjudicationRequest("John Doe", claimId, "POL-1", "invoice 1", 5, items));
+
+        // Assert
+        assertThat(evidence.evidenceChunks()).containsExactly("Consultation covered");
+        verify(policyEvidenceRetriever, never()).retrieve(anyString(), anyString(), eq("invoice 1"), any());
+        verify(policyTermsService, times(1)).termsFor("POL-1");
+    }
+
+    @Test
+    void adjudicate_concurrentSpeculationsForSamePatientAndPolicy_eachClaimJoinsItsOwn() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "speculativeRetrievalEnabled", true);
+        ReflectionTestUtils.setField(service, "blockingTaskExecutor", (Executor) Runnable::run);
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve("POL-1", "JOHN DOE", "Consultation 1000", List.of()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        when(policyEvidenceRetriever.retrieve("POL-1", "JOHN DOE", "Pharmacy 200", List.of()))
+                .thenReturn(List.of(new Document("Pharmacy covered")));
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).call().content())
+                .thenReturn("{\"itemizedDecisions\":[{\"service\":\"Consultation\",\"amount\":1000,\"covered\":true}],\"letter\":\"\"}");
+        List<ExtractedInvoice.LineItem> items = List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9));
+
+        // Act
+        ClaimAdjudicationService.Speculation first = service.speculate("POL-1", "John Doe", "Consultation 1000");
+        service.speculate("POL-1", "John Doe", "Pharmacy 200");
+        ClaimEvidence evidence = service.adjudicate(new ClaimAdjudicationRequest("John Doe",
+                ClaimAdjudicationService.claimIdFor("Consultation 1000", null), "POL-1", "invoice 1", 5, items));
+
+        // Assert
+        assertThat(evidence.evidenceChunks()).containsExactly("Consultation covered");
+        assertThat(first.evidence().isCancelled()).isFalse();
+    }
+
+    @Test
+    void discardSpeculation_afterResubmission_leavesTheNewerSpeculationInPlace() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "speculativeRetrievalEnabled", true);
+        ReflectionTestUtils.setField(service, "blockingTaskExecutor", (Executor) command -> { });
+        ClaimAdjudicationService.Speculation first = service.speculate("POL-1", "John Doe", "Consultation 1000");
+        ClaimAdjudicationService.Speculation second = service.speculate("POL-1", "John Doe", "Consultation 1000");
+
+        // Act
+        service.discardSpeculation("Consultation 1000", first);
+
+        // Assert
+        assertThat(first.terms().isCancelled()).isTrue();
+        assertThat(second.terms().isCancelled()).isFalse();
+        service.discardSpeculation("Consultation 1000", second);
+        assertThat(second.terms().isCancelled()).isTrue();
+    }
+
+    @Test
+    void adjudicate_perCategoryRetrievalEnabled_speculatesTermsOnlyAndRetrievesByLineItems() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "speculativeRetrievalEnabled", true);
+        ReflectionTestUtils.setField(service, "blockingTaskExecutor", (Executor) Runnable::run);
+        when(policyEvidenceRetriever.isPerCategoryEnabled()).thenReturn(true);
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        List<ExtractedInvoice.LineItem> items = List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9));
+        when(policyEvidenceRetriever.retrieve("POL-1", "JOHN DOE", "invoice 1", items))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).call().content())
+                .thenReturn("{\"itemizedDecisions\":[{\"service\":\"Consultation\",\"amount\":1000,\"covered\":true}],\"letter\":\"\"}");
+
+        // Act
+        service.speculate("POL-1", "John Doe", "Consultation 1000");
+        ClaimEvidence evidence = service.adjudicate(new ClaimAdjudicationRequest("John Doe",
+                ClaimAdjudicationService.claimIdFor("Consultation 1000", null), "POL-1", "invoice 1", 5, items));
+
+        // Assert
+        assertThat(evidence.evidenceChunks()).containsExactly("Consultation covered");
+        verify(policyEvidenceRetriever, never()).retrieve(anyString(), anyString(), eq("Consultation 1000"), any());
+        verify(policyTermsService, times(1)).termsFor("POL-1");
+    }
+
+    @Test
+    void adjudicate_emptySpeculativeRetrieval_fallsBackToRegularRetrieval() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "speculativeRetrievalEnabled", true);
+        ReflectionTestUtils.setField(service, "blockingTaskExecutor", (Executor) Runnable::run);
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve("POL-1", "JOHN DOE", "Consultation 1000", List.of())).thenReturn(List.of());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), eq("invoice 1"), any()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).call().content())
+                .thenReturn("{\"itemizedDecisions\":[{\"service\":\"Consultation\",\"amount\":1000,\"covered\":true}],\"letter\":\"\"}");
+        List<ExtractedInvoice.LineItem> items = List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9));
+        long claimId = ClaimAdjudicationService.claimIdFor("Consultation 1000", null);
+
+        // Act
+        service.speculate("POL-1", "John Doe", "Consultation 1000");
+        ClaimEvidence evidence = service.adjudicate(new ClaimAdjudicationRequest("John Doe", claimId, "POL-1", "invoice 1", 5, items));
+
+        // Assert
+        assertThat(evidence.evidenceChunks()).containsExactly("Consultation covered");
+        verify(policyEvidenceRetriever, times(1)).retrieve(eq("POL-1"), eq("JOHN DOE"), eq("invoice 1"), any());
+    }
+
+    @Test
+    void adjudicate_streaming_savesDraftBeforeLetterAndRetriesMalformedOutput() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "streamingEnabled", true);
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), anyString(), any()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        ChatClient.StreamResponseSpec streamResponse = mock(ChatClient.StreamResponseSpec.class);
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).stream()).thenReturn(streamResponse);
+        List<String> draftLetters = new ArrayList<>();
+        when(claimDecisionDB.save(any(ClaimDecision.class))).thenAnswer(invocation -> {
+            draftLetters.add(invocation.<ClaimDecision>getArgument(0).getLetter());
+            return invocation.getArgument(0);
+        });
+        when(streamResponse.content()).thenReturn(
+                Flux.just("Sure! Here is the JSON:", " {\"itemizedDecisions\":[]}"),
+                Flux.just("{\"policyTerms\":{\"opdCopayPercent\":10},",
+                        "\"itemizedDecisions\":[{\"service\":\"Consultation\",\"amount\":1000,\"covered\":true}],",
+                        "\"reasons\":[\"Consultation covered\"],\"letter\":\"Pay",
+                        "able {{PAYABLE_AMOUNT}}\"}"));
+
+        // Act
+        ClaimEvidence evidence = service.adjudicate(new ClaimAdjudicationRequest("John Doe", 1L, "POL-1", "invoice", 5,
+                List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9))));
+
+        // Assert
+        verify(streamResponse, times(2)).content();
+        assertThat(draftLetters).containsExactly("");
+        assertThat(evidence.claimDecision().getDecision()).isEqualTo("PARTIAL");
+        assertThat(evidence.claimDecision().getPayableAmount()).isEqualByComparingTo("900");
+        assertThat(evidence.claimDecision().getLetter()).isEqualTo("Payable ₹900");
+    }
+
+    @Test
+    void adjudicate_streaming_everyAttemptMalformed_abortsEarlyAndNeedsInfo() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "streamingEnabled", true);
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), anyString(), any()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        ChatClient.StreamResponseSpec streamResponse = mock(ChatClient.StreamResponseSpec.class);
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).stream()).thenReturn(streamResponse);
+        when(streamResponse.content()).thenAnswer(invocation -> Flux.just("I cannot ", "decide this claim"));
+
+        // Act
+        ClaimEvidence evidence = service.adjudicate(new ClaimAdjudicationRequest("John Doe", 1L, "POL-1", "invoice", 5));
+
+        // Assert
+        verify(streamResponse, times(2)).content();
+        verify(claimDecisionDB, never()).save(any());
+        assertThat(evidence.claimDecision().getDecision()).isEqualTo("NEEDS_INFO");
+        assertThat(evidence.claimDecision().getLetter()).isEqualTo("I cannot ");
+    }
+
+    @Test
+    void adjudicate_streaming_escalatedAfterDraft_deletesTheRejectedModelsDraft() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "streamingEnabled", true);
+        ReflectionTestUtils.setField(service, "modelRouter",
+                new ModelRouter(new SimpleMeterRegistry(), "gpt-4o", "", "gpt-4o-mini,gpt-4o"));
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), anyString(), any()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        ChatClient.StreamResponseSpec streamResponse = mock(ChatClient.StreamResponseSpec.class);
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).stream()).thenReturn(streamResponse);
+        List<String> draftSources = new ArrayList<>();
+        long[] nextId = {7L};
+        when(claimDecisionDB.save(any(ClaimDecision.class))).thenAnswer(invocation -> {
+            ClaimDecision draft = invocation.getArgument(0);
+            draftSources.add(draft.getAdjudicationSource());
+            if (draft.getId() == null) {
+                draft.setId(nextId[0]++);
+            }
+            return draft;
+        });
+        when(claimDecisionDB.deleteDraft(7L)).thenReturn(1);
+        when(streamResponse.content()).thenReturn(
+                // The cheaper model classifies only one of the two line items
+                Flux.just("{\"itemizedDecisions\":[{\"service\":\"Consultation\",\"amount\":1000,\"covered\":true}],",
+                        "\"reasons\":[],\"letter\":\"\"}"),
+                Flux.just("{\"itemizedDecisions\":[{\"service\":\"Consultation\",\"amount\":1000,\"covered\":true},",
+                        "{\"service\":\"Cosmetic\",\"amount\":500,\"covered\":false}],",
+                        "\"reasons\":[\"Cosmetic excluded\"],\"letter\":\"Payable {{PAYABLE_AMOUNT}}\"}"));
+
+        // Act
+        ClaimEvidence evidence = service.adjudicate(new ClaimAdjudicationRequest("John Doe", 1L, "POL-1", "invoice", 5,
+                List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9),
+                        new ExtractedInvoice.LineItem("Cosmetic", 500.0, 0.9))));
+
+        // Assert
+        verify(claimDecisionDB).deleteDraft(7L);
+        assertThat(draftSources).containsExactly(ClaimDecision.SOURCE_DRAFT, ClaimDecision.SOURCE_DRAFT);
+        assertThat(evidence.claimDecision().getId()).isEqualTo(8L);
+        assertThat(evidence.claimDecision().getAdjudicationSource()).isEqualTo(DecisionCache.SOURCE_LLM);
+        assertThat(evidence.claimDecision().getDecision()).isEqualTo("PARTIAL");
+    }
+
+    @Test
+    void adjudicate_streaming_escalatedModelFailsAfterDraft_deletesDraftAndRethrows() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "streamingEnabled", true);
+        ReflectionTestUtils.setField(service, "modelRouter",
+                new ModelRouter(new SimpleMeterRegistry(), "gpt-4o", "", "gpt-4o-mini,gpt-4o"));
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), anyString(), any()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        ChatClient.StreamResponseSpec streamResponse = mock(ChatClient.StreamResponseSpec.class);
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).stream()).thenReturn(streamResponse);
+        when(claimDecisionDB.save(any(ClaimDecision.class))).thenAnswer(invocation -> {
+            invocation.<ClaimDecision>getArgument(0).setId(7L);
+            return invocation.getArgument(0);
+        });
+        when(claimDecisionDB.deleteDraft(7L)).thenReturn(1);
+        when(streamResponse.content()).thenReturn(
+                Flux.just("{\"itemizedDecisions\":[{\"service\":\"Consultation\",\"amount\":1000,\"covered\":true}],",
+                        "\"reasons\":[],\"letter\":\"\"}"),
+                Flux.error(new IllegalStateException("Connection reset")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.adjudicate(new ClaimAdjudicationRequest("John Doe", 1L, "POL-1", "invoice", 5,
+                List.of(new ExtractedInvoice.LineItem("Consultation", 1000.0, 0.9),
+                        new ExtractedInvoice.LineItem("Cosmetic", 500.0, 0.9)))))
+                .hasMessageContaining("Connection reset");
+        verify(claimDecisionDB).save(any(ClaimDecision.class));
+        verify(claimDecisionDB).deleteDraft(7L);
+    }
+
+    @Test
+    void adjudicate_withLetterDecoupled_returnsDecisionAndRequestsLetter() {
+        // Arrange
+        when(decisionLetterService.isEnabled()).thenReturn(true);
+        when(policyTermsService.termsFor("POL-1")).thenReturn(Optional.empty());
+        when(policyEvidenceRetriever.retrieve(eq("POL-1"), eq("JOHN DOE"), anyString(), any()))
+                .thenReturn(List.of(new Document("Consultation covered")));
+        ChatClient.ChatClientRequestSpec spec = chatClient.prompt().system(any(Resource.class));
+        when(spec.user(anyString()).options(any()).call().content()).thenReturn("""
+                {"policyTerms":{"opdCopayPercent":10},
+                 "itemizedDecisions":[{"service":"Consultation","amount":1000,"covered":true,"careType":"OPD"}],
+                 "reasons":["Consultation covered"]}
+                """);
+
+        // Act
+        ClaimEvidence evidence = service.adjudicate(new ClaimAdjudicationRequest("John Doe", 1L, "POL-1", "invoice", 5));
+
+        // Assert
+        ArgumentCaptor<String> user = ArgumentCaptor.forClass(String.class);
+        verify(spec, atLeastOnce()).user(user.capture());
+        assertThat(user.getAllValues()).anyMatch(prompt -> prompt.contains("omit the letter field"));
+        assertThat(evidence.claimDecision().getPayableAmount()).isEqualByComparingTo("900");
+        assertThat(evidence.claimDecision().getLetter()).isEmpty();
+        ArgumentCaptor<DecisionLetterRequest> request = ArgumentCaptor.forClass(DecisionLetterRequest.class);
+        verify(decisionLetterService).generateAsync(same(evidence.claimDecision()), request.capture());
+        assertThat(request.getValue().claimId()).isEqualTo(1L);
+        assertThat(request.getValue().terms().opdCopayPercent()).isEqualTo(10.0);
+        assertThat(request.getValue().reasons()).containsExactly("Consultation covered");
+    }
+
     @Test
     void getClaimDecisionData_mapsValues() {
         ClaimDecision decision = new ClaimDecision();
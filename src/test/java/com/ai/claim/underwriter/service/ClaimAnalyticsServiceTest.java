@@ -0,0 +1,181 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.exception.InvalidClaimException;
+import com.ai.claim.underwriter.model.ClaimDailyStats;
+import com.ai.claim.underwriter.model.DenialReasonCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimAnalyticsServiceTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ClaimAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ClaimAnalyticsService(jdbcTemplate, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void refresh_replacesRollupsFromSinceInOneTransaction() {
+        // Arrange
+        lockAvailable(true);
+
+        // Act
+        boolean refreshed = service.refresh(MARCH_1);
+
+        // Assert
+        assertThat(refreshed).isTrue();
+        Date since = Date.valueOf(MARCH_1);
+        verify(jdbcTemplate).update("DELETE FROM claim_daily_stats WHERE day >= ?", since);
+        verify(jdbcTemplate).update("DELETE FROM claim_daily_denial_reasons WHERE day >= ?", since);
+        verify(jdbcTemplate).update(ClaimAnalyticsService.INSERT_DAILY_STATS, since);
+        verify(jdbcTemplate).update(ClaimAnalyticsService.INSERT_DENIAL_REASONS, since);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void denialReasonsRollup_countsUncoveredItemReasonsNotAllDecisionReasons() {
+        // Act & Assert: reasons also holds covered-item and copay/deductible lines
+        assertThat(ClaimAnalyticsService.INSERT_DENIAL_REASONS)
+                .contains("jsonb_array_elements_text(", "l.denial_reasons")
+                .doesNotContain("l.reasons");
+    }
+
+    @Test
+    void refresh_whenAnotherInstanceHoldsTheLock_skips() {
+        // Arrange
+        lockAvailable(false);
+
+        // Act
+        boolean refreshed = service.refresh(MARCH_1);
+
+        // Assert
+        assertThat(refreshed).isFalse();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void run_withEmptyRollups_backfillsAllDays() {
+        // Arrange
+        when(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM claim_daily_stats)", Boolean.class)).thenReturn(false);
+        lockAvailable(true);
+
+        // Act
+        service.run(null);
+
+        // Assert
+        verify(jdbcTemplate).update("DELETE FROM claim_daily_stats WHERE day >= ?", Date.valueOf(ClaimAnalyticsService.BACKFILL_FROM));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dailyStats_groupedByHospital_aggregatesPoliciesAndComputesRates() throws Exception {
+        // Arrange
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getDate("day")).thenReturn(Date.valueOf(MARCH_1));
+        when(rs.getString("hospital_name")).thenReturn("City Hospital");
+        when(rs.getString("policy_number")).thenReturn("");
+        when(rs.getLong("claims")).thenReturn(4L);
+        when(rs.getLong("approved")).thenReturn(3L);
+        when(rs.getLong("partial")).thenReturn(0L);
+        when(rs.getLong("denied")).thenReturn(1L);
+        when(rs.getLong("needs_info")).thenReturn(0L);
+        when(rs.getLong("payable_claims")).thenReturn(3L);
+        when(rs.getBigDecimal("payable_total")).thenReturn(new BigDecimal("1000.00"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(inv -> List.of(((RowMapper<ClaimDailyStats>) inv.getArgument(1)).mapRow(rs, 0)));
+
+        // Act
+        List<ClaimDailyStats> stats = service.dailyStats(MARCH_1, MARCH_1.plusDays(6), "City Hospital", null, List.of("hospital"));
+
+        // Assert
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertThat(sql.getValue()).contains("hospital_name AS hospital_name", "'' AS policy_number",
+                "AND hospital_name = ?").doesNotContain("AND policy_number");
+        assertThat(args.getValue()).containsExactly(Date.valueOf(MARCH_1), Date.valueOf(MARCH_1.plusDays(6)), "City Hospital");
+
+        ClaimDailyStats day = stats.get(0);
+        assertThat(day.hospitalName()).isEqualTo("City Hospital");
+        assertThat(day.policyNumber()).isNull();
+        assertThat(day.approvalRate()).isEqualTo(0.75);
+        assertThat(day.averagePayable()).isEqualByComparingTo("333.33");
+    }
+
+    @Test
+    void dailyStats_reversedRange_isRejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> service.dailyStats(MARCH_1, MARCH_1.minusDays(1), null, null, null))
+                .isInstanceOf(InvalidClaimException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void dailyStats_rangeLongerThanLimit_isRejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> service.dailyStats(MARCH_1, MARCH_1.plusDays(366), null, null, null))
+                .isInstanceOf(InvalidClaimException.class)
+                .hasMessageContaining("366 days");
+    }
+
+    @Test
+    void dailyStats_unknownGroup_isRejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> service.dailyStats(MARCH_1, MARCH_1, null, null, List.of("patient")))
+                .isInstanceOf(InvalidClaimException.class)
+                .hasMessageContaining("patient");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void denialReasons_capsLimitAndFiltersPolicy() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(new DenialReasonCount("Cosmetic procedure excluded", 5)));
+
+        // Act
+        List<DenialReasonCount> reasons = service.denialReasons(MARCH_1, MARCH_1.plusDays(30), null, "POL-1", 1000);
+
+        // Assert
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertThat(sql.getValue()).contains("FROM claim_daily_denial_reasons", "AND policy_number = ?", "LIMIT ?");
+        assertThat(args.getValue()).containsExactly(Date.valueOf(MARCH_1), Date.valueOf(MARCH_1.plusDays(30)), "POL-1", 100);
+        assertThat(reasons).extracting(DenialReasonCount::claims).containsExactly(5L);
+    }
+
+    private void lockAvailable(boolean available) {
+        when(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                ClaimAnalyticsService.REFRESH_LOCK_KEY)).thenReturn(available);
+    }
+}
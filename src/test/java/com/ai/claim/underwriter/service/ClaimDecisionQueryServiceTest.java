@@ -0,0 +1,153 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.exception.InvalidClaimException;
+import com.ai.claim.underwriter.model.ClaimDecisionPage;
+import com.ai.claim.underwriter.model.ClaimDecisionView;
+import com.ai.claim.underwriter.repository.ClaimDecisionDB;
+import com.ai.claim.underwriter.repository.ClaimDecisionEvidenceDB;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimDecisionQueryServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private ClaimDecisionDB claimDecisionDB;
+
+    @Mock
+    private ClaimDecisionEvidenceDB claimDecisionEvidenceDB;
+
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+    private ClaimDecisionQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ClaimDecisionQueryService(claimDecisionDB, claimDecisionEvidenceDB, new ObjectMapper());
+    }
+
+    @Test
+    void search_fullPage_returnsCursorOfLastRowAndSkipsLetterAndEvidence() {
+        // Arrange
+        when(claimDecisionDB.searchSummaries(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(summary(3L, NOW), summary(2L, NOW.minusMinutes(1)), summary(1L, NOW.minusMinutes(2))));
+
+        // Act
+        ClaimDecisionPage page = service.search(null, null, " approved ", "POL-1", 2, null, null);
+
+        // Assert
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(claimDecisionDB).searchSummaries(any(), any(), eq("APPROVED"), eq("POL-1"), any(), eq(Long.MAX_VALUE), pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(3);
+        assertThat(page.items()).extracting(ClaimDecisionView::id).containsExactly(3L, 2L);
+        assertThat(page.items().get(0).reasons()).containsExactly("Covered");
+        assertThat(page.items().get(0).letter()).isNull();
+        assertThat(page.items().get(0).evidence()).isNull();
+        assertThat(ClaimDecisionQueryService.decodeCursor(page.nextCursor()))
+                .isEqualTo(new ClaimDecisionQueryService.Cursor(NOW.minusMinutes(1), 2L));
+        verify(claimDecisionDB, never()).findLettersByIdIn(any());
+        verifyNoInteractions(claimDecisionEvidenceDB);
+    }
+
+    @Test
+    void search_withCursor_continuesAfterPositionAndEndsOnShortPage() {
+        // Arrange
+        String cursor = ClaimDecisionQueryService.encodeCursor(new ClaimDecisionQueryService.Cursor(NOW, 10L));
+        when(claimDecisionDB.searchSummaries(any(), any(), isNull(), isNull(), eq(NOW), eq(10L), any()))
+                .thenReturn(List.of(summary(9L, NOW)));
+
+        // Act
+        ClaimDecisionPage page = service.search(NOW.minusDays(1), NOW.plusDays(1), null, null, null, cursor, null);
+
+        // Assert
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void search_withIncludes_loadsLettersAndEvidenceForPageInOneQueryEach() {
+        // Arrange
+        when(claimDecisionDB.searchSummaries(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(summary(2L, NOW), summary(1L, NOW)));
+        when(claimDecisionDB.findLettersByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(projections.createProjection(ClaimDecisionDB.DecisionLetterText.class, Map.of("id", 2L, "letter", "Dear John"))));
+        UUID chunkId = UUID.randomUUID();
+        Map<String, Object> evidence = new HashMap<>(Map.of("id", 5L, "decisionId", 1L, "chunkId", chunkId, "rank", 1,
+                "score", new BigDecimal("0.91"), "chunkText", "Section 2.1"));
+        when(claimDecisionEvidenceDB.findEvidenceWithTextByDecisionIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(projections.createProjection(ClaimDecisionEvidenceDB.EvidenceText.class, evidence)));
+
+        // Act
+        ClaimDecisionPage page = service.search(null, null, null, null, null, null, List.of("letter", "EVIDENCE"));
+
+        // Assert
+        assertThat(page.items().get(0).letter()).isEqualTo("Dear John");
+        assertThat(page.items().get(0).evidence()).isEmpty();
+        assertThat(page.items().get(1).letter()).isEmpty();
+        assertThat(page.items().get(1).evidence()).containsExactly(
+                new ClaimDecisionView.Evidence(chunkId, 1, new BigDecimal("0.91"), "Section 2.1"));
+    }
+
+    @Test
+    void search_invalidArguments_throwInvalidClaim() {
+        // Act & Assert
+        assertThatThrownBy(() -> service.search(null, null, null, null, null, "not-a-cursor", null))
+                .isInstanceOf(InvalidClaimException.class)
+                .hasMessageContaining("cursor");
+        assertThatThrownBy(() -> service.search(null, null, null, null, null, null, List.of("audit")))
+                .isInstanceOf(InvalidClaimException.class)
+                .hasMessageContaining("include");
+        assertThatThrownBy(() -> service.search(NOW, NOW, null, null, null, null, null))
+                .isInstanceOf(InvalidClaimException.class);
+        verifyNoInteractions(claimDecisionDB);
+    }
+
+    @Test
+    void latest_returnsNewestSummaryOfClaim() {
+        // Arrange
+        when(claimDecisionDB.findSummariesByClaimId(eq(42L), any())).thenReturn(List.of(summary(7L, NOW)));
+        when(claimDecisionDB.findSummariesByClaimId(eq(43L), any())).thenReturn(List.of());
+
+        // Act
+        Optional<ClaimDecisionView> found = service.latest(42L, null);
+        Optional<ClaimDecisionView> missing = service.latest(43L, null);
+
+        // Assert
+        assertThat(found).get().extracting(ClaimDecisionView::id, ClaimDecisionView::decision).containsExactly(7L, "APPROVED");
+        assertThat(missing).isEmpty();
+    }
+
+    private ClaimDecisionDB.DecisionSummary summary(long id, LocalDateTime createdAt) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        values.put("claimId", 42L);
+        values.put("policyNumber", "POL-1");
+        values.put("decision", "APPROVED");
+        values.put("payableAmount", new BigDecimal("100.00"));
+        values.put("reasons", "[\"Covered\"]");
+        values.put("adjudicationSource", "LLM");
+        values.put("createdAt", createdAt);
+        return projections.createProjection(ClaimDecisionDB.DecisionSummary.class, values);
+    }
+}
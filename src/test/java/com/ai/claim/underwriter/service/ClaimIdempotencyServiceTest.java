@@ -0,0 +1,195 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.entity.ClaimIdempotency;
+import com.ai.claim.underwriter.exception.InvalidClaimException;
+import com.ai.claim.underwriter.model.ClaimProcessingResult;
+import com.ai.claim.underwriter.repository.ClaimIdempotencyDB;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimIdempotencyServiceTest {
+
+    private static final String INVOICE = "Invoice INV-1\nConsultation  100.00";
+
+    @Mock
+    private ClaimIdempotencyDB claimIdempotencyDB;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ClaimIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ClaimIdempotencyService(claimIdempotencyDB, objectMapper);
+    }
+
+    @Test
+    void process_storedKey_returnsStoredResultWithoutRunningPipeline() throws Exception {
+        // Arrange
+        ClaimProcessingResult stored = success(77L);
+        ClaimIdempotency record = new ClaimIdempotency();
+        record.setIdempotencyKey("key-1");
+        record.setRequestFingerprint(ClaimIdempotencyService.fingerprint("POL-1", "John Doe", INVOICE));
+        record.setResult(objectMapper.writeValueAsString(stored));
+        when(claimIdempotencyDB.findById("key-1")).thenReturn(Optional.of(record));
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        ClaimProcessingResult result = service.process("key-1", "POL-1", "john doe", INVOICE.replace("  ", " "), () -> {
+            runs.incrementAndGet();
+            return success(99L);
+        });
+
+        // Assert
+        assertThat(runs).hasValue(0);
+        assertThat(result.claimId()).isEqualTo(77L);
+        assertThat(result.decision()).isEqualTo("APPROVED");
+        verify(claimIdempotencyDB, never()).save(any());
+    }
+
+    @Test
+    void process_resultStoredAfterFirstLookup_returnsItWithoutRunningPipeline() throws Exception {
+        // Arrange: a duplicate finishes between the first lookup and this request registering as in flight
+        ClaimIdempotency record = new ClaimIdempotency();
+        record.setIdempotencyKey("key-1");
+        record.setRequestFingerprint(ClaimIdempotencyService.fingerprint("POL-1", "John Doe", INVOICE));
+        record.setResult(objectMapper.writeValueAsString(success(77L)));
+        when(claimIdempotencyDB.findById("key-1")).thenReturn(Optional.empty(), Optional.of(record));
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        ClaimProcessingResult result = service.process("key-1", "POL-1", "John Doe", INVOICE, () -> {
+            runs.incrementAndGet();
+            return success(99L);
+        });
+
+        // Assert
+        assertThat(runs).hasValue(0);
+        assertThat(result.claimId()).isEqualTo(77L);
+        verify(claimIdempotencyDB, times(2)).findById("key-1");
+        verify(claimIdempotencyDB, never()).save(any());
+    }
+
+    @Test
+    void process_withoutKey_storesSuccessUnderRequestFingerprint() {
+        // Arrange
+        when(claimIdempotencyDB.findById(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        ClaimProcessingResult result = service.process(null, "POL-1", "John Doe", INVOICE, () -> success(77L));
+
+        // Assert
+        assertThat(result.claimId()).isEqualTo(77L);
+        ArgumentCaptor<ClaimIdempotency> captor = ArgumentCaptor.forClass(ClaimIdempotency.class);
+        verify(claimIdempotencyDB).save(captor.capture());
+        String fingerprint = ClaimIdempotencyService.fingerprint("POL-1", "John Doe", INVOICE);
+        assertThat(captor.getValue().getIdempotencyKey()).isEqualTo(fingerprint);
+        assertThat(captor.getValue().getRequestFingerprint()).isEqualTo(fingerprint);
+        assertThat(captor.getValue().getResult()).contains("\"claimId\":77");
+    }
+
+    @Test
+    void process_errorResult_isNotStored() {
+        // Arrange
+        when(claimIdempotencyDB.findById("key-1")).thenReturn(Optional.empty());
+
+        // Act
+        ClaimProcessingResult result = service.process("key-1", "POL-1", "John Doe", INVOICE,
+                () -> ClaimProcessingResult.error("Extraction failed"));
+
+        // Assert
+        assertThat(result.status()).isEqualTo("error");
+        verify(claimIdempotencyDB, never()).save(any());
+    }
+
+    @Test
+    void process_keyReusedForDifferentRequest_throwsInvalidClaim() {
+        // Arrange
+        ClaimIdempotency record = new ClaimIdempotency();
+        record.setIdempotencyKey("key-1");
+        record.setRequestFingerprint(ClaimIdempotencyService.fingerprint("POL-1", "John Doe", INVOICE));
+        record.setResult("{}");
+        when(claimIdempotencyDB.findById("key-1")).thenReturn(Optional.of(record));
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.process("key-1", "POL-2", "John Doe", INVOICE, () -> success(1L)))
+                .isInstanceOf(InvalidClaimException.class)
+                .hasMessageContaining("different claim request");
+    }
+
+    @Test
+    void process_concurrentDuplicate_waitsForFirstRequest() throws Exception {
+        // Arrange
+        when(claimIdempotencyDB.findById("key-1")).thenReturn(Optional.empty());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<ClaimProcessingResult> first = CompletableFuture.supplyAsync(() ->
+                service.process("key-1", "POL-1", "John Doe", INVOICE, () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return success(77L);
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        CompletableFuture<ClaimProcessingResult> second = CompletableFuture.supplyAsync(() ->
+                service.process("key-1", "POL-1", "John Doe", INVOICE, () -> {
+                    runs.incrementAndGet();
+                    return success(99L);
+                }));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Assert
+        assertThat(first.get(5, TimeUnit.SECONDS).claimId()).isEqualTo(77L);
+        assertThat(second.get(5, TimeUnit.SECONDS).claimId()).isEqualTo(77L);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void process_disabled_alwaysRunsPipeline() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        // Act
+        ClaimProcessingResult result = service.process("key-1", "POL-1", "John Doe", INVOICE, () -> success(5L));
+
+        // Assert
+        assertThat(result.claimId()).isEqualTo(5L);
+        verifyNoInteractions(claimIdempotencyDB);
+    }
+
+    private ClaimProcessingResult success(long claimId) {
+        return ClaimProcessingResult.success(claimId, "POL-1", "APPROVED", 100.0, List.of("Covered"),
+                objectMapper.createArrayNode(), "Approved");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.entity.ClaimAIResult;
+import com.ai.claim.underwriter.entity.ClaimDecision;
+import com.ai.claim.underwriter.model.ClaimEvidence;
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.ai.claim.underwriter.model.PendingClaimWrite;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimResultWriterTest {
+
+    @Mock
+    private DataBaseOperationService dataBaseOperationService;
+
+    @TempDir
+    Path journalDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ClaimResultWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new ClaimResultWriter(dataBaseOperationService, objectMapper);
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "journalDir", journalDir.toString());
+        // Tests open the journal without starting the writer thread and persist through flush()
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void submit_journalsClaimUntilFlushedInOneBatch() throws Exception {
+        // Arrange
+        when(dataBaseOperationService.toClaimAIResult(any())).thenReturn(new ClaimAIResult());
+        when(dataBaseOperationService.toEvidence(any())).thenReturn(List.of(new PendingClaimWrite.Evidence(null, "chunk", null, 1)));
+        writer.openJournal();
+
+        // Act
+        writer.submit(invoice(), evidence(1L));
+        writer.submit(invoice(), evidence(2L));
+        long journaled = Files.size(journalFile());
+        writer.flush();
+
+        // Assert
+        ArgumentCaptor<List<PendingClaimWrite>> captor = ArgumentCaptor.forClass(List.class);
+        verify(dataBaseOperationService, times(1)).saveClaimResults(captor.capture());
+        assertThat(captor.getValue()).extracting(w -> w.claimDecision().getClaimId()).containsExactly(1L, 2L);
+        assertThat(journaled).isPositive();
+        assertThat(Files.size(journalFile())).isZero();
+    }
+
+    @Test
+    void submit_failedBatch_staysInJournal() throws Exception {
+        // Arrange
+        when(dataBaseOperationService.toClaimAIResult(any())).thenReturn(new ClaimAIResult());
+        when(dataBaseOperationService.toEvidence(any())).thenReturn(List.of());
+        doThrow(new RuntimeException("db down")).when(dataBaseOperationService).saveClaimResults(anyList());
+        writer.openJournal();
+
+        // Act
+        writer.submit(invoice(), evidence(7L));
+        try {
+            writer.flush();
+        } catch (RuntimeException expected) {
+            // the batch is retried by the writer thread or on the next start
+        }
+
+        // Assert
+        assertThat(Files.readString(journalFile())).contains("\"claimId\":7");
+    }
+
+    @Test
+    void openJournal_replaysOnlyUncommittedJournalEntries() throws Exception {
+        // Arrange
+        ClaimDecision committed = decision(1L);
+        ClaimDecision pending = decision(2L);
+        Files.writeString(journalDir.resolve("pending-claim-writes.jsonl"),
+                objectMapper.writeValueAsString(new PendingClaimWrite(1, new ClaimAIResult(), committed, List.of())) + "\n"
+                        + objectMapper.writeValueAsString(new PendingClaimWrite(2, new ClaimAIResult(), pending, List.of())) + "\n"
+                        + "{\"committed\":[1]}\n"
+                        + "{\"sequence\":3,\"claimDec");
+
+        // Act
+        writer.openJournal();
+        writer.flush();
+
+        // Assert
+        ArgumentCaptor<List<PendingClaimWrite>> captor = ArgumentCaptor.forClass(List.class);
+        verify(dataBaseOperationService).saveClaimResults(captor.capture());
+        assertThat(captor.getValue()).extracting(w -> w.claimDecision().getClaimId()).containsExactly(2L);
+        assertThat(Files.size(journalFile())).isZero();
+    }
+
+    @Test
+    void openJournal_skipsJournaledDecisionsAlreadyInDatabase() throws Exception {
+        // Arrange
+        Files.writeString(journalDir.resolve("pending-claim-writes.jsonl"),
+                objectMapper.writeValueAsString(new PendingClaimWrite(1, new ClaimAIResult(), decision(1L), List.of())) + "\n");
+        when(dataBaseOperationService.isSaved(any())).thenReturn(true);
+
+        // Act
+        writer.openJournal();
+        writer.flush();
+
+        // Assert
+        verify(dataBaseOperationService, never()).saveClaimResults(anyList());
+        assertThat(Files.size(journalFile())).isZero();
+    }
+
+    private Path journalFile() {
+        return journalDir.resolve("pending-claim-writes.jsonl");
+    }
+
+    private static ExtractedInvoice invoice() {
+        return new ExtractedInvoice("John", "INV-1", "2024-01-15", 100.0, "INR", "Hospital", List.of(), Map.of());
+    }
+
+    private static ClaimEvidence evidence(long claimId) {
+        return new ClaimEvidence(List.of(), decision(claimId), List.of(), "[]");
+    }
+
+    private static ClaimDecision decision(long claimId) {
+        ClaimDecision decision = new ClaimDecision();
+        decision.setClaimId(claimId);
+        decision.setDecision("APPROVED");
+        decision.setCreatedAt(LocalDateTime.now());
+        return decision;
+    }
+}
@@ -6,6 +6,7 @@ import com.ai.claim.underwriter.entity.ClaimDecisionEvidence;
 import com.ai.claim.underwriter.model.ClaimEvidence;
 import com.ai.claim.underwriter.model.ClaimExtractionResult;
 import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.ai.claim.underwriter.model.PendingClaimWrite;
 import com.ai.claim.underwriter.repository.ClaimAIResultDB;
 import com.ai.claim.underwriter.repository.ClaimDecisionDB;
 import com.ai.claim.underwriter.repository.ClaimDecisionEvidenceDB;
@@ -167,6 +168,88 @@ class DataBaseOperationServiceTest {
         assertThat(saved.getAiStatus()).isEqualTo("NEEDS_INFO");
     }
 
+    @Test
+    void saveClaimResults_savesEachTableOnceAndLinksEvidenceToSavedDecisions() {
+        // Arrange
+        ClaimDecision first = new ClaimDecision();
+        first.setClaimId(1L);
+        ClaimDecision second = new ClaimDecision();
+        second.setClaimId(2L);
+        ClaimDecision savedFirst = new ClaimDecision();
+        savedFirst.setId(11L);
+        ClaimDecision savedSecond = new ClaimDecision();
+        savedSecond.setId(12L);
+        when(claimDecisionDB.saveAll(anyList())).thenReturn(List.of(savedFirst, savedSecond));
+        List<PendingClaimWrite> writes = List.of(
+                new PendingClaimWrite(1, new ClaimAIResult(), first, List.of(new PendingClaimWrite.Evidence(null, "a", null, 1))),
+                new PendingClaimWrite(2, new ClaimAIResult(), second, List.of(
+                        new PendingClaimWrite.Evidence(null, "b", new BigDecimal("0.5000"), 1),
+                        new PendingClaimWrite.Evidence(null, "c", null, 2))));
+
+        // Act
+        service.saveClaimResults(writes);
+
+        // Assert
+        ArgumentCaptor<List<ClaimDecisionEvidence>> captor = ArgumentCaptor.forClass(List.class);
+        verify(claimAIResultDB).saveAll(argThat(results -> ((Collection<?>) results).size() == 2));
+        verify(claimDecisionEvidenceDB).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(ClaimDecisionEvidence::getChunkText).containsExactly("a", "b", "c");
+        assertThat(captor.getValue()).extracting(ClaimDecisionEvidence::getClaimDecision)
+                .containsExactly(savedFirst, savedSecond, savedSecond);
+    }
+
+    @Test
+    void saveClaimResults_assignsIdsToBatchAndLinksEvidenceToThoseIds() {
+        // Arrange: saveAll persists the given instances, assigning ids from the sequence like Hibernate does
+        long[] sequence = {100};
+        when(claimDecisionDB.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ClaimDecision> batch = invocation.getArgument(0);
+            batch.forEach(decision -> decision.setId(sequence[0]++));
+            return batch;
+        });
+        when(claimDecisionEvidenceDB.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ClaimDecisionEvidence> batch = invocation.getArgument(0);
+            batch.forEach(evidence -> evidence.setId(sequence[0]++));
+            return batch;
+        });
+        List<PendingClaimWrite> writes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ClaimDecision decision = new ClaimDecision();
+            decision.setClaimId(i + 1L);
+            writes.add(new PendingClaimWrite(i, null, decision, List.of(
+                    new PendingClaimWrite.Evidence(null, "chunk-" + i, null, 1))));
+        }
+
+        // Act
+        service.saveClaimResults(writes);
+
+        // Assert
+        ArgumentCaptor<List<ClaimDecisionEvidence>> captor = ArgumentCaptor.forClass(List.class);
+        verify(claimDecisionDB, times(1)).saveAll(anyList());
+        verify(claimDecisionEvidenceDB, times(1)).saveAll(captor.capture());
+        assertThat(writes).extracting(write -> write.claimDecision().getId()).containsExactly(100L, 101L, 102L);
+        assertThat(captor.getValue()).extracting(ClaimDecisionEvidence::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(captor.getValue()).extracting(evidence -> evidence.getClaimDecision().getId())
+                .containsExactly(100L, 101L, 102L);
+        assertThat(captor.getValue()).extracting(evidence -> evidence.getClaimDecision().getClaimId())
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void toEvidence_roundsNumericScoresAndDropsOthers() {
+        // Arrange
+        ClaimEvidence claimEvidence = new ClaimEvidence(List.of(
+                new Document("Evidence text 1", Map.of("score", 0.123456)),
+                new Document("Evidence text 2", Map.of("score", "n/a"))), new ClaimDecision(), List.of(), "[]");
+
+        // Act
+        List<PendingClaimWrite.Evidence> evidence = service.toEvidence(claimEvidence);
+
+        // Assert
+        assertThat(evidence.get(0).score()).isEqualByComparingTo(new BigDecimal("0.1235"));
+        assertThat(evidence.get(1).score()).isNull();
+    }
+
     @Test
     void saveIntoClaimEvidenceDB_withValidEvidence_savesAllEvidences() {
         // Arrange
@@ -195,13 +278,33 @@ class DataBaseOperationServiceTest {
 
         List<ClaimDecisionEvidence> saved = captor.getValue();
         assertThat(saved).hasSize(2);
-        assertThat(saved.get(0).getChunkText()).isEqualTo("Evidence text 1");
+        assertThat(saved.get(0).getChunkId()).isEqualTo(UUID.fromString(doc1.getId()));
+        assertThat(saved.get(0).getChunkText()).isNull();
+        assertThat(saved.get(0).getRank()).isEqualTo(1);
         assertThat(saved.get(0).getScore()).isEqualByComparingTo(new BigDecimal("0.9500"));
         assertThat(saved.get(0).getClaimDecision()).isEqualTo(decision);
-        assertThat(saved.get(1).getChunkText()).isEqualTo("Evidence text 2");
+        assertThat(saved.get(1).getChunkId()).isEqualTo(UUID.fromString(doc2.getId()));
+        assertThat(saved.get(1).getRank()).isEqualTo(2);
         assertThat(saved.get(1).getScore()).isEqualByComparingTo(new BigDecimal("0.8500"));
     }
 
+    @Test
+    void saveIntoClaimEvidenceDB_chunkWithoutPolicyChunkId_keepsItsText() {
+        // Arrange
+        ClaimDecision decision = new ClaimDecision();
+        Document doc = Document.builder().id("manual-1").text("Evidence text").metadata(Map.of("score", 0.5)).build();
+        ClaimEvidence claimEvidence = new ClaimEvidence(List.of(doc), decision, List.of("Evidence text"), "[]");
+
+        // Act
+        service.saveIntoClaimEvidenceDB(claimEvidence);
+
+        // Assert
+        ArgumentCaptor<List<ClaimDecisionEvidence>> captor = ArgumentCaptor.forClass(List.class);
+        verify(claimDecisionEvidenceDB).saveAll(captor.capture());
+        assertThat(captor.getValue().get(0).getChunkId()).isNull();
+        assertThat(captor.getValue().get(0).getChunkText()).isEqualTo("Evidence text");
+    }
+
     @Test
     void saveIntoClaimDecisionDB_withValidEvidence_savesDecision() {
         // Arrange
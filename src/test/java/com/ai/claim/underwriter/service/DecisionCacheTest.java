@@ -0,0 +1,133 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecisionCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private DecisionCache cache;
+    private JsonNode classification;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = new DecisionCache(objectMapper, 10);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        classification = objectMapper.readTree("""
+                {"policyTerms":{"opdCopayPercent":10},
+                 "itemizedDecisions":[
+                   {"service":"Consultation - Dr. Rao","amount":800,"covered":true,"careType":"OPD"},
+                   {"service":"Complete Blood Count Test","amount":1200,"covered":true,"careType":"OPD"},
+                   {"service":"Cosmetic Rhinoplasty","amount":30000,"covered":false,"reason":"Cosmetic, section 4.2"}],
+                 "reasons":["Rhinoplasty excluded"],
+                 "letter":"Payable {{PAYABLE_AMOUNT}}"}
+                """);
+    }
+
+    @Test
+    void lookup_sameItemsInAnyOrder_isExactHitWithOwnAmounts() {
+        // Arrange
+        cache.store("POL-1", "JOHN", items("Consultation - Dr. Rao", 800.0, "Complete Blood Count Test", 1200.0),
+                classification, List.of(new Document("chunk")), 7L);
+
+        // Act
+        Optional<DecisionCache.Hit> hit = cache.lookup("POL-1", "JOHN",
+                items("complete blood count test", 1200.0, "CONSULTATION DR RAO", 800.0));
+
+        // Assert
+        assertThat(hit).isPresent();
+        assertThat(hit.get().source()).isEqualTo(DecisionCache.SOURCE_CACHE_EXACT);
+        assertThat(hit.get().sourceClaimId()).isEqualTo(7L);
+        assertThat(hit.get().matches()).extracting(Document::getText).containsExactly("chunk");
+        JsonNode itemized = hit.get().classification().path("itemizedDecisions");
+        assertThat(itemized.get(0).path("service").asText()).isEqualTo("complete blood count test");
+        assertThat(itemized.get(0).path("amount").asDouble()).isEqualTo(1200.0);
+        assertThat(itemized.get(0).path("covered").asBoolean()).isTrue();
+        assertThat(hit.get().classification().path("policyTerms").path("opdCopayPercent").asInt()).isEqualTo(10);
+        assertThat(hit.get().classification().path("letter").asText()).isEqualTo("Payable {{PAYABLE_AMOUNT}}");
+    }
+
+    @Test
+    void lookup_similarDescriptions_isSimilarHitAndKeepsExclusionReason() {
+        // Arrange
+        cache.store("POL-1", "JOHN", items("Cosmetic Rhinoplasty", 30000.0), classification, List.of(), 7L);
+
+        // Act
+        Optional<DecisionCache.Hit> hit = cache.lookup("POL-1", "JOHN", items("Rhinoplasty (cosmetic)", 25000.0));
+
+        // Assert
+        assertThat(hit).isPresent();
+        assertThat(hit.get().source()).isEqualTo(DecisionCache.SOURCE_CACHE_SIMILAR);
+        JsonNode item = hit.get().classification().path("itemizedDecisions").get(0);
+        assertThat(item.path("covered").asBoolean()).isFalse();
+        assertThat(item.path("reason").asText()).isEqualTo("Cosmetic, section 4.2");
+        assertThat(hit.get().classification().path("reasons").get(0).asText())
+                .isEqualTo("Rhinoplasty (cosmetic) excluded: Cosmetic, section 4.2");
+    }
+
+    @Test
+    void lookup_itemWithoutMatchingClassification_misses() {
+        // Arrange
+        cache.store("POL-1", "JOHN", items("Consultation - Dr. Rao", 800.0), classification, List.of(), 7L);
+
+        // Act & Assert
+        assertThat(cache.lookup("POL-1", "JOHN", items("Consultation - Dr. Rao", 800.0, "MRI Brain", 9000.0))).isEmpty();
+        assertThat(cache.lookup("POL-1", "JANE", items("Consultation - Dr. Rao", 800.0))).isEmpty();
+        assertThat(cache.lookup("POL-2", "JOHN", items("Consultation - Dr. Rao", 800.0))).isEmpty();
+    }
+
+    @Test
+    void lookup_afterTtlOrInvalidate_misses() {
+        // Arrange
+        cache.store("POL-1", "JOHN", items("Consultation - Dr. Rao", 800.0), classification, List.of(), 7L);
+        cache.store("POL-2", "JOHN", items("Consultation - Dr. Rao", 800.0), classification, List.of(), 8L);
+
+        // Act
+        cache.invalidate("POL-1");
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 0L);
+
+        // Assert
+        assertThat(cache.lookup("POL-1", "JOHN", items("Consultation - Dr. Rao", 800.0))).isEmpty();
+        assertThat(cache.lookup("POL-2", "JOHN", items("Consultation - Dr. Rao", 800.0))).isEmpty();
+    }
+
+    @Test
+    void disabledCache_neitherStoresNorHits() {
+        // Arrange
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        cache.store("POL-1", "JOHN", items("Consultation - Dr. Rao", 800.0), classification, List.of(), 7L);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+
+        // Act & Assert
+        assertThat(cache.lookup("POL-1", "JOHN", items("Consultation - Dr. Rao", 800.0))).isEmpty();
+    }
+
+    @Test
+    void fingerprintAndSimilarity_normalizeDescriptions() {
+        // Act & Assert
+        assertThat(DecisionCache.fingerprint(items("X-Ray  Chest", 1800.4, "Blood Test", 500.0)))
+                .isEqualTo("blood test=500;x ray chest=1800");
+        assertThat(DecisionCache.similarity(Set.of("cosmetic", "rhinoplasty"), Set.of("rhinoplasty", "cosmetic"))).isEqualTo(1.0);
+        assertThat(DecisionCache.similarity(Set.of("blood", "test"), Set.of("urine", "test"))).isEqualTo(1.0 / 3);
+    }
+
+    private static List<ExtractedInvoice.LineItem> items(Object... descriptionsAndAmounts) {
+        List<ExtractedInvoice.LineItem> items = new ArrayList<>();
+        for (int i = 0; i < descriptionsAndAmounts.length; i += 2) {
+            items.add(new ExtractedInvoice.LineItem((String) descriptionsAndAmounts[i], (Double) descriptionsAndAmounts[i + 1], 0.9));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,140 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.entity.ClaimDecision;
+import com.ai.claim.underwriter.model.DecisionLetter;
+import com.ai.claim.underwriter.model.DecisionLetterRequest;
+import com.ai.claim.underwriter.model.ItemizedDecision;
+import com.ai.claim.underwriter.model.PolicyTerms;
+import com.ai.claim.underwriter.repository.ClaimDecisionDB;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DecisionLetterServiceTest {
+
+    private static final DecisionLetterRequest REQUEST = new DecisionLetterRequest(42L, "John Doe", "POL-1",
+            "Consultation 1000",
+            List.of(new ItemizedDecision("Consultation", 1000.0, true, null, null, "OPD", null)),
+            List.of("Consultation covered"),
+            new PolicyTerms(10.0, 0.0, 0.0, null, null));
+
+    @Mock
+    private ClaimDecisionDB claimDecisionDB;
+
+    private ChatClient chatClient;
+    private DecisionLetterService service;
+
+    @BeforeEach
+    void setUp() {
+        chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        when(builder.build()).thenReturn(chatClient);
+        Executor direct = Runnable::run;
+        service = new DecisionLetterService(builder, new BenefitCalculator(), claimDecisionDB, direct);
+        service.decisionLetterPrompt = new ByteArrayResource("write the letter".getBytes(StandardCharsets.UTF_8));
+        service.decisionLetterFallback = new ByteArrayResource(
+                "Dear {{PATIENT_NAME}}, {{POLICY_NUMBER}}: {{DECISION}} {{PAYABLE_AMOUNT}}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void generateAsync_fillsPlaceholdersAndAttachesLetter() {
+        // Arrange
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).call().content())
+                .thenReturn("Dear John, {{DECISION}}: {{PAYABLE_AMOUNT}} of {{CLAIM_AMOUNT}}");
+        ClaimDecision claimDecision = new ClaimDecision();
+
+        // Act
+        String letter = service.generateAsync(claimDecision, REQUEST).join();
+
+        // Assert
+        assertThat(letter).isEqualTo("Dear John, PARTIAL: ₹900 of ₹1,000");
+        assertThat(claimDecision.getLetter()).isEqualTo(letter);
+        verify(claimDecisionDB).updateLatestLetterWhereMissing(42L, letter);
+    }
+
+    @Test
+    void generateAsync_savedDecision_updatesOnlyThatDecision() {
+        // Arrange
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).call().content())
+                .thenReturn("{{DECISION}}");
+        ClaimDecision claimDecision = new ClaimDecision();
+        claimDecision.setId(7L);
+
+        // Act
+        String letter = service.generateAsync(claimDecision, REQUEST).join();
+
+        // Assert
+        verify(claimDecisionDB).updateLetterWhereMissing(7L, letter);
+        verify(claimDecisionDB, never()).updateLatestLetterWhereMissing(anyLong(), anyString());
+    }
+
+    @Test
+    void generateAsync_withConfiguredModel_usesIt() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "model", "gpt-4o-mini");
+        ChatClient.ChatClientRequestSpec spec = chatClient.prompt().system(any(Resource.class)).user(anyString());
+        when(spec.options(any()).call().content()).thenReturn("{{DECISION}}");
+
+        // Act
+        service.generateAsync(new ClaimDecision(), REQUEST).join();
+
+        // Assert
+        ArgumentCaptor<ChatOptions> options = ArgumentCaptor.forClass(ChatOptions.class);
+        verify(spec, atLeastOnce()).options(options.capture());
+        assertThat(options.getAllValues()).anyMatch(o -> o != null && "gpt-4o-mini".equals(o.getModel()));
+    }
+
+    @Test
+    void generateAsync_modelFails_usesStandardLetter() {
+        // Arrange
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any()).call().content())
+                .thenThrow(new RuntimeException("rate limited"));
+
+        // Act
+        String letter = service.generateAsync(new ClaimDecision(), REQUEST).join();
+
+        // Assert
+        assertThat(letter).isEqualTo("Dear John Doe, POL-1: PARTIAL ₹900");
+    }
+
+    @Test
+    void letterFor_pendingStoredOrMissing() {
+        // Arrange
+        ClaimDecision stored = new ClaimDecision();
+        stored.setLetter("Dear John");
+        when(claimDecisionDB.findLatestByClaimId(1L)).thenReturn(Optional.of(List.of(stored)));
+        when(claimDecisionDB.findLatestByClaimId(2L)).thenReturn(Optional.of(List.of()));
+        Executor never = task -> {
+        };
+        DecisionLetterService queued = new DecisionLetterService(mock(ChatClient.Builder.class, RETURNS_DEEP_STUBS),
+                new BenefitCalculator(), claimDecisionDB, never);
+        CompletableFuture<String> unfinished = queued.generateAsync(new ClaimDecision(), REQUEST);
+
+        // Act & Assert
+        assertThat(unfinished).isNotDone();
+        assertThat(queued.letterFor(42L).status()).isEqualTo(DecisionLetter.PENDING);
+        assertThat(service.letterFor(1L)).isEqualTo(new DecisionLetter(1L, DecisionLetter.READY, "Dear John"));
+        assertThat(service.letterFor(2L).status()).isEqualTo(DecisionLetter.NOT_FOUND);
+    }
+}
@@ -4,6 +4,7 @@ import com.ai.claim.underwriter.model.ExtractedInvoice;
 import com.ai.claim.underwriter.model.LineItemsOnly;
 import com.ai.claim.underwriter.model.MetadataOnly;
 import com.ai.claim.underwriter.model.InvoiceContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -40,7 +41,8 @@ class InvoiceExtractorServiceTest {
         when(chatClientBuilder.build()).thenReturn(chatClient);
         invoiceContext = new InvoiceContext();
         executor = Runnable::run; // Direct execution for tests
-        service = new InvoiceExtractorService(chatClientBuilder, invoiceContext, executor);
+        service = new InvoiceExtractorService(chatClientBuilder, invoiceContext, executor,
+                new ModelRouter(new SimpleMeterRegistry(), "gpt-4o", "", ""));
     }
 
 
@@ -56,4 +58,57 @@ class InvoiceExtractorServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Failed to parse invoice");
     }
+
+    @Test
+    void isCompleteMetadata_requiresPatientInvoiceNumberAndPositiveTotal() {
+        // Arrange
+        MetadataOnly complete = new MetadataOnly("Ravi", "INV-1", "2024-01-01", 1200.0, "INR", "City Hospital");
+        MetadataOnly missingTotal = new MetadataOnly("Ravi", "INV-1", "2024-01-01", null, "INR", "City Hospital");
+        MetadataOnly blankPatient = new MetadataOnly(" ", "INV-1", "2024-01-01", 1200.0, "INR", "City Hospital");
+
+        // Act & Assert
+        assertThat(InvoiceExtractorService.isCompleteMetadata(complete)).isTrue();
+        assertThat(InvoiceExtractorService.isCompleteMetadata(missingTotal)).isFalse();
+        assertThat(InvoiceExtractorService.isCompleteMetadata(blankPatient)).isFalse();
+    }
+
+    @Test
+    void isConfidentLineItems_lowMeanConfidenceOrEmptyList_fails() {
+        // Arrange
+        LineItemsOnly confident = new LineItemsOnly(List.of(
+                new ExtractedInvoice.LineItem("Consultation", 500.0, 0.9),
+                new ExtractedInvoice.LineItem("X-Ray", 800.0, 0.7)));
+        LineItemsOnly unsure = new LineItemsOnly(List.of(
+                new ExtractedInvoice.LineItem("Consultation", 500.0, 0.9),
+                new ExtractedInvoice.LineItem("X-Ray", 800.0, 0.3)));
+
+        // Act & Assert
+        assertThat(service.isConfidentLineItems(confident)).isTrue();
+        assertThat(service.isConfidentLineItems(unsure)).isFalse();
+        assertThat(service.isConfidentLineItems(new LineItemsOnly(List.of()))).isFalse();
+    }
+
+    @Test
+    void estimateLineItemCount_countsAmountLinesInItemizedSection() {
+        String invoice = """
+                City Hospital
+                Patient: Rajesh Kumar
+                Invoice No: INV-1001
+                ITEMIZED SERVICES
+                Blood Test (CBC)            2,500.00
+                X-Ray Chest                 ₹ 1800
+                Consultation Fee            700
+                Sub Total                   5,000.00
+                GST 5%                      250.00
+                Grand Total                 5,250.00
+                """;
+
+        assertThat(service.estimateLineItemCount(invoice)).isEqualTo(3);
+    }
+
+    @Test
+    void estimateLineItemCount_withBlankText_returnsZero() {
+        assertThat(service.estimateLineItemCount("")).isZero();
+        assertThat(service.estimateLineItemCount(null)).isZero();
+    }
 }
@@ -0,0 +1,119 @@
+package com.ai.claim.underwriter.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.ChatOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelRouterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ModelRouter router;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        router = new ModelRouter(meterRegistry, "gpt-4o", "gpt-4o-mini, gpt-4o", "");
+    }
+
+    @Test
+    void constructor_parsesLaddersAndBlankMeansDefaultModel() {
+        // Assert
+        assertThat(router.ladder(ModelRouter.Stage.METADATA)).containsExactly("gpt-4o");
+        assertThat(router.ladder(ModelRouter.Stage.LINE_ITEMS)).containsExactly("gpt-4o-mini", "gpt-4o");
+        assertThat(router.ladder(ModelRouter.Stage.ADJUDICATION)).containsExactly("");
+    }
+
+    @Test
+    void route_acceptedOnCheapModel_doesNotEscalate() {
+        // Arrange
+        List<String> models = new ArrayList<>();
+
+        // Act
+        String result = router.route(ModelRouter.Stage.LINE_ITEMS, model -> {
+            models.add(model);
+            return "ok";
+        }, r -> true);
+
+        // Assert
+        assertThat(result).isEqualTo("ok");
+        assertThat(models).containsExactly("gpt-4o-mini");
+        assertThat(count("claim.model.escalations", "line-items", "gpt-4o-mini")).isZero();
+    }
+
+    @Test
+    void route_rejectedResult_escalatesAndCounts() {
+        // Arrange
+        List<String> models = new ArrayList<>();
+
+        // Act
+        String result = router.route(ModelRouter.Stage.LINE_ITEMS, model -> {
+            models.add(model);
+            return model;
+        }, r -> r.equals("gpt-4o"));
+
+        // Assert
+        assertThat(result).isEqualTo("gpt-4o");
+        assertThat(models).containsExactly("gpt-4o-mini", "gpt-4o");
+        assertThat(count("claim.model.calls", "line-items", "gpt-4o-mini")).isEqualTo(1.0);
+        assertThat(count("claim.model.calls", "line-items", "gpt-4o")).isEqualTo(1.0);
+        assertThat(count("claim.model.escalations", "line-items", "gpt-4o-mini")).isEqualTo(1.0);
+    }
+
+    @Test
+    void route_exceptionOnCheapModel_escalates() {
+        // Act
+        String result = router.route(ModelRouter.Stage.LINE_ITEMS, model -> {
+            if (model.equals("gpt-4o-mini")) {
+                throw new IllegalStateException("bad output");
+            }
+            return "ok";
+        }, r -> true);
+
+        // Assert
+        assertThat(result).isEqualTo("ok");
+        assertThat(count("claim.model.escalations", "line-items", "gpt-4o-mini")).isEqualTo(1.0);
+    }
+
+    @Test
+    void route_lastRungRejected_returnsItsResult() {
+        // Act
+        String result = router.route(ModelRouter.Stage.METADATA, model -> "partial", r -> false);
+
+        // Assert
+        assertThat(result).isEqualTo("partial");
+        assertThat(count("claim.model.calls", "metadata", "gpt-4o")).isEqualTo(1.0);
+    }
+
+    @Test
+    void route_lastRungFails_rethrows() {
+        // Act & Assert
+        assertThatThrownBy(() -> router.route(ModelRouter.Stage.ADJUDICATION, model -> {
+            throw new IllegalStateException("down");
+        }, r -> true)).isInstanceOf(IllegalStateException.class).hasMessage("down");
+        assertThat(count("claim.model.calls", "adjudication", "default")).isEqualTo(1.0);
+    }
+
+    @Test
+    void options_blankModel_leavesModelUnset() {
+        // Act
+        ChatOptions defaults = ModelRouter.options("");
+        ChatOptions mini = ModelRouter.options("gpt-4o-mini");
+
+        // Assert
+        assertThat(defaults.getModel()).isNull();
+        assertThat(defaults.getTemperature()).isEqualTo(0.0);
+        assertThat(mini.getModel()).isEqualTo("gpt-4o-mini");
+    }
+
+    private double count(String name, String stage, String model) {
+        var counter = meterRegistry.find(name).tag("stage", stage).tag("model", model).counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+}
@@ -0,0 +1,113 @@
+package com.ai.claim.underwriter.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceServiceTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2024, 3);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PartitionMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PartitionMaintenanceService(jdbcTemplate);
+        ReflectionTestUtils.setField(service, "monthsAhead", 1);
+    }
+
+    @Test
+    void maintain_createsMissingMonthlyPartitionsOfPartitionedTablesOnly() {
+        // Arrange
+        partitioned("claim_decisions", true, "claim_decisions_default", "claim_decisions_p202403");
+        partitioned("claim_decision_evidence", false);
+        partitioned("claim_ai_result", true);
+
+        // Act
+        service.maintain(MARCH);
+
+        // Assert
+        ArgumentCaptor<String> ddl = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(3)).execute(ddl.capture());
+        assertThat(ddl.getAllValues()).containsExactly(
+                "CREATE TABLE IF NOT EXISTS claim_decisions_p202404 PARTITION OF claim_decisions FOR VALUES FROM ('2024-04-01') TO ('2024-05-01')",
+                "CREATE TABLE IF NOT EXISTS claim_ai_result_p202403 PARTITION OF claim_ai_result FOR VALUES FROM ('2024-03-01') TO ('2024-04-01')",
+                "CREATE TABLE IF NOT EXISTS claim_ai_result_p202404 PARTITION OF claim_ai_result FOR VALUES FROM ('2024-04-01') TO ('2024-05-01')");
+    }
+
+    @Test
+    void maintain_failedCreate_continuesWithNextPartition() {
+        // Arrange
+        partitioned("claim_decisions", true);
+        partitioned("claim_decision_evidence", false);
+        partitioned("claim_ai_result", false);
+        doThrow(new DataIntegrityViolationException("default partition would be violated"))
+                .when(jdbcTemplate).execute(contains("claim_decisions_p202403"));
+
+        // Act
+        service.maintain(MARCH);
+
+        // Assert
+        verify(jdbcTemplate).execute(contains("claim_decisions_p202404"));
+    }
+
+    @Test
+    void maintain_withRetention_detachesExpiredPartitionsIntoArchiveSchema() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "monthsAhead", 0);
+        ReflectionTestUtils.setField(service, "retentionMonths", 12);
+        partitioned("claim_decisions", true, "claim_decisions_legacy", "claim_decisions_default",
+                "claim_decisions_p202302", "claim_decisions_p202303", "claim_decisions_p202403");
+        partitioned("claim_decision_evidence", false);
+        partitioned("claim_ai_result", false);
+
+        // Act
+        service.maintain(MARCH);
+
+        // Assert
+        verify(jdbcTemplate).execute("ALTER TABLE claim_decisions DETACH PARTITION claim_decisions_p202302");
+        verify(jdbcTemplate).execute("CREATE SCHEMA IF NOT EXISTS claim_archive");
+        verify(jdbcTemplate).execute("ALTER TABLE claim_decisions_p202302 SET SCHEMA claim_archive");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE claim_decisions DETACH PARTITION claim_decisions_p202303");
+        verify(jdbcTemplate, never()).execute(contains("claim_decisions_legacy"));
+        verify(jdbcTemplate, never()).execute(contains("claim_decisions_default"));
+    }
+
+    @Test
+    void scheduledMaintenance_disabled_doesNothing() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        // Act
+        service.scheduledMaintenance();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private void partitioned(String table, boolean partitioned, String... partitions) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq(table))).thenReturn(partitioned);
+        if (partitioned) {
+            when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(table))).thenReturn(List.of(partitions));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.ai.claim.underwriter.model.PolicyChunk;
+import com.ai.claim.underwriter.repository.PolicyChunkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PolicyEvidenceRetrieverTest {
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    @Mock
+    private PolicyChunkRepository policyChunkRepository;
+
+    @Mock
+    private PolicyVectorIndex policyVectorIndex;
+
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    private PolicyEvidenceRetriever retriever;
+
+    @BeforeEach
+    void setUp() {
+        retriever = new PolicyEvidenceRetriever(policyChunkRepository, policyVectorIndex, embeddingModel, DIRECT_EXECUTOR);
+        ReflectionTestUtils.setField(retriever, "topK", 3);
+        lenient().when(embeddingModel.embed(anyString())).thenReturn(new float[]{1f, 0f});
+    }
+
+    @Test
+    void retrieve_fusesVectorAndLexicalRankings() {
+        // Arrange
+        when(policyChunkRepository.searchVector(anyString(), anyString(), any(float[].class), anyInt()))
+                .thenReturn(List.of(doc("room"), doc("icu"), doc("general")));
+        when(policyChunkRepository.searchLexical(eq("POL-1"), eq("JOHN DOE"), anyString(), anyInt()))
+                .thenReturn(List.of(doc("exclusion"), doc("icu")));
+
+        // Act
+        List<Document> result = retriever.retrieve("POL-1", "JOHN DOE", "Amoxicillin 500mg, ICU charges");
+
+        // Assert: "icu" is in both lists, "exclusion" is lexical-only but ranked first there
+        assertThat(result).extracting(Document::getId).containsExactly("icu", "room", "exclusion");
+        assertThat(result.get(0).getScore()).isGreaterThan(result.get(1).getScore());
+    }
+
+    @Test
+    void retrieve_whenLexicalSearchFails_usesVectorResults() {
+        // Arrange
+        when(policyChunkRepository.searchVector(anyString(), anyString(), any(float[].class), anyInt())).thenReturn(List.of(doc("room")));
+        when(policyChunkRepository.searchLexical(anyString(), anyString(), anyString(), anyInt()))
+                .thenThrow(new IllegalStateException("relation does not exist"));
+
+        // Act
+        List<Document> result = retriever.retrieve("POL-1", "JOHN DOE", "room charges");
+
+        // Assert
+        assertThat(result).extracting(Document::getId).containsExactly("room");
+    }
+
+    @Test
+    void retrieve_withLexicalDisabled_skipsFullTextSearch() {
+        // Arrange
+        ReflectionTestUtils.setField(retriever, "lexicalEnabled", false);
+        when(policyChunkRepository.searchVector(anyString(), anyString(), any(float[].class), anyInt())).thenReturn(List.of(doc("room")));
+
+        // Act
+        retriever.retrieve("POL-1", "JOHN DOE", "room charges");
+
+        // Assert
+        verify(policyChunkRepository, never()).searchLexical(anyString(), anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void retrieve_searchesVectorsWithQueryEmbeddingOnTypedColumns() {
+        // Arrange
+        float[] embedding = {0.3f, 0.7f};
+        when(embeddingModel.embed("room charges")).thenReturn(embedding);
+        when(policyChunkRepository.searchVector("POL-1", "JOHN DOE", embedding, 10)).thenReturn(List.of(doc("room")));
+
+        // Act
+        List<Document> result = retriever.retrieve("POL-1", "JOHN DOE", "room charges");
+
+        // Assert
+        assertThat(result).extracting(Document::getId).containsExactly("room");
+    }
+
+    @Test
+    void fuse_ordersByReciprocalRankAndLimits() {
+        // Act
+        List<Document> fused = PolicyEvidenceRetriever.fuse(
+                List.of(List.of(doc("a"), doc("b"), doc("c")), List.of(doc("c"), doc("d"))), 60, 2);
+
+        // Assert
+        assertThat(fused).extracting(Document::getId).containsExactly("c", "a");
+    }
+
+    @Test
+    void toTsQuery_keepsDistinctAlphanumericTermsOnly() {
+        // Act
+        String query = PolicyEvidenceRetriever.toTsQuery("Amoxicillin 500mg & ICU: icu'); DROP TABLE x; -- J1234");
+
+        // Assert
+        assertThat(query).isEqualTo("amoxicillin | 500mg | icu | drop | table | j1234");
+        assertThat(PolicyEvidenceRetriever.toTsQuery(null)).isEmpty();
+    }
+
+    @Test
+    void retrieve_withManyLineItemsAndPerCategoryEnabled_queriesEachCategory() {
+        // Arrange
+        ReflectionTestUtils.setField(retriever, "perCategoryEnabled", true);
+        ReflectionTestUtils.setField(retriever, "perCategoryMinLineItems", 2);
+        when(embeddingModel.embed(anyString()))
+                .thenAnswer(invocation -> invocation.<String>getArgument(0).startsWith("room") ? new float[]{1f, 0f} : new float[]{0f, 1f});
+        when(policyChunkRepository.searchVector(anyString(), anyString(), any(float[].class), anyInt())).thenAnswer(invocation -> {
+            float[] embedding = invocation.getArgument(2);
+            return embedding[0] > 0 ? List.of(doc("room-cap"), doc("general")) : List.of(doc("pharmacy-excl"), doc("general"));
+        });
+        List<ExtractedInvoice.LineItem> items = List.of(
+                new ExtractedInvoice.LineItem("Room Rent", 2000.0, 0.9),
+                new ExtractedInvoice.LineItem("Paracetamol 500mg", 50.0, 0.9));
+
+        // Act
+        List<Document> result = retriever.retrieve("POL-1", "JOHN DOE", "summary", items);
+
+        // Assert: one vector search per category, shared chunk ranked first, no duplicates
+        verify(policyChunkRepository, times(2)).searchVector(eq("POL-1"), eq("JOHN DOE"), any(float[].class), anyInt());
+        assertThat(result).extracting(Document::getId).containsExactly("general", "room-cap", "pharmacy-excl");
+    }
+
+    @Test
+    void retrieve_withFewLineItems_usesSingleQuery() {
+        // Arrange
+        ReflectionTestUtils.setField(retriever, "perCategoryEnabled", true);
+        when(policyChunkRepository.searchVector(anyString(), anyString(), any(float[].class), anyInt())).thenReturn(List.of(doc("room")));
+
+        // Act
+        retriever.retrieve("POL-1", "JOHN DOE", "summary", List.of(new ExtractedInvoice.LineItem("Room Rent", 2000.0, 0.9)));
+
+        // Assert
+        verify(policyChunkRepository, times(1)).searchVector(anyString(), anyString(), any(float[].class), anyInt());
+    }
+
+    @Test
+    void bound_limitsChunkCountAndTotalSizeButKeepsBest() {
+        // Arrange
+        Document big = Document.builder().id("big").text("x".repeat(500)).build();
+        List<Document> ranked = List.of(big, doc("a"), doc("b"), doc("c"));
+
+        // Act & Assert
+        assertThat(PolicyEvidenceRetriever.bound(ranked, 10, 100)).extracting(Document::getId).containsExactly("big");
+        assertThat(PolicyEvidenceRetriever.bound(ranked, 2, 10_000)).extracting(Document::getId).containsExactly("big", "a");
+    }
+
+    @Test
+    void retrieve_withInMemoryIndex_doesNotQueryDatabaseSearches() {
+        // Arrange
+        ReflectionTestUtils.setField(retriever, "inMemoryEnabled", true);
+        PolicyVectorIndex.PolicySnapshot snapshot = PolicyVectorIndex.PolicySnapshot.of(List.of(
+                new PolicyChunk("c1", "Room rent is covered up to 1% of sum insured", Map.of(), new float[]{1f, 0f}),
+                new PolicyChunk("c2", "Amoxicillin is excluded", Map.of(), new float[]{0f, 1f})));
+        when(policyVectorIndex.snapshot("POL-1", "JOHN DOE")).thenReturn(snapshot);
+        when(embeddingModel.embed(anyString())).thenReturn(new float[]{0.9f, 0.1f});
+
+        // Act
+        List<Document> result = retriever.retrieve("POL-1", "JOHN DOE", "Amoxicillin 500mg");
+
+        // Assert
+        assertThat(result).extracting(Document::getId).containsExactlyInAnyOrder("c1", "c2");
+        assertThat(result.get(0).getId()).isEqualTo("c2");
+        verifyNoInteractions(policyChunkRepository);
+    }
+
+    @Test
+    void retrieve_withInMemoryIndexMiss_fallsBackToDatabase() {
+        // Arrange
+        ReflectionTestUtils.setField(retriever, "inMemoryEnabled", true);
+        when(policyVectorIndex.snapshot(anyString(), anyString())).thenReturn(null);
+        when(policyChunkRepository.searchVector(anyString(), anyString(), any(float[].class), anyInt())).thenReturn(List.of(doc("room")));
+
+        // Act
+        List<Document> result = retriever.retrieve("POL-1", "JOHN DOE", "room");
+
+        // Assert
+        assertThat(result).extracting(Document::getId).containsExactly("room");
+    }
+
+    private static Document doc(String id) {
+        return Document.builder().id(id).text("chunk " + id).build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.entity.Policy;
+import com.ai.claim.underwriter.model.PolicyTerms;
+import com.ai.claim.underwriter.repository.PolicyDB;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PolicyTermsServiceTest {
+
+    private static final PolicyTerms TERMS = new PolicyTerms(10.0, 0.0, 2000.0, Map.of("ROOM", 5000.0),
+            List.of("1.1 Cosmetic procedures"), List.of("Pre-existing diseases: 24 months"));
+
+    @Mock
+    private PolicyDB policyDB;
+
+    private ChatClient chatClient;
+    private PolicyTermsService service;
+
+    @BeforeEach
+    void setUp() {
+        chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        when(builder.build()).thenReturn(chatClient);
+        service = new PolicyTermsService(builder, policyDB, new ObjectMapper(), 10);
+        service.policyTermsExtractionPrompt = new ByteArrayResource("extract".getBytes());
+    }
+
+    @Test
+    void extractAndStore_savesNewPolicyWithTermsAndCachesThem() {
+        // Arrange
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any(ChatOptions.class)).call()
+                .entity(PolicyTerms.class)).thenReturn(TERMS);
+        when(policyDB.findByPolicyCode("ASPL-HI-784512")).thenReturn(Optional.empty());
+
+        // Act
+        service.extractAndStore("ASPL-HI-784512", "policy.txt", "Annual Deductible: INR 2,000");
+        Optional<PolicyTerms> cached = service.termsFor("ASPL-HI-784512");
+
+        // Assert
+        ArgumentCaptor<Policy> saved = ArgumentCaptor.forClass(Policy.class);
+        verify(policyDB).save(saved.capture());
+        assertThat(saved.getValue().getPolicyCode()).isEqualTo("ASPL-HI-784512");
+        assertThat(saved.getValue().getVersion()).isEqualTo("1.0");
+        assertThat(saved.getValue().getTitle()).isEqualTo("policy.txt");
+        assertThat(saved.getValue().getTerms()).contains("\"deductible\":2000.0").contains("Pre-existing diseases");
+        assertThat(cached).contains(TERMS);
+        verify(policyDB, times(1)).findByPolicyCode("ASPL-HI-784512");
+    }
+
+    @Test
+    void extractAndStore_reingestionUpdatesExistingRow() {
+        // Arrange
+        Policy existing = new Policy();
+        existing.setPolicyId(7L);
+        existing.setVersion("2.0");
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        existing.setCreatedAt(createdAt);
+        when(chatClient.prompt().system(any(Resource.class)).user(anyString()).options(any(ChatOptions.class)).call()
+                .entity(PolicyTerms.class)).thenReturn(TERMS);
+        when(policyDB.findByPolicyCode("POL-1")).thenReturn(Optional.of(existing));
+
+        // Act
+        service.extractAndStore("POL-1", null, "text");
+
+        // Assert
+        verify(policyDB).save(existing);
+        assertThat(existing.getVersion()).isEqualTo("2.0");
+        assertThat(existing.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(existing.getTitle()).isEqualTo("POL-1");
+    }
+
+    @Test
+    void termsFor_loadsStoredTermsOnceThenServesFromCache() throws Exception {
+        // Arrange
+        Policy policy = new Policy();
+        policy.setTerms(new ObjectMapper().writeValueAsString(TERMS));
+        when(policyDB.findByPolicyCode("POL-1")).thenReturn(Optional.of(policy));
+
+        // Act
+        Optional<PolicyTerms> first = service.termsFor("POL-1");
+        Optional<PolicyTerms> second = service.termsFor("POL-1");
+
+        // Assert
+        assertThat(first).contains(TERMS);
+        assertThat(second).contains(TERMS);
+        verify(policyDB, times(1)).findByPolicyCode("POL-1");
+    }
+
+    @Test
+    void termsFor_policyWithoutTerms_returnsEmpty() {
+        // Arrange
+        when(policyDB.findByPolicyCode("POL-1")).thenReturn(Optional.of(new Policy()));
+
+        // Act & Assert
+        assertThat(service.termsFor("POL-1")).isEmpty();
+    }
+
+    @Test
+    void termsFor_whenDatabaseFails_returnsEmpty() {
+        // Arrange
+        when(policyDB.findByPolicyCode("POL-1")).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act & Assert
+        assertThat(service.termsFor("POL-1")).isEmpty();
+    }
+}
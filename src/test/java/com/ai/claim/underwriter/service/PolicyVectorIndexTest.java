@@ -0,0 +1,144 @@
+package com.ai.claim.underwriter.service;
+
+import com.ai.claim.underwriter.model.PolicyChunk;
+import com.ai.claim.underwriter.repository.PolicyChunkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PolicyVectorIndexTest {
+
+    @Mock
+    private PolicyChunkRepository policyChunkRepository;
+
+    private PolicyVectorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PolicyVectorIndex(policyChunkRepository, 2, 60);
+    }
+
+    @Test
+    void snapshot_loadsLazilyAndServesFromMemoryAfterwards() {
+        // Arrange
+        when(policyChunkRepository.findByPolicy("POL-1", "JOHN")).thenReturn(chunks());
+
+        // Act
+        PolicyVectorIndex.PolicySnapshot first = index.snapshot("POL-1", "JOHN");
+        PolicyVectorIndex.PolicySnapshot second = index.snapshot("POL-1", "JOHN");
+
+        // Assert
+        assertThat(first).isSameAs(second);
+        assertThat(first.size()).isEqualTo(3);
+        verify(policyChunkRepository, times(1)).findByPolicy("POL-1", "JOHN");
+    }
+
+    @Test
+    void snapshot_withNoChunks_returnsNullAndDoesNotCache() {
+        // Arrange
+        when(policyChunkRepository.findByPolicy(anyString(), anyString())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThat(index.snapshot("POL-X", "JOHN")).isNull();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void invalidate_dropsAllCustomersOfThePolicy() {
+        // Arrange
+        when(policyChunkRepository.findByPolicy(anyString(), anyString())).thenReturn(chunks());
+        index.snapshot("POL-1", "JOHN");
+        index.snapshot("POL-1", "JANE");
+
+        // Act
+        index.invalidate("POL-1");
+        index.snapshot("POL-1", "JOHN");
+
+        // Assert
+        verify(policyChunkRepository, times(2)).findByPolicy("POL-1", "JOHN");
+    }
+
+    @Test
+    void snapshot_evictsLeastRecentlyUsedPolicyBeyondBound() {
+        // Arrange
+        when(policyChunkRepository.findByPolicy(anyString(), anyString())).thenReturn(chunks());
+
+        // Act
+        index.snapshot("POL-1", "A");
+        index.snapshot("POL-2", "A");
+        index.snapshot("POL-3", "A");
+
+        // Assert
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void vectorSearch_returnsExactTopKByCosine() {
+        // Arrange
+        PolicyVectorIndex.PolicySnapshot snapshot = PolicyVectorIndex.PolicySnapshot.of(chunks());
+
+        // Act: unnormalized query pointing mostly at chunk "b"
+        List<Document> result = snapshot.vectorSearch(new float[]{0.1f, 3f, 0f}, 2);
+
+        // Assert
+        assertThat(result).extracting(Document::getId).containsExactly("b", "c");
+        assertThat(result.get(0).getScore()).isCloseTo(0.9986, within(1e-3));
+    }
+
+    @Test
+    void lexicalSearch_ranksByMatchedTermsAndSkipsNonMatching() {
+        // Arrange
+        PolicyVectorIndex.PolicySnapshot snapshot = PolicyVectorIndex.PolicySnapshot.of(chunks());
+
+        // Act
+        List<Document> result = snapshot.lexicalSearch(Set.of("amoxicillin", "charges"), 5);
+
+        // Assert
+        assertThat(result).extracting(Document::getId).containsExactly("c", "a");
+    }
+
+    @Test
+    void dot_matchesNaiveLoopForOddLengthsAndOffsets() {
+        // Arrange
+        Random random = new Random(7);
+        float[] matrix = new float[2 * 1537];
+        float[] query = new float[1537];
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = random.nextFloat() - 0.5f;
+        }
+        for (int i = 0; i < query.length; i++) {
+            query[i] = random.nextFloat() - 0.5f;
+        }
+
+        // Act
+        float unrolled = PolicyVectorIndex.dot(matrix, 1537, query, 1537);
+
+        // Assert
+        double naive = 0;
+        for (int i = 0; i < 1537; i++) {
+            naive += matrix[1537 + i] * query[i];
+        }
+        assertThat((double) unrolled).isCloseTo(naive, within(1e-3));
+    }
+
+    private static List<PolicyChunk> chunks() {
+        return List.of(
+                new PolicyChunk("a", "Room charges are covered up to the sum insured", Map.of("policyNumber", "POL-1"), new float[]{1f, 0f, 0f}),
+                new PolicyChunk("b", "Diagnostics are covered", Map.of(), new float[]{0f, 2f, 0f}),
+                new PolicyChunk("c", "Amoxicillin and other antibiotics: charge excluded", Map.of(), new float[]{0f, 1f, 1f}));
+    }
+}
@@ -11,11 +11,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.messages.AssistantMessage;
-import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.document.Document;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -50,6 +48,9 @@ class ReActAgentServiceTest {
     @Mock
     private DataBaseOperationService dataBaseOperationService;
 
+    @Mock
+    private ClaimResultWriter claimResultWriter;
+
     private ObjectMapper objectMapper;
     private ReActAgentService service;
 
@@ -71,7 +72,8 @@ class ReActAgentServiceTest {
                 invoiceContext,
                 objectMapper,
                 claimAdjudicationService,
-                dataBaseOperationService
+                dataBaseOperationService,
+                claimResultWriter
         );
     }
 
@@ -108,47 +110,6 @@ class ReActAgentServiceTest {
         assertThat(result.errorMessage()).contains("did not complete within");
     }
 
-    @Test
-    void messageTrimming_withLargeMessageHistory_trimsToLastFive() {
-        // Arrange
-        List<Message> messages = new ArrayList<>();
-        for (int i = 0; i < 10; i++) {
-            messages.add(new UserMessage("Message " + i));
-        }
-
-        // Act
-        List<Message> trimmed = service.messageTrimming(messages);
-
-        // Assert
-        assertThat(trimmed).hasSize(5);
-    }
-
-    @Test
-    void messageTrimming_withNullMessages_returnsEmptyList() {
-        // Act
-        List<Message> trimmed = service.messageTrimming(null);
-
-        // Assert
-        assertThat(trimmed).isNotNull();
-        assertThat(trimmed).isEmpty();
-    }
-
-    @Test
-    void messageTrimming_withFewerThanFiveMessages_returnsAll() {
-        // Arrange
-        List<Message> messages = new ArrayList<>();
-        messages.add(new UserMessage("Message 1"));
-        messages.add(new AssistantMessage("Response 1"));
-        messages.add(new UserMessage("Message 2"));
-
-        // Act
-        List<Message> trimmed = service.messageTrimming(messages);
-
-        // Assert
-        assertThat(trimmed).hasSize(3);
-        assertThat(trimmed).isEqualTo(messages);
-    }
-
     @Test
     void processWithReAct_withValidateAction_executesValidation() {
         // Arrange
@@ -193,6 +154,52 @@ class ReActAgentServiceTest {
         verify(extractorService).extract(anyString());
     }
 
+    @Test
+    void processWithReAct_adjudicatedButNeverSaved_discardsDraft() {
+        // Arrange
+        ClaimDecision draft = stubAdjudicationLoop("FINAL ANSWER: Done");
+
+        // Act
+        service.processWithReAct(new ExtractRequest("Consultation 100"), "POL-1", "Test");
+
+        // Assert
+        verify(claimAdjudicationService).discardDraft(draft);
+    }
+
+    @Test
+    void processWithReAct_savedDecision_keepsIt() {
+        // Arrange
+        ClaimDecision draft = stubAdjudicationLoop("ACTION: saveclaimdecision()", "FINAL ANSWER: Done");
+        when(dataBaseOperationService.saveIntoClaimDecisionDB(any())).thenReturn(draft);
+
+        // Act
+        ClaimProcessingResult result = service.processWithReAct(new ExtractRequest("Consultation 100"), "POL-1", "Test");
+
+        // Assert
+        assertThat(result.status()).isEqualTo("success");
+        verify(dataBaseOperationService).saveIntoClaimDecisionDB(any());
+        verify(claimAdjudicationService, never()).discardDraft(any());
+    }
+
+    private ClaimDecision stubAdjudicationLoop(String... afterAdjudicate) {
+        ReflectionTestUtils.setField(service, "blockingTaskExecutor", DIRECT_EXECUTOR);
+        ExtractedInvoice invoice = new ExtractedInvoice("Test", "INV-1", "2024-01-15", 100.0, "INR", "Hospital",
+                List.of(new ExtractedInvoice.LineItem("Consultation", 100.0, 0.95)), Map.of());
+        ClaimDecision draft = new ClaimDecision();
+        draft.setId(7L);
+        draft.setClaimId(42L);
+        draft.setDecision("APPROVED");
+        when(invoiceContext.getLastExtractedInvoice()).thenReturn(invoice);
+        when(claimAdjudicationService.adjudicate(any())).thenReturn(new ClaimEvidence(List.of(), draft, List.of(), "[]"));
+
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(requestSpec);
+        when(requestSpec.system(any(org.springframework.core.io.Resource.class))).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(responseSpec);
+        when(responseSpec.content()).thenReturn("ACTION: adjudicate(POL-1)", afterAdjudicate);
+        return draft;
+    }
+
     @Test
     void processWithReAct_withUnknownAction_asksForClarification() {
         // Arrange
@@ -220,4 +227,127 @@ class ReActAgentServiceTest {
 
 
 
+    @Test
+    void processWithReAct_withSmallInvoiceAndFastPath_usesSingleCall() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "fastPathEnabled", true);
+        ReflectionTestUtils.setField(service, "fastPathMaxLineItems", 5);
+        String patientName = "Test";
+
+        ExtractedInvoice invoice = new ExtractedInvoice(patientName, "INV-1", "2024-01-15", 100.0, "INR", "Hospital",
+                List.of(new ExtractedInvoice.LineItem("Blood Test", 100.0, 0.95)), Map.of());
+        ClaimDecision decision = new ClaimDecision();
+        decision.setClaimId(42L);
+        decision.setDecision("APPROVED");
+        decision.setPayableAmount(new BigDecimal("100.00"));
+        decision.setReasons("[\"Blood test covered\"]");
+        decision.setLetter("letter");
+        ClaimEvidence evidence = new ClaimEvidence(List.of(), decision, List.of("chunk"), "[]");
+
+        when(extractorService.estimateLineItemCount(anyString())).thenReturn(1);
+        when(claimAdjudicationService.adjudicateCombined(anyString(), eq("POL-1"), eq(patientName)))
+                .thenReturn(new CombinedAdjudication(invoice, evidence));
+        when(invoiceContext.getLastExtractedInvoice()).thenReturn(invoice);
+        when(dataBaseOperationService.saveIntoClaimDecisionDB(any())).thenReturn(decision);
+
+        // Act
+        ClaimProcessingResult result = service.processWithReAct(new ExtractRequest("Blood Test 100"), "POL-1", patientName);
+
+        // Assert
+        assertThat(result.status()).isEqualTo("success");
+        assertThat(result.claimId()).isEqualTo(42L);
+        assertThat(result.decision()).isEqualTo("APPROVED");
+        assertThat(result.reasons()).containsExactly("Blood test covered");
+        assertThat(decision.getHospitalName()).isEqualTo("Hospital");
+        verify(dataBaseOperationService).saveInvoiceData(invoice);
+        verify(dataBaseOperationService).saveIntoClaimEvidenceDB(any());
+        verify(chatClient, never()).prompt(any(Prompt.class));
+    }
+
+    @Test
+    void processWithReAct_whenFastPathFails_fallsBackToReActLoop() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "fastPathEnabled", true);
+        ReflectionTestUtils.setField(service, "fastPathMaxLineItems", 5);
+
+        when(extractorService.estimateLineItemCount(anyString())).thenReturn(2);
+        when(claimAdjudicationService.adjudicateCombined(anyString(), anyString(), anyString()))
+                .thenThrow(new RuntimeException("schema mismatch"));
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(requestSpec);
+        when(requestSpec.system(any(org.springframework.core.io.Resource.class))).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(responseSpec);
+        when(responseSpec.content()).thenReturn("FINAL ANSWER: nothing to do");
+
+        // Act
+        ClaimProcessingResult result = service.processWithReAct(new ExtractRequest("Blood Test 100"), "POL-1", "Test");
+
+        // Assert
+        assertThat(result.status()).isEqualTo("error");
+        verify(chatClient).prompt(any(Prompt.class));
+    }
+
+    @Test
+    void processWithReAct_withLargeInvoice_skipsFastPath() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "fastPathEnabled", true);
+        ReflectionTestUtils.setField(service, "fastPathMaxLineItems", 5);
+
+        when(extractorService.estimateLineItemCount(anyString())).thenReturn(60);
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(requestSpec);
+        when(requestSpec.system(any(org.springframework.core.io.Resource.class))).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(responseSpec);
+        when(responseSpec.content()).thenReturn("FINAL ANSWER: nothing to do");
+
+        // Act
+        service.processWithReAct(new ExtractRequest("big invoice"), "POL-1", "Test");
+
+        // Assert
+        verify(claimAdjudicationService, never()).adjudicateCombined(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void processWithReAct_withNoRecognisedLineItems_skipsFastPath() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "fastPathEnabled", true);
+        ReflectionTestUtils.setField(service, "fastPathMaxLineItems", 5);
+
+        when(extractorService.estimateLineItemCount(anyString())).thenReturn(0);
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(requestSpec);
+        when(requestSpec.system(any(org.springframework.core.io.Resource.class))).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(responseSpec);
+        when(responseSpec.content()).thenReturn("FINAL ANSWER: nothing to do");
+
+        // Act
+        service.processWithReAct(new ExtractRequest("scanned invoice without amounts"), "POL-1", "Test");
+
+        // Assert
+        verify(claimAdjudicationService, never()).adjudicateCombined(anyString(), anyString(), anyString());
+        verify(chatClient).prompt(any(Prompt.class));
+    }
+
+    @Test
+    void processWithReAct_atFastPathThreshold_usesSingleCall() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "fastPathEnabled", true);
+        ReflectionTestUtils.setField(service, "fastPathMaxLineItems", 5);
+
+        when(extractorService.estimateLineItemCount(anyString())).thenReturn(5);
+        when(claimAdjudicationService.adjudicateCombined(anyString(), anyString(), anyString()))
+                .thenThrow(new RuntimeException("schema mismatch"));
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(requestSpec);
+        when(requestSpec.system(any(org.springframework.core.io.Resource.class))).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(responseSpec);
+        when(responseSpec.content()).thenReturn("FINAL ANSWER: nothing to do");
+
+        // Act
+        service.processWithReAct(new ExtractRequest("five item invoice"), "POL-1", "Test");
+
+        // Assert
+        verify(claimAdjudicationService).adjudicateCombined(anyString(), eq("POL-1"), eq("Test"));
+    }
+
 }
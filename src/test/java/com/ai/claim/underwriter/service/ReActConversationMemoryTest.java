@@ -0,0 +1,145 @@
+package com.ai.claim.underwriter.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReActConversationMemoryTest {
+
+    private static final TokenCountEstimator ESTIMATOR = new JTokkitTokenCountEstimator();
+
+    @Test
+    void addStep_withLargeObservation_truncatesToBudget() {
+        // Arrange
+        ReActConversationMemory memory = new ReActConversationMemory(ESTIMATOR, 5, 3000, 50);
+        memory.start("Process this invoice");
+        String observation = "{\"evidence\": \"" + "policy clause text ".repeat(500) + "\"}";
+
+        // Act
+        memory.addStep("THOUGHT: adjudicate\nACTION: adjudicate()", "adjudicate", true, observation);
+        List<Message> window = memory.window();
+
+        // Assert
+        String lastObservation = window.get(window.size() - 1).getText();
+        assertThat(lastObservation).startsWith("OBSERVATION: {\"evidence\"").contains("[truncated");
+        assertThat(ESTIMATOR.estimate(lastObservation)).isLessThan(80);
+    }
+
+    @Test
+    void window_keepsTaskPinnedAndAddsStateSummary() {
+        // Arrange
+        ReActConversationMemory memory = new ReActConversationMemory(ESTIMATOR, 2, 3000, 400);
+        memory.start("Process this invoice and save it to database: INV-1");
+
+        // Act
+        memory.addStep("ACTION: extract()", "extract", true, "{\"valid\":true}");
+        memory.addStep("ACTION: adjudicate()", "adjudicate", false, "{\"error\": \"timeout\"}");
+        List<Message> window = memory.window();
+
+        // Assert
+        assertThat(window).hasSize(4);
+        assertThat(window.get(0).getText()).contains("INV-1");
+        assertThat(window.get(1).getText()).startsWith("STATE:").contains("extract=ok", "adjudicate=failed");
+        assertThat(window.get(2)).isInstanceOf(AssistantMessage.class);
+        assertThat(window.get(3).getText()).contains("timeout");
+        assertThat(memory.lastWindowTokens()).isPositive();
+    }
+
+    @Test
+    void window_withTightTokenBudget_keepsWholePairsOnly() {
+        // Arrange
+        ReActConversationMemory memory = new ReActConversationMemory(ESTIMATOR, 10, 15, 400);
+        memory.start("task");
+        memory.addStep("ACTION: extract()", "extract", true, "short observation");
+        memory.addStep("ACTION: adjudicate()", "adjudicate", true, "another short observation");
+
+        // Act
+        List<Message> window = memory.window();
+
+        // Assert: task + state + the latest pair
+        assertThat(window).hasSize(4);
+        assertThat(window.get(2).getText()).isEqualTo("ACTION: adjudicate()");
+    }
+
+    @Test
+    void markInvoiceConsumed_replacesInvoiceText() {
+        // Arrange
+        ReActConversationMemory memory = new ReActConversationMemory(ESTIMATOR, 5, 3000, 400);
+        memory.start("Process this invoice and save it to database: very long invoice text");
+
+        // Act
+        memory.markInvoiceConsumed();
+
+        // Assert
+        assertThat(memory.window().get(0).getText()).isEqualTo(ReActConversationMemory.INVOICE_ALREADY_PROVIDED);
+    }
+
+    @Test
+    void trim_respectsTokenBudgetButKeepsNewestMessage() {
+        // Arrange
+        ReActConversationMemory memory = new ReActConversationMemory(ESTIMATOR, 5, 10, 400);
+        List<Message> messages = List.of(
+                new UserMessage("first message"),
+                new UserMessage("word ".repeat(100)));
+
+        // Act
+        List<Message> trimmed = memory.trim(messages);
+
+        // Assert
+        assertThat(trimmed).containsExactly(messages.get(1));
+    }
+
+    @Test
+    void trim_withLargeMessageHistory_keepsLastFive() {
+        // Arrange
+        ReActConversationMemory memory = new ReActConversationMemory(ESTIMATOR, 5, 3000, 400);
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(new UserMessage("Message " + i));
+        }
+
+        // Act
+        List<Message> trimmed = memory.trim(messages);
+
+        // Assert
+        assertThat(trimmed).hasSize(5);
+    }
+
+    @Test
+    void trim_withNullMessages_returnsEmptyList() {
+        // Arrange
+        ReActConversationMemory memory = new ReActConversationMemory(ESTIMATOR, 5, 3000, 400);
+
+        // Act
+        List<Message> trimmed = memory.trim(null);
+
+        // Assert
+        assertThat(trimmed).isNotNull();
+        assertThat(trimmed).isEmpty();
+    }
+
+    @Test
+    void trim_withFewerThanFiveMessages_returnsAll() {
+        // Arrange
+        ReActConversationMemory memory = new ReActConversationMemory(ESTIMATOR, 5, 3000, 400);
+        List<Message> messages = new ArrayList<>();
+        messages.add(new UserMessage("Message 1"));
+        messages.add(new AssistantMessage("Response 1"));
+        messages.add(new UserMessage("Message 2"));
+
+        // Act
+        List<Message> trimmed = memory.trim(messages);
+
+        // Assert
+        assertThat(trimmed).hasSize(3);
+        assertThat(trimmed).isEqualTo(messages);
+    }
+}
@@ -20,6 +20,8 @@ class AbstractConstantTest {
         assertEquals("payableAmount", AbstractConstant.PAYABLE_AMOUNT);
         assertEquals("reasons", AbstractConstant.REASONS);
         assertEquals("letter", AbstractConstant.LETTER);
+        assertEquals("itemizedDecisions", AbstractConstant.ITEMIZED_DECISIONS);
+        assertEquals("policyTerms", AbstractConstant.POLICY_TERMS);
         
         // Test validation constants
         assertEquals("Missing patient name", AbstractConstant.MISSING_PATIENT_NAME);
@@ -0,0 +1,78 @@
+package com.ai.claim.underwriter.utils;
+
+import com.ai.claim.underwriter.entity.ClaimDecision;
+import com.ai.claim.underwriter.model.ClaimEvidence;
+import com.ai.claim.underwriter.model.ExtractedInvoice;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlannerObservationsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void adjudication_projectsIdsAmountsAndCountsOnly() throws Exception {
+        // Arrange
+        ClaimDecision decision = new ClaimDecision();
+        decision.setClaimId(42L);
+        decision.setDecision("PARTIAL");
+        decision.setPayableAmount(new BigDecimal("1500.00"));
+        decision.setLetter("Dear customer, ... a very long letter ...");
+        String itemized = "[{\"service\":\"Room\",\"covered\":true},{\"service\":\"Gloves\",\"covered\":false}]";
+        List<Document> matches = List.of(new Document("policy chunk ".repeat(200)));
+        ClaimEvidence evidence = new ClaimEvidence(matches, decision, List.of("chunk one", "chunk two"), itemized);
+
+        // Act
+        Map<String, Object> observation = PlannerObservations.adjudication(evidence, objectMapper);
+        String json = objectMapper.writeValueAsString(observation);
+
+        // Assert
+        assertThat(observation)
+                .containsEntry("claimId", 42L)
+                .containsEntry("decision", "PARTIAL")
+                .containsEntry("lineItems", 2)
+                .containsEntry("coveredItems", 1)
+                .containsEntry("evidenceChunks", 2)
+                .containsEntry("hasLetter", true);
+        assertThat(json).doesNotContain("policy chunk", "Dear customer");
+        assertThat(json.length()).isLessThan(objectMapper.writeValueAsString(evidence).length() / 10);
+    }
+
+    @Test
+    void adjudication_withInvalidItemizedJson_reportsZeroCounts() {
+        // Arrange
+        ClaimDecision decision = new ClaimDecision();
+        decision.setClaimId(1L);
+        decision.setDecision("DENIED");
+        ClaimEvidence evidence = new ClaimEvidence(List.of(), decision, null, "not json");
+
+        // Act
+        Map<String, Object> observation = PlannerObservations.adjudication(evidence, objectMapper);
+
+        // Assert
+        assertThat(observation)
+                .containsEntry("lineItems", 0)
+                .containsEntry("evidenceChunks", 0)
+                .containsEntry("hasLetter", false);
+    }
+
+    @Test
+    void extraction_reportsValidityAndLineItemCount() throws Exception {
+        // Arrange
+        ExtractedInvoice invoice = new ExtractedInvoice("John Doe", "INV-1", "2024-01-01", 500.0, "INR", "City Hospital",
+                List.of(new ExtractedInvoice.LineItem("Room", 500.0, 0.9)), Map.of());
+
+        // Act
+        String json = objectMapper.writeValueAsString(PlannerObservations.extraction(invoice, List.of()));
+
+        // Assert
+        assertThat(json).contains("\"valid\":true", "\"lineItems\":1", "\"invoiceNumber\":\"INV-1\"");
+    }
+}
@@ -0,0 +1,89 @@
+package com.ai.claim.underwriter.utils;
+
+import com.ai.claim.underwriter.model.ReActStep;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReActResponseScannerTest {
+
+    @Test
+    void scan_withThoughtAndAction_returnsBothSections() {
+        // Act
+        ReActStep step = ReActResponseScanner.scan("THOUGHT: I need to extract the invoice.\nACTION: extract()");
+
+        // Assert
+        assertThat(step.thought()).isEqualTo("I need to extract the invoice.");
+        assertThat(step.toolName()).isEqualTo("extract");
+        assertThat(step.parameters()).isEmpty();
+        assertThat(step.isFinal()).isFalse();
+    }
+
+    @Test
+    void scan_isCaseInsensitiveAndLowerCasesToolName() {
+        // Act
+        ReActStep step = ReActResponseScanner.scan("thought: save it\naction:   saveClaimDecision ( )");
+
+        // Assert
+        assertThat(step.toolName()).isEqualTo("saveclaimdecision");
+        assertThat(step.thought()).isEqualTo("save it");
+    }
+
+    @Test
+    void scan_withNestedParentheses_keepsBalancedParameters() {
+        // Act
+        ReActStep step = ReActResponseScanner.scan("ACTION: validate({\"amount\": (100)}) then wait (as instructed)");
+
+        // Assert
+        assertThat(step.toolName()).isEqualTo("validate");
+        assertThat(step.parameters()).isEqualTo("{\"amount\": (100)}");
+    }
+
+    @Test
+    void scan_withUnbalancedParentheses_fallsBackToLastClosing() {
+        // Act
+        ReActStep step = ReActResponseScanner.scan("ACTION: extract(text with ( open paren)");
+
+        // Assert
+        assertThat(step.parameters()).isEqualTo("text with ( open paren");
+    }
+
+    @Test
+    void scan_skipsActionMarkerThatIsNotACall() {
+        // Act
+        ReActStep step = ReActResponseScanner.scan("THOUGHT: the ACTION: keyword comes next\nACTION: adjudicate()");
+
+        // Assert
+        assertThat(step.toolName()).isEqualTo("adjudicate");
+        assertThat(step.thought()).isEqualTo("the ACTION: keyword comes next");
+    }
+
+    @Test
+    void scan_withFinalAnswer_returnsAnswerText() {
+        // Act
+        ReActStep step = ReActResponseScanner.scan("THOUGHT: done\nFinal Answer: {\"status\": \"success\"}");
+
+        // Assert
+        assertThat(step.isFinal()).isTrue();
+        assertThat(step.finalAnswer()).isEqualTo("{\"status\": \"success\"}");
+        assertThat(step.thought()).isEqualTo("done");
+        assertThat(step.hasAction()).isFalse();
+    }
+
+    @Test
+    void scan_withoutMarkers_returnsEmptyStep() {
+        // Act
+        ReActStep step = ReActResponseScanner.scan("I am not sure what to do");
+
+        // Assert
+        assertThat(step.hasAction()).isFalse();
+        assertThat(step.isFinal()).isFalse();
+        assertThat(step.thought()).isNull();
+    }
+
+    @Test
+    void scan_withNullOrEmpty_returnsEmptyStep() {
+        assertThat(ReActResponseScanner.scan(null)).isEqualTo(ReActStep.EMPTY);
+        assertThat(ReActResponseScanner.scan("")).isEqualTo(ReActStep.EMPTY);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ai.claim.underwriter.utils;
+
+import com.ai.claim.underwriter.exception.ClaimProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingAdjudicationParserTest {
+
+    private static final String OUTPUT = """
+            {"policyTerms":{"opdCopayPercent":10},
+             "itemizedDecisions":[{"service":"Consultation","amount":1000,"covered":true,"careType":"OPD"}],
+             "reasons":["Consultation covered"],
+             "letter":"Dear customer, payable {{PAYABLE_AMOUNT}} – ₹ rupees"}""";
+
+    private StreamingAdjudicationParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new StreamingAdjudicationParser(new ObjectMapper());
+    }
+
+    @Test
+    void feed_smallChunks_completesFieldsInOrderAndBuildsObject() {
+        // Arrange
+        List<String> completed = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < OUTPUT.length(); i += 7) {
+            completed.addAll(parser.feed(OUTPUT.substring(i, Math.min(OUTPUT.length(), i + 7))));
+        }
+        ObjectNode result = parser.finish();
+
+        // Assert
+        assertThat(completed).containsExactly("policyTerms", "itemizedDecisions", "reasons", "letter");
+        assertThat(result.path("policyTerms").path("opdCopayPercent").asInt()).isEqualTo(10);
+        assertThat(result.path("itemizedDecisions").get(0).path("service").asText()).isEqualTo("Consultation");
+        assertThat(result.path("letter").asText()).isEqualTo("Dear customer, payable {{PAYABLE_AMOUNT}} – ₹ rupees");
+    }
+
+    @Test
+    void feed_itemizedDecisionsAvailableBeforeLetterArrives() {
+        // Arrange
+        int letterStart = OUTPUT.indexOf("\"letter\"");
+
+        // Act
+        List<String> completed = parser.feed(OUTPUT.substring(0, letterStart + 20));
+
+        // Assert
+        assertThat(completed).contains("itemizedDecisions").doesNotContain("letter");
+        assertThat(parser.fields().path("itemizedDecisions")).hasSize(1);
+    }
+
+    @Test
+    void feed_codeFencesAroundObject_areIgnored() {
+        // Act
+        parser.feed("``");
+        parser.feed("`json\n" + OUTPUT.substring(0, 40));
+        parser.feed(OUTPUT.substring(40) + "\n```");
+
+        // Assert
+        assertThat(parser.finish().path("reasons")).hasSize(1);
+    }
+
+    @Test
+    void feed_proseBeforeObject_failsOnFirstChunk() {
+        // Act & Assert
+        assertThatThrownBy(() -> parser.feed("Here is the JSON"))
+                .isInstanceOf(ClaimProcessingException.class)
+                .hasMessageContaining("does not start with a JSON object");
+    }
+
+    @Test
+    void feed_wrongFieldType_failsBeforeStreamEnds() {
+        // Act & Assert
+        assertThatThrownBy(() -> parser.feed("{\"policyTerms\":{},\"itemizedDecisions\":\"none\""))
+                .isInstanceOf(ClaimProcessingException.class)
+                .hasMessageContaining("itemizedDecisions");
+    }
+
+    @Test
+    void feed_nonObjectItemizedDecision_fails() {
+        // Act & Assert
+        assertThatThrownBy(() -> parser.feed("{\"itemizedDecisions\":[{\"service\":\"A\"},\"B\""))
+                .isInstanceOf(ClaimProcessingException.class)
+                .hasMessageContaining("Itemized decision is not a JSON object");
+    }
+
+    @Test
+    void feed_invalidJsonSyntax_fails() {
+        // Act & Assert
+        assertThatThrownBy(() -> parser.feed("{\"reasons\":[\"a\" \"b\"]"))
+                .isInstanceOf(ClaimProcessingException.class)
+                .hasMessageContaining("Malformed adjudication output");
+    }
+
+    @Test
+    void finish_truncatedOutput_fails() {
+        // Arrange
+        parser.feed(OUTPUT.substring(0, OUTPUT.length() - 10));
+
+        // Act & Assert
+        assertThatThrownBy(() -> parser.finish())
+                .isInstanceOf(ClaimProcessingException.class)
+                .hasMessageContaining("ended before the JSON object was complete");
+    }
+}